@@ -0,0 +1,106 @@
+package org.lsz.uvm.benchmark;
+
+import org.lsz.uvm.main.CacheSecuencias;
+import org.lsz.uvm.main.CargadorSecuenciaMapeada;
+import org.lsz.uvm.main.SecuenciaEmpaquetada;
+import org.lsz.uvm.util.UtilSimulacionRibosomal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Mide la carga y limpieza de archivos de proteina con {@link CargadorSecuenciaMapeada}
+ * (la lectura que hay detras de {@code ARN.cargarSecuenciaProteina}) y
+ * {@code UtilSimulacionRibosomal.removerNumeros} linea por linea. Los tamanos
+ * sinteticos se escriben en un directorio temporal (no en "proteina/", donde
+ * {@code Main importar} y {@code lote} los tomarian si la prueba se interrumpe) y
+ * se eliminan al terminar.
+ *
+ * {@code ARN} pasa por {@link CacheSecuencias#compartida()}, que despues de la primera
+ * llamada devolveria la misma secuencia sin leer el archivo; por eso la carga se mide
+ * con el cargador directamente, y el acierto de cache tiene su propio benchmark.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class BenchmarkCarga {
+
+    /** "COL5A1" usa el archivo incluido; los demas valores generan un archivo sintetico. */
+    @Param({"COL5A1", "1MB", "100MB"})
+    public String tamano;
+
+    private Path archivo;
+    private Path directorioSintetico;
+    private CacheSecuencias cache;
+    private List<String> lineas;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        if (tamano.equals("COL5A1")) {
+            archivo = Paths.get("proteina", "COL5A1.txt");
+        } else {
+            directorioSintetico = Files.createTempDirectory("jmh_carga_");
+            archivo = directorioSintetico.resolve(tamano + ".txt");
+            DatosSinteticos.escribirArchivo(archivo, DatosSinteticos.bytes(tamano));
+        }
+        lineas = Files.readAllLines(archivo);
+        // Cache propia, ya con la secuencia, para medir solo el acierto.
+        cache = new CacheSecuencias(Long.MAX_VALUE);
+        cache.cargar(archivo);
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        if (directorioSintetico != null) {
+            Files.deleteIfExists(archivo);
+            Files.deleteIfExists(directorioSintetico);
+        }
+    }
+
+    @Benchmark
+    public String cargarComoTexto() throws IOException {
+        return CargadorSecuenciaMapeada.cargar(archivo).toString();
+    }
+
+    @Benchmark
+    public SecuenciaEmpaquetada cargarSecuencia() throws IOException {
+        return CargadorSecuenciaMapeada.cargar(archivo);
+    }
+
+    @Benchmark
+    public SecuenciaEmpaquetada cargarDesdeCache() throws IOException {
+        return cache.cargar(archivo);
+    }
+
+    @Benchmark
+    public void removerNumeros(Blackhole agujero) {
+        for (String linea : lineas) {
+            agujero.consume(UtilSimulacionRibosomal.removerNumeros(linea));
+        }
+    }
+}
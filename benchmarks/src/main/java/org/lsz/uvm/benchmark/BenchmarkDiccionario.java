@@ -0,0 +1,50 @@
+package org.lsz.uvm.benchmark;
+
+import org.lsz.uvm.main.TraductorCodones;
+import org.lsz.uvm.util.DiccionarioAminoacidos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Mide la lectura de "diccionario/aminoacidos.txt" y su compilacion a la tabla de 64 codones.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkDiccionario {
+
+    private Map<String, String> mapaAminoacidos;
+
+    @Setup
+    public void preparar() {
+        mapaAminoacidos = DiccionarioAminoacidos.crearDiccionarioAminoacidos();
+    }
+
+    @Benchmark
+    public Map<String, String> crearDiccionarioAminoacidos() {
+        return DiccionarioAminoacidos.crearDiccionarioAminoacidos();
+    }
+
+    @Benchmark
+    public TraductorCodones compilarTraductor() {
+        return TraductorCodones.compilar(mapaAminoacidos);
+    }
+}
@@ -0,0 +1,103 @@
+package org.lsz.uvm.benchmark;
+
+import org.lsz.uvm.main.ARN;
+import org.lsz.uvm.main.CargadorSecuenciaMapeada;
+import org.lsz.uvm.main.SecuenciaEmpaquetada;
+import org.lsz.uvm.main.TraductorCodones;
+import org.lsz.uvm.util.DiccionarioAminoacidos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Mide la traduccion: {@code ARN.procesarSecuenciaARN} (incluye construir el texto
+ * del resultado; la consola se descarta) y la traduccion compacta con la tabla de
+ * 64 codones, tambien sobre un arreglo reservado de antemano (con {@code -prof gc}
+ * debe medir 0 B/op mientras no haya una grabacion de JFR). Los archivos sinteticos son un unico marco abierto, asi que se
+ * traduce la secuencia completa.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class BenchmarkTraduccion {
+
+    /** "COL5A1" usa el archivo incluido; los demas valores generan un archivo sintetico. */
+    @Param({"COL5A1", "1MB", "100MB"})
+    public String tamano;
+
+    private Map<String, String> mapaAminoacidos;
+    private TraductorCodones traductor;
+    private SecuenciaEmpaquetada secuencia;
+    private String secuenciaTexto;
+    private byte[] destino;
+    private PrintStream salidaOriginal;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        Path archivo;
+        Path temporal = null;
+        if (tamano.equals("COL5A1")) {
+            archivo = Paths.get("proteina", "COL5A1.txt");
+        } else {
+            temporal = Files.createTempFile("jmh_traduccion_", ".txt");
+            DatosSinteticos.escribirArchivo(temporal, DatosSinteticos.bytes(tamano));
+            archivo = temporal;
+        }
+        secuencia = CargadorSecuenciaMapeada.cargar(archivo);
+        secuenciaTexto = secuencia.toString();
+        destino = new byte[secuencia.longitud() / 3];
+        if (temporal != null) {
+            Files.delete(temporal);
+        }
+        mapaAminoacidos = DiccionarioAminoacidos.crearDiccionarioAminoacidos();
+        traductor = TraductorCodones.compilar(mapaAminoacidos);
+        salidaOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        System.setOut(salidaOriginal);
+    }
+
+    @Benchmark
+    public void procesarSecuenciaARN() {
+        ARN.procesarSecuenciaARN(secuenciaTexto, mapaAminoacidos);
+    }
+
+    @Benchmark
+    public byte[] traducirSecuenciaARN() {
+        return ARN.traducirSecuenciaARN(secuencia, traductor);
+    }
+
+    @Benchmark
+    public int traducirEnArreglo() {
+        return traductor.traducir(secuencia, 0, destino);
+    }
+}
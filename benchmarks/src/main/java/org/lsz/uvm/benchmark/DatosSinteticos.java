@@ -0,0 +1,94 @@
+package org.lsz.uvm.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ *
+ * Genera archivos de secuencia sinteticos con el mismo formato numerado de
+ * "proteina/COL5A1.txt" (60 bases por linea en grupos de 10). La secuencia es
+ * un marco abierto: codones aleatorios sin STOP y un unico UAA al final, para
+ * que la traduccion recorra el archivo completo.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+final class DatosSinteticos {
+
+    /** Codones de ADN que no son de terminacion. */
+    private static final String[] CODONES;
+
+    static {
+        String bases = "acgt";
+        String[] codones = new String[61];
+        int indice = 0;
+        for (int i = 0; i < 64; i++) {
+            String codon = "" + bases.charAt(i >> 4) + bases.charAt((i >> 2) & 3) + bases.charAt(i & 3);
+            if (!codon.equals("taa") && !codon.equals("tag") && !codon.equals("tga")) {
+                codones[indice++] = codon;
+            }
+        }
+        CODONES = codones;
+    }
+
+    private DatosSinteticos() {
+    }
+
+    /**
+     * Convierte el parametro de tamano de los benchmarks a bytes ("1MB", "100MB").
+     *
+     * @param tamano El tamano con sufijo KB o MB.
+     * @return El numero de bytes.
+     */
+    static long bytes(String tamano) {
+        String texto = tamano.toUpperCase();
+        if (texto.endsWith("MB")) {
+            return Long.parseLong(texto.substring(0, texto.length() - 2)) * 1024 * 1024;
+        }
+        if (texto.endsWith("KB")) {
+            return Long.parseLong(texto.substring(0, texto.length() - 2)) * 1024;
+        }
+        return Long.parseLong(texto);
+    }
+
+    /**
+     * Escribe un archivo de aproximadamente el tamano indicado.
+     *
+     * @param archivo La ruta del archivo a crear.
+     * @param bytesObjetivo El tamano aproximado en bytes.
+     * @throws IOException si no se puede escribir
+     */
+    static void escribirArchivo(Path archivo, long bytesObjetivo) throws IOException {
+        // Cada linea de 60 bases ocupa 76 bytes.
+        long bases = Math.max(6, bytesObjetivo / 76 * 60);
+        bases -= bases % 3;
+        StringBuilder secuencia = new StringBuilder(60);
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        try (BufferedWriter escritor = Files.newBufferedWriter(archivo, StandardCharsets.US_ASCII)) {
+            for (long posicion = 0; posicion < bases; posicion += 3) {
+                secuencia.append(posicion + 3 < bases ? CODONES[aleatorio.nextInt(CODONES.length)] : "taa");
+                if (secuencia.length() >= 60) {
+                    escribirLinea(escritor, posicion + 3 - secuencia.length() + 1, secuencia, 60);
+                    secuencia.delete(0, 60);
+                }
+            }
+            if (secuencia.length() > 0) {
+                escribirLinea(escritor, bases - secuencia.length() + 1, secuencia, secuencia.length());
+            }
+        }
+    }
+
+    private static void escribirLinea(BufferedWriter escritor, long numero, CharSequence secuencia, int bases)
+            throws IOException {
+        escritor.write(String.format("%9d", numero));
+        for (int i = 0; i < bases; i += 10) {
+            escritor.write(' ');
+            escritor.append(secuencia, i, Math.min(bases, i + 10));
+        }
+        escritor.newLine();
+    }
+}
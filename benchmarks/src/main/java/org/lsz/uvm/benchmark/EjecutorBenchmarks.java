@@ -0,0 +1,33 @@
+package org.lsz.uvm.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *
+ * Punto de entrada de "benchmarks.jar". Acepta las mismas opciones que la linea
+ * de comandos de JMH (por ejemplo {@code -p tamano=COL5A1} o un patron de
+ * benchmarks) y siempre agrega el perfilador de GC, de modo que cada resultado
+ * reporta el rendimiento junto con la tasa de asignacion de memoria
+ * ({@code gc.alloc.rate} y {@code gc.alloc.rate.norm}).
+ *
+ * Debe ejecutarse desde la raiz del proyecto para encontrar "proteina/" y "diccionario/".
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public class EjecutorBenchmarks {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options opciones = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opciones).run();
+    }
+}
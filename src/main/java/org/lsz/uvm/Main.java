@@ -3,11 +3,28 @@ package org.lsz.uvm;
 import javafx.application.Application;
 import org.lsz.uvm.gui.SimulacionRibosomalGUI;
 import org.lsz.uvm.main.ARN;
+import org.lsz.uvm.main.EscanerColageno;
+import org.lsz.uvm.main.MonteCarloTraduccion;
+import org.lsz.uvm.main.MutagenesisSaturacion;
+import org.lsz.uvm.main.SecuenciaEmpaquetada;
+import org.lsz.uvm.main.TasasElongacion;
+import org.lsz.uvm.main.TraduccionEnFlujo;
+import org.lsz.uvm.main.TraductorCodones;
 import org.lsz.uvm.util.DiccionarioAminoacidos;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Función principal del programa.
@@ -17,7 +34,103 @@ import java.util.Scanner;
  * @return 0 si el programa finaliza correctamente.
  */
 public class Main {
-    public static void main(String[] args) throws IOException {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        // "lote" ejecuta la traducción sin interfaz gráfica (servidores sin pantalla).
+        if (args.length > 0 && args[0].equals("lote")) {
+            TraduccionLote.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // "mutagenesis <proteina>" escribe la tabla de efectos de todas las sustituciones.
+        if (args.length > 1 && args[0].equals("mutagenesis")) {
+            SecuenciaEmpaquetada secuencia = ARN.cargarSecuenciaProteina(args[1]);
+            TraductorCodones traductor = TraductorCodones.compilar(DiccionarioAminoacidos.crearDiccionarioAminoacidos());
+            Writer salida = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            // Si la proteina viene del contenedor, su indice de paradas no se recalcula.
+            new MutagenesisSaturacion(traductor).escanear(secuencia, ARN.cargarParadas(args[1], traductor),
+                    ForkJoinPool.commonPool()).escribir(salida);
+            salida.flush();
+            return;
+        }
+        // "variantes <proteina> <tabla>" evalua las variantes de pacientes contra la referencia.
+        if (args.length > 2 && args[0].equals("variantes")) {
+            TraductorCodones traductor = TraductorCodones.compilar(DiccionarioAminoacidos.crearDiccionarioAminoacidos());
+            Writer salida = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            ARN.evaluarVariantes(args[1], Path.of(args[2]), traductor, salida);
+            salida.flush();
+            return;
+        }
+        // "importar" convierte proteina/*.txt al contenedor binario que se carga sin analizar texto.
+        if (args.length > 0 && args[0].equals("importar")) {
+            TraductorCodones traductor = TraductorCodones.compilar(DiccionarioAminoacidos.crearDiccionarioAminoacidos());
+            System.out.println("Contenedor generado: " + ARN.importarProteinas(traductor));
+            return;
+        }
+        // "montecarlo <proteina>... [trayectorias]" estima el rendimiento con traduccion estocastica.
+        if (args.length > 1 && args[0].equals("montecarlo")) {
+            int ultimo = args.length;
+            long trayectorias = 100_000;
+            if (args[ultimo - 1].matches("\\d+")) {
+                trayectorias = Long.parseLong(args[--ultimo]);
+            }
+            TraductorCodones traductor = TraductorCodones.compilar(DiccionarioAminoacidos.crearDiccionarioAminoacidos());
+            MonteCarloTraduccion montecarlo = new MonteCarloTraduccion(TasasElongacion.porDefecto(),
+                    MonteCarloTraduccion.TASA_CAIDA_POR_DEFECTO);
+            for (int i = 1; i < ultimo; i++) {
+                SecuenciaEmpaquetada secuencia = ARN.cargarSecuenciaProteina(args[i]);
+                System.out.println("== " + args[i]);
+                System.out.println(montecarlo.simular(secuencia, 0, traductor, trayectorias, 1).describir());
+            }
+            return;
+        }
+        // "flujo <archivo> [todas]" traduce un archivo de cualquier tamano sin cargarlo en memoria.
+        if (args.length > 1 && args[0].equals("flujo")) {
+            TraductorCodones traductor = TraductorCodones.compilar(DiccionarioAminoacidos.crearDiccionarioAminoacidos());
+            boolean todas = args.length > 2 && args[2].equals("todas");
+            Writer salida = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII));
+            TraduccionEnFlujo.Resumen resumen = new TraduccionEnFlujo(traductor, todas).traducir(Path.of(args[1]), segmento -> {
+                try {
+                    salida.write(segmento.enLetras());
+                    if (segmento.completo()) {
+                        salida.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            salida.flush();
+            System.err.println(resumen);
+            return;
+        }
+        // "colageno <referencia> [variante]... [saturacion]" busca defectos de la repeticion Gly-X-Y.
+        if (args.length > 1 && args[0].equals("colageno")) {
+            TraductorCodones traductor = TraductorCodones.compilar(DiccionarioAminoacidos.crearDiccionarioAminoacidos());
+            boolean saturacion = args[args.length - 1].equals("saturacion");
+            int ultimo = saturacion ? args.length - 1 : args.length;
+            SecuenciaEmpaquetada referencia = ARN.cargarSecuenciaProteina(args[1]);
+            byte[] silvestre = traductor.traducir(referencia, 0);
+            EscanerColageno.Informe informeReferencia = EscanerColageno.escanear(silvestre);
+            System.out.println("== " + args[1] + " (referencia)");
+            System.out.println(informeReferencia.describir());
+            List<byte[]> variantes = new ArrayList<>();
+            for (int i = 2; i < ultimo; i++) {
+                variantes.add(traductor.traducir(ARN.cargarSecuenciaProteina(args[i]), 0));
+            }
+            List<EscanerColageno.Informe> informes = EscanerColageno.escanearLote(variantes, informeReferencia);
+            for (int i = 2; i < ultimo; i++) {
+                System.out.println("== " + args[i]);
+                System.out.println(informes.get(i - 2).describir());
+            }
+            if (saturacion) {
+                MutagenesisSaturacion.TablaEfectos tabla = new MutagenesisSaturacion(traductor).escanear(referencia,
+                        ARN.cargarParadas(args[1], traductor), ForkJoinPool.commonPool());
+                EscanerColageno.Saturacion resultado = EscanerColageno.escanearSaturacion(tabla, silvestre, informeReferencia);
+                Writer salida = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+                resultado.escribir(salida);
+                salida.flush();
+                System.err.println(resultado.describir());
+            }
+            return;
+        }
         Application.launch(SimulacionRibosomalGUI.class, args);
     }
 }
\ No newline at end of file
@@ -0,0 +1,350 @@
+package org.lsz.uvm;
+
+import org.lsz.uvm.main.AdaptacionCodones;
+import org.lsz.uvm.main.AlmacenSecuencias;
+import org.lsz.uvm.main.Aminoacido;
+import org.lsz.uvm.main.AnalisisComposicion;
+import org.lsz.uvm.main.CacheSecuencias;
+import org.lsz.uvm.main.IndiceSecuencias;
+import org.lsz.uvm.main.SecuenciaEmpaquetada;
+import org.lsz.uvm.main.TasasElongacion;
+import org.lsz.uvm.main.TraductorCodones;
+import org.lsz.uvm.util.DiccionarioAminoacidos;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ *
+ * Punto de entrada sin interfaz grafica para traducir lotes de archivos de secuencia.
+ * Recibe un directorio o un manifiesto (una ruta por linea) y traduce todos los
+ * archivos de forma concurrente, escribiendo un resultado por archivo en cuanto
+ * termina (JSON Lines o TSV).
+ *
+ * Uso:
+ * <pre>
+ *   java org.lsz.uvm.Main lote &lt;directorio&gt; [opciones]
+ *   java org.lsz.uvm.Main lote --manifiesto &lt;archivo&gt; [opciones]
+ *
+ *   --paralelismo N    archivos traducidos a la vez (por defecto, los nucleos disponibles)
+ *   --formato jsonl|tsv
+ *   --salida archivo   (por defecto, la salida estandar)
+ *   --composicion      agrega contenido GC (global y minimo/maximo por ventanas) y CAI
+ * </pre>
+ *
+ * Cuando la JVM es 21 o superior cada archivo se procesa en un hilo virtual; en
+ * versiones anteriores se usa un pool fijo. En ambos casos un semaforo limita
+ * cuantos archivos estan en memoria al mismo tiempo.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public class TraduccionLote {
+
+    /** Formatos de salida soportados. */
+    public enum Formato { JSONL, TSV }
+
+    /**
+     *
+     * Resultado de la traduccion de un archivo.
+     *
+     * @param archivo La ruta del archivo traducido.
+     * @param bases Numero de bases leidas.
+     * @param peptido El peptido en notacion de una letra.
+     * @param posicionParada Base donde inicia el codon de terminacion, o -1 si no hubo.
+     * @param microsegundos Tiempo de carga y traduccion.
+     * @param error Mensaje de error, o null si el archivo se tradujo.
+     * @param perfil La composicion del transcrito, o null si no se pidio (o hubo error).
+     */
+    public record Resultado(String archivo, int bases, String peptido, int posicionParada,
+                            long microsegundos, String error, AnalisisComposicion.Perfil perfil) {
+    }
+
+    private final TraductorCodones traductor;
+    private final int paralelismo;
+    private final Formato formato;
+    private final CacheSecuencias cache = CacheSecuencias.compartida();
+    private AdaptacionCodones adaptacion;
+
+    /**
+     * @param traductor El traductor con el diccionario compilado.
+     * @param paralelismo Numero maximo de archivos en proceso al mismo tiempo.
+     * @param formato El formato de salida.
+     */
+    public TraduccionLote(TraductorCodones traductor, int paralelismo, Formato formato) {
+        this.traductor = traductor;
+        this.paralelismo = Math.max(1, paralelismo);
+        this.formato = formato;
+    }
+
+    /**
+     * Agrega a cada resultado la composicion del transcrito (ver {@link AnalisisComposicion}).
+     *
+     * @param adaptacion Los pesos de referencia para el CAI, o null para no calcular la composicion.
+     */
+    public void setAdaptacion(AdaptacionCodones adaptacion) {
+        this.adaptacion = adaptacion;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path directorio = null;
+        Path manifiesto = null;
+        Path salida = null;
+        int paralelismo = Runtime.getRuntime().availableProcessors();
+        Formato formato = Formato.JSONL;
+        boolean composicion = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--manifiesto": manifiesto = Paths.get(args[++i]); break;
+                case "--paralelismo": paralelismo = Integer.parseInt(args[++i]); break;
+                case "--formato": formato = Formato.valueOf(args[++i].toUpperCase()); break;
+                case "--salida": salida = Paths.get(args[++i]); break;
+                case "--composicion": composicion = true; break;
+                default: directorio = Paths.get(args[i]); break;
+            }
+        }
+        if (directorio == null && manifiesto == null) {
+            System.err.println("Uso: lote <directorio> | --manifiesto <archivo> "
+                    + "[--paralelismo N] [--formato jsonl|tsv] [--salida archivo] [--composicion]");
+            System.exit(2);
+        }
+
+        List<Path> archivos = manifiesto != null ? leerManifiesto(manifiesto) : listarDirectorio(directorio);
+        TraductorCodones traductor = TraductorCodones.compilar(DiccionarioAminoacidos.crearDiccionarioAminoacidos());
+        TraduccionLote lote = new TraduccionLote(traductor, paralelismo, formato);
+        if (composicion) {
+            // El archivo de tasas es proporcional al uso de codones humano: es la referencia del CAI.
+            lote.setAdaptacion(AdaptacionCodones.desdeTasas(TasasElongacion.porDefecto(), traductor));
+        }
+
+        Writer escritor = salida != null
+                ? Files.newBufferedWriter(salida, StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        try {
+            lote.ejecutar(archivos, escritor);
+        } finally {
+            escritor.flush();
+            if (salida != null) {
+                escritor.close();
+            }
+        }
+    }
+
+    /**
+     * Traduce todos los archivos y escribe cada resultado en cuanto esta listo.
+     * El orden de salida corresponde al orden de terminacion, no al de entrada.
+     *
+     * @param archivos Los archivos a traducir.
+     * @param escritor Donde se escriben los resultados.
+     * @throws InterruptedException si se interrumpe la espera de los archivos en proceso
+     * @throws IOException si no se puede escribir la salida; al primer error se dejan de
+     *         enviar archivos y los errores posteriores se agregan como suprimidos
+     */
+    public void ejecutar(List<Path> archivos, Writer escritor) throws InterruptedException, IOException {
+        Semaphore permisos = new Semaphore(paralelismo);
+        ExecutorService ejecutor = crearEjecutor(paralelismo);
+        IOException[] errorEscritura = new IOException[1];
+        if (formato == Formato.TSV) {
+            escritor.write("archivo\tbases\taminoacidos\tposicion_parada\tmicrosegundos\tpeptido\terror"
+                    + (adaptacion != null ? "\tgc\tgc_minimo\tgc_maximo\tcai\n" : "\n"));
+        }
+        try {
+            for (Path archivo : archivos) {
+                // Limita los archivos en proceso para que el heap no crezca con el tamano del lote.
+                permisos.acquire();
+                // Si la salida ya fallo no tiene sentido traducir el resto del lote.
+                if (error(errorEscritura) != null) {
+                    permisos.release();
+                    break;
+                }
+                ejecutor.execute(() -> {
+                    try {
+                        Resultado resultado = traducir(archivo);
+                        synchronized (escritor) {
+                            if (error(errorEscritura) == null) {
+                                escritor.write(formatear(resultado));
+                            }
+                        }
+                    } catch (IOException e) {
+                        synchronized (errorEscritura) {
+                            if (errorEscritura[0] == null) {
+                                errorEscritura[0] = e;
+                            } else {
+                                errorEscritura[0].addSuppressed(e);
+                            }
+                        }
+                    } finally {
+                        permisos.release();
+                    }
+                });
+            }
+        } finally {
+            if (error(errorEscritura) != null) {
+                ejecutor.shutdownNow();
+            } else {
+                ejecutor.shutdown();
+            }
+            ejecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        IOException error = error(errorEscritura);
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private static IOException error(IOException[] errorEscritura) {
+        synchronized (errorEscritura) {
+            return errorEscritura[0];
+        }
+    }
+
+    /**
+     * Carga y traduce un archivo desde su primera base hasta el primer codon de terminacion.
+     *
+     * @param archivo La ruta del archivo de secuencia.
+     * @return El resultado, con el mensaje de error si el archivo no se pudo leer.
+     */
+    public Resultado traducir(Path archivo) {
+        long inicio = System.nanoTime();
+        try {
+            // Los archivos repetidos (o con el mismo contenido) se resuelven desde la cache.
+            SecuenciaEmpaquetada secuencia = cache.cargar(archivo);
+            byte[] peptido = cache.traducir(secuencia, traductor);
+            int siguiente = peptido.length * 3;
+            int posicionParada = siguiente + 3 <= secuencia.longitud() ? siguiente : -1;
+            AnalisisComposicion.Perfil perfil = adaptacion == null ? null : AnalisisComposicion.perfil(
+                    secuencia, 0, traductor, adaptacion, AnalisisComposicion.VENTANA_POR_DEFECTO);
+            long microsegundos = (System.nanoTime() - inicio) / 1000;
+            return new Resultado(archivo.toString(), secuencia.longitud(), Aminoacido.aLetras(peptido),
+                    posicionParada, microsegundos, null, perfil);
+        } catch (IOException | RuntimeException e) {
+            long microsegundos = (System.nanoTime() - inicio) / 1000;
+            return new Resultado(archivo.toString(), 0, "", -1, microsegundos,
+                    e.getClass().getSimpleName() + ": " + e.getMessage(), null);
+        }
+    }
+
+    private String formatear(Resultado resultado) {
+        if (formato == Formato.TSV) {
+            return resultado.archivo() + '\t' + resultado.bases() + '\t' + resultado.peptido().length()
+                    + '\t' + resultado.posicionParada() + '\t' + resultado.microsegundos()
+                    + '\t' + resultado.peptido() + '\t' + (resultado.error() == null ? "" : resultado.error())
+                    + composicionTsv(resultado) + '\n';
+        }
+        return "{\"archivo\":" + json(resultado.archivo())
+                + ",\"bases\":" + resultado.bases()
+                + ",\"aminoacidos\":" + resultado.peptido().length()
+                + ",\"posicionParada\":" + resultado.posicionParada()
+                + ",\"microsegundos\":" + resultado.microsegundos()
+                + ",\"peptido\":" + json(resultado.peptido())
+                + ",\"error\":" + (resultado.error() == null ? "null" : json(resultado.error()))
+                + composicionJson(resultado)
+                + "}\n";
+    }
+
+    private String composicionTsv(Resultado resultado) {
+        if (adaptacion == null) {
+            return "";
+        }
+        AnalisisComposicion.Perfil perfil = resultado.perfil();
+        if (perfil == null) {
+            return "\t\t\t\t";
+        }
+        return '\t' + numero(perfil.composicion().contenidoGC(), "") + '\t' + numero(perfil.perfil().minimo(), "")
+                + '\t' + numero(perfil.perfil().maximo(), "") + '\t' + numero(perfil.cai(), "");
+    }
+
+    private String composicionJson(Resultado resultado) {
+        if (adaptacion == null) {
+            return "";
+        }
+        AnalisisComposicion.Perfil perfil = resultado.perfil();
+        if (perfil == null) {
+            return ",\"gc\":null,\"gcMinimo\":null,\"gcMaximo\":null,\"cai\":null";
+        }
+        return ",\"gc\":" + numero(perfil.composicion().contenidoGC(), "null")
+                + ",\"gcMinimo\":" + numero(perfil.perfil().minimo(), "null")
+                + ",\"gcMaximo\":" + numero(perfil.perfil().maximo(), "null")
+                + ",\"cai\":" + numero(perfil.cai(), "null");
+    }
+
+    /**
+     * @return El valor con 4 decimales (con punto decimal en cualquier configuracion regional), o {@code vacio} si es NaN.
+     */
+    private static String numero(double valor, String vacio) {
+        return Double.isNaN(valor) ? vacio : String.format(Locale.ROOT, "%.4f", valor);
+    }
+
+    private static String json(String texto) {
+        StringBuilder escapado = new StringBuilder(texto.length() + 2).append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char caracter = texto.charAt(i);
+            switch (caracter) {
+                case '"': escapado.append("\\\""); break;
+                case '\\': escapado.append("\\\\"); break;
+                case '\n': escapado.append("\\n"); break;
+                case '\r': escapado.append("\\r"); break;
+                case '\t': escapado.append("\\t"); break;
+                default:
+                    if (caracter < 0x20) {
+                        escapado.append(String.format("\\u%04x", (int) caracter));
+                    } else {
+                        escapado.append(caracter);
+                    }
+            }
+        }
+        return escapado.append('"').toString();
+    }
+
+    /**
+     * Usa hilos virtuales si la JVM los ofrece (Java 21+); el proyecto compila para
+     * Java 17, por lo que el metodo se busca por reflexion.
+     */
+    private static ExecutorService crearEjecutor(int paralelismo) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(paralelismo);
+        }
+    }
+
+    private static List<Path> leerManifiesto(Path manifiesto) throws IOException {
+        List<Path> archivos = new ArrayList<>();
+        Path base = manifiesto.toAbsolutePath().getParent();
+        for (String linea : Files.readAllLines(manifiesto, StandardCharsets.UTF_8)) {
+            String ruta = linea.trim();
+            if (!ruta.isEmpty() && !ruta.startsWith("#")) {
+                archivos.add(base.resolve(ruta));
+            }
+        }
+        return archivos;
+    }
+
+    private static List<Path> listarDirectorio(Path directorio) throws IOException {
+        List<Path> archivos = new ArrayList<>();
+        try (Stream<Path> contenido = Files.list(directorio)) {
+            contenido.filter(Files::isRegularFile)
+                    .filter(ruta -> !ruta.getFileName().toString().endsWith(".fai"))
+                    .filter(ruta -> !ruta.getFileName().toString().endsWith(IndiceSecuencias.EXTENSION_INDICE))
+                    .filter(ruta -> !ruta.getFileName().toString().endsWith(AlmacenSecuencias.EXTENSION))
+                    .sorted()
+                    .forEach(archivos::add);
+        }
+        return archivos;
+    }
+}
@@ -0,0 +1,188 @@
+package org.lsz.uvm.gui;
+
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import org.lsz.uvm.main.AdaptacionCodones;
+import org.lsz.uvm.main.AnalisisComposicion;
+import org.lsz.uvm.main.SecuenciaNucleotidos;
+
+/**
+ * Pista del ARNm dibujada sobre un {@link Canvas}: solo se pintan las bases que
+ * caen dentro del ancho visible, sin importar la longitud del transcrito.
+ * La translocación es un desplazamiento horizontal en píxeles, así que mover
+ * el ARNm no crea ni destruye nodos y la memoria se mantiene constante.
+ *
+ * Opcionalmente dibuja encima la composición de las bases visibles: una línea con
+ * el contenido GC alrededor de cada base y, bajo cada codón del marco, una barra
+ * coloreada por su adaptación relativa (rojo = codón raro, verde = preferido).
+ */
+public class PistaARNm extends Canvas {
+
+    // Colores para diferenciar bases, indexados por el código de 2 bits (A, C, G, U)
+    private static final Color[] COLORES_BASE = {
+            Color.web("#EF5350"), // A
+            Color.web("#42A5F5"), // C
+            Color.web("#66BB6A"), // G
+            Color.web("#FFC107")  // U
+    };
+
+    private static final String[] LETRAS_BASE = {"A", "C", "G", "U"};
+
+    // Bases alrededor de cada base para la línea de contenido GC
+    private static final int VENTANA_GC = 30;
+    private static final Color COLOR_GC = Color.web("#6A1B9A", 0.6);
+
+    private final double anchoBase;
+    private final double origenX;
+    private final Font fuente = new Font("Courier New Bold", 20);
+    private final DoubleProperty desplazamiento = new SimpleDoubleProperty(0);
+    private SecuenciaNucleotidos secuencia;
+    private int marcador = -1;
+    private AdaptacionCodones adaptacion;  // null: sin capa de composición
+    private int marco;
+
+    /**
+     * @param anchoBase Ancho visual de cada base en píxeles.
+     * @param origenX Posición X donde se dibuja la base 0 cuando el desplazamiento es 0.
+     * @param alto Alto de la pista en píxeles.
+     */
+    public PistaARNm(double anchoBase, double origenX, double alto) {
+        super(0, alto);
+        this.anchoBase = anchoBase;
+        this.origenX = origenX;
+        desplazamiento.addListener((obs, anterior, nuevo) -> dibujar());
+        widthProperty().addListener((obs, anterior, nuevo) -> dibujar());
+    }
+
+    /**
+     * Cambia la secuencia mostrada y regresa el desplazamiento al inicio.
+     *
+     * @param secuencia La secuencia de ARNm o null para limpiar la pista.
+     */
+    public void setSecuencia(SecuenciaNucleotidos secuencia) {
+        this.secuencia = secuencia;
+        this.marcador = -1;
+        desplazamiento.set(0);
+        dibujar();
+    }
+
+    public SecuenciaNucleotidos getSecuencia() {
+        return secuencia;
+    }
+
+    /**
+     * Resalta una base (por ejemplo, la primera divergencia entre dos alelos).
+     *
+     * @param base Posición de la base, o -1 para quitar el resaltado.
+     */
+    public void setMarcador(int base) {
+        this.marcador = base;
+        dibujar();
+    }
+
+    /**
+     * Muestra u oculta la capa de composición (contenido GC y adaptación de codones).
+     *
+     * @param adaptacion Los pesos de los codones, o null para ocultar la capa.
+     * @param marco Posición de la primera base del primer codón.
+     */
+    public void setComposicion(AdaptacionCodones adaptacion, int marco) {
+        this.adaptacion = adaptacion;
+        this.marco = marco;
+        dibujar();
+    }
+
+    /**
+     * Desplazamiento en píxeles hacia la izquierda; la base i se dibuja en
+     * {@code origenX + i * anchoBase - desplazamiento}.
+     */
+    public DoubleProperty desplazamientoProperty() {
+        return desplazamiento;
+    }
+
+    /**
+     * @param base Posición de la base.
+     * @return El desplazamiento que deja esa base en el origen de la pista.
+     */
+    public double desplazamientoPara(int base) {
+        return base * anchoBase;
+    }
+
+    /**
+     * Vuelve a pintar únicamente la ventana visible de bases (por ejemplo, después de
+     * editar la secuencia).
+     */
+    public void dibujar() {
+        GraphicsContext g = getGraphicsContext2D();
+        g.clearRect(0, 0, getWidth(), getHeight());
+        if (secuencia == null || secuencia.longitud() == 0) {
+            return;
+        }
+
+        double corrimiento = desplazamiento.get() - origenX;
+        int primera = Math.max(0, (int) Math.floor(corrimiento / anchoBase));
+        int ultima = Math.min(secuencia.longitud() - 1, (int) Math.ceil((corrimiento + getWidth()) / anchoBase));
+
+        g.setFont(fuente);
+        g.setTextAlign(TextAlignment.CENTER);
+        g.setTextBaseline(VPos.CENTER);
+        double centroY = getHeight() / 2;
+        if (marcador >= primera && marcador <= ultima) {
+            g.setStroke(Color.web("#D32F2F"));
+            g.setLineWidth(2);
+            g.strokeRect(marcador * anchoBase - corrimiento + 1, 1, anchoBase - 2, getHeight() - 2);
+        }
+        if (adaptacion != null) {
+            dibujarComposicion(g, primera, ultima, corrimiento);
+        }
+        for (int i = primera; i <= ultima; i++) {
+            int base = secuencia.base(i);
+            double x = i * anchoBase - corrimiento;
+            g.setFill(COLORES_BASE[base]);
+            g.fillText(LETRAS_BASE[base], x + anchoBase / 2, centroY);
+        }
+    }
+
+    /**
+     * Dibuja la capa de composición debajo de las letras, sólo para las bases visibles.
+     */
+    private void dibujarComposicion(GraphicsContext g, int primera, int ultima, double corrimiento) {
+        int longitud = secuencia.longitud();
+        double alto = getHeight();
+
+        // Barras de adaptación: una por codón del marco, en el borde inferior
+        int codon = primera <= marco ? marco : marco + 3 * ((primera - marco) / 3);
+        for (; codon <= ultima && codon + 3 <= longitud; codon += 3) {
+            double peso = adaptacion.peso(secuencia.codon(codon));
+            if (Double.isNaN(peso)) {
+                continue;
+            }
+            g.setFill(Color.hsb(120 * peso, 0.8, 0.85));
+            g.fillRect(codon * anchoBase - corrimiento + 1, alto - 4, 3 * anchoBase - 2, 4);
+        }
+
+        // Línea de contenido GC (0 % abajo, 100 % arriba)
+        g.setStroke(COLOR_GC);
+        g.setLineWidth(2);
+        g.beginPath();
+        for (int i = primera; i <= ultima; i++) {
+            int desde = Math.max(0, i - VENTANA_GC / 2);
+            int hasta = Math.min(longitud, desde + VENTANA_GC);
+            double fraccion = (double) AnalisisComposicion.contarGC(secuencia, desde, hasta) / (hasta - desde);
+            double x = i * anchoBase - corrimiento + anchoBase / 2;
+            double y = alto - 5 - fraccion * (alto - 8);
+            if (i == primera) {
+                g.moveTo(x, y);
+            } else {
+                g.lineTo(x, y);
+            }
+        }
+        g.stroke();
+    }
+}
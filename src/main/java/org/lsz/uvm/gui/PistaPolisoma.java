@@ -0,0 +1,95 @@
+package org.lsz.uvm.gui;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import org.lsz.uvm.main.SimulacionPolisoma;
+
+/**
+ * Vista del polisoma dibujada sobre un {@link Canvas}: el marco abierto completo
+ * se escala al ancho disponible y cada ribosoma es una marca en su codón actual.
+ * Sólo se pinta la última instantánea de ocupación, así que el costo por pulso
+ * depende del número de ribosomas y no de cuántos eventos ocurrieron.
+ */
+public class PistaPolisoma extends Canvas {
+
+    private static final double MARGEN = 20;
+    private static final double ALTO_ARNM = 6;
+
+    private final Font fuente = new Font("Arial", 13);
+    private SimulacionPolisoma.Instantanea instantanea;
+    private int huella = 10;
+
+    /**
+     * @param alto Alto de la vista en píxeles.
+     */
+    public PistaPolisoma(double alto) {
+        super(0, alto);
+        widthProperty().addListener((obs, anterior, nuevo) -> dibujar());
+    }
+
+    /**
+     * @param huella Codones que ocupa cada ribosoma (define el ancho de las marcas).
+     */
+    public void setHuella(int huella) {
+        this.huella = huella;
+    }
+
+    /**
+     * Muestra una nueva instantánea; si es la misma que la anterior no se vuelve a pintar.
+     *
+     * @param instantanea El estado del polisoma, o null para limpiar la vista.
+     */
+    public void setInstantanea(SimulacionPolisoma.Instantanea instantanea) {
+        if (instantanea == this.instantanea) {
+            return;
+        }
+        this.instantanea = instantanea;
+        dibujar();
+    }
+
+    /**
+     * Vuelve a pintar la ocupación actual.
+     */
+    public void dibujar() {
+        GraphicsContext g = getGraphicsContext2D();
+        g.clearRect(0, 0, getWidth(), getHeight());
+        if (instantanea == null || instantanea.codones() == 0) {
+            return;
+        }
+
+        double ancho = Math.max(1, getWidth() - 2 * MARGEN);
+        double escala = ancho / instantanea.codones();
+        double centroY = getHeight() / 2 + 8;
+
+        // ARNm de 5' a 3'
+        g.setFill(Color.web("#006064"));
+        g.fillRect(MARGEN, centroY - ALTO_ARNM / 2, ancho, ALTO_ARNM);
+
+        // Ribosomas: una marca por ribosoma, al menos de 2 px aunque el transcrito sea largo
+        double anchoRibosoma = Math.max(2, huella * escala);
+        g.setFill(Color.web("#4DB6AC"));
+        g.setStroke(Color.web("#00897B"));
+        g.setLineWidth(1);
+        for (int posicion : instantanea.posiciones()) {
+            double x = MARGEN + posicion * escala - anchoRibosoma / 2;
+            g.fillRoundRect(x, centroY - 10, anchoRibosoma, 20, 4, 4);
+            g.strokeRoundRect(x, centroY - 10, anchoRibosoma, 20, 4, 4);
+        }
+
+        g.setFont(fuente);
+        g.setFill(Color.web("#006064"));
+        g.setTextBaseline(VPos.TOP);
+        g.setTextAlign(TextAlignment.LEFT);
+        g.fillText(String.format("Polisoma  t = %.1f s  |  ribosomas: %d  |  proteínas: %d  |  colisiones: %d",
+                instantanea.tiempo(), instantanea.ribosomas(), instantanea.proteinas(), instantanea.colisiones()),
+                MARGEN, 2);
+        g.setTextBaseline(VPos.CENTER);
+        g.fillText("5'", 4, centroY);
+        g.setTextAlign(TextAlignment.RIGHT);
+        g.fillText("3'", getWidth() - 4, centroY);
+    }
+}
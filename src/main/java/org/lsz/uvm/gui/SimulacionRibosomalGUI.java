@@ -1,18 +1,27 @@
 package org.lsz.uvm.gui;
-import javafx.animation.Timeline;
-import javafx.animation.TranslateTransition;
+import javafx.animation.AnimationTimer;
+import javafx.animation.FadeTransition;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.Separator;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Slider;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
@@ -20,11 +29,35 @@ import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
-// Se asumen las importaciones de tus clases de utilidad
-// import org.lsz.uvm.main.ARN;
-// import org.lsz.uvm.util.DiccionarioAminoacidos;
+import org.lsz.uvm.main.ARN;
+import org.lsz.uvm.main.AdaptacionCodones;
+import org.lsz.uvm.main.AnalisisComposicion;
+import org.lsz.uvm.main.Aminoacido;
+import org.lsz.uvm.main.ComparadorSecuencias;
+import org.lsz.uvm.main.EscanerColageno;
+import org.lsz.uvm.main.EventoTraduccion;
+import org.lsz.uvm.main.EventosJFR;
+import org.lsz.uvm.main.IndiceParadas;
+import org.lsz.uvm.main.MotorTraduccion;
+import org.lsz.uvm.main.PolisomaEnSegundoPlano;
+import org.lsz.uvm.main.SecuenciaEditable;
+import org.lsz.uvm.main.SecuenciaEmpaquetada;
+import org.lsz.uvm.main.SecuenciaNucleotidos;
+import org.lsz.uvm.main.SimulacionEnSegundoPlano;
+import org.lsz.uvm.main.SimulacionPolisoma;
+import org.lsz.uvm.main.TasasElongacion;
+import org.lsz.uvm.main.TraduccionIncremental;
+import org.lsz.uvm.main.TraductorCodones;
+import org.lsz.uvm.util.DiccionarioAminoacidos;
+import org.lsz.uvm.util.RegistroMetricas;
+
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Interfaz Gráfica de Simulación Ribosomal usando JavaFX.
@@ -34,25 +67,98 @@ public class SimulacionRibosomalGUI extends Application {
 
     // --- ESTADO DE LA SIMULACIÓN ---
     private Map<String, String> mapaAminoacidos;
-    private String secuenciaARN;
+    private TraductorCodones traductor;            // null hasta que termina de cargarse el diccionario
+    private TasasElongacion tasasElongacion;       // Tasas por codón para el polisoma
+    private AdaptacionCodones adaptacionCodones;   // Pesos de los codones para el CAI (referencia: las tasas)
+    private SecuenciaEmpaquetada secuenciaARN;
+    private TraduccionIncremental traduccionEditada; // Proteína de la secuencia editable (fuera del modo comparación)
+    private IndiceParadas indiceParadas;           // Paradas de secuenciaARN (las del contenedor si viene de él); null tras editar
     private int punteroInicial = 0;
     private int aminoacidosEncontrados = 0;
-    private StringBuilder secuenciaAminoacidos = new StringBuilder();
-    private Timeline simulationTimer;
-    private boolean isSimulationActive = false;
+    private MotorTraduccion motor;                 // Motor de traducción (sin JavaFX)
+    private SimulacionEnSegundoPlano simulacion;   // Ejecuta el motor fuera del hilo de JavaFX
+    private AnimationTimer eventConsumer;          // Aplica los eventos una vez por pulso
+    private EventoTraduccion lastEvent;            // Último evento drenado en el pulso actual
+    private final StringBuilder pendingChain = new StringBuilder(); // Aminoácidos recibidos en el pulso
+    private boolean chainStarted = false;
+
+    // --- MODO COMPARACIÓN (alelo normal y mutado con el mismo reloj) ---
+    private boolean comparisonMode = false;
+    private int punteroMutante = 0;
+    private int aminoacidosMutante = 0;
+    private EventoTraduccion lastMutantEvent;      // Último evento del alelo mutado en el pulso actual
+    private ComparadorSecuencias.Resultado comparacion;
+
+    // --- POLISOMA (muchos ribosomas sobre el ARNm cargado) ---
+    private PolisomaEnSegundoPlano polisoma;       // Sólo se lee su última instantánea en cada pulso
+    private PistaPolisoma polysomeTrack;
+
+    // --- LÍNEA DE TIEMPO (salto directo a cualquier codón, ver LineaTiempoTraduccion) ---
+    private Slider timelineSlider;                 // Posición en codones del alelo normal
+    private Label timelineLabel;
+    private Button variantButton;                  // Salta a la región de la variante (modo comparación)
+    private final List<FadeTransition> dissociations = new ArrayList<>(); // Se detienen al saltar hacia atrás
+
+    // --- EDICIÓN DEL ARNm ("qué pasaría si" con la secuencia cargada) ---
+    private TextField editPositionField;
+    private TextField editRemoveField;
+    private TextField editBasesField;
+    private Button editButton;
+    private Label editResultLabel;
+    private boolean editInProgress;                // El hilo de la simulación debe quedar libre mientras se edita
+
+    // --- COMPOSICIÓN (contenido GC y adaptación de codones, ver AnalisisComposicion) ---
+    private CheckBox compositionCheck;             // Muestra la capa de composición sobre las pistas
+    private Label compositionLabel;
+
+    // --- COLÁGENO (repetición Gly-X-Y de la cadena, ver EscanerColageno) ---
+    private EscanerColageno.Informe referenciaColageno; // Informe de la proteína cargada, antes de editarla
+    private Label collagenLabel;
+
+    // --- CARGA EN SEGUNDO PLANO (el diccionario y las secuencias no se leen en el hilo de JavaFX) ---
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "carga-gui");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Task<?> currentLoad;                   // Carga en curso (una a la vez)
+    private ProgressBar loadProgress;
+    private Button cancelLoadButton;
+    private Button loadButton;
+    private Button compareButton;
+
+    /** Resultado de la carga de un alelo: la secuencia, sus paradas, su traducción editable, su composición y su colágeno. */
+    private record LoadedProtein(SecuenciaEmpaquetada sequence, IndiceParadas stops, TraduccionIncremental translation,
+                                 AnalisisComposicion.Perfil profile, EscanerColageno.Informe collagen) {
+    }
+
+    /** Resultado de la carga de ambos alelos para el modo comparación. */
+    private record LoadedComparison(SecuenciaEmpaquetada normal, SecuenciaEmpaquetada mutant,
+                                    ComparadorSecuencias.Resultado result,
+                                    AnalisisComposicion.Perfil normalProfile, AnalisisComposicion.Perfil mutantProfile,
+                                    EscanerColageno.Informe normalCollagen, EscanerColageno.Informe mutantCollagen,
+                                    IndiceParadas normalStops) {
+    }
 
     // --- COMPONENTES UI CLAVE ---
     private Pane simulationCanvas;
-    private Label aminoAcidChainLabel;
+    private TextArea aminoAcidChainArea;
     private Label aminoAcidCountLabel;
     private Label currentCodonLabel;
     private Label currentEventLabel;
+    private Label comparisonLabel;
     private ChoiceBox<String> proteinSelector;
 
     // --- COMPONENTES VISUALES (para animación) ---
     private Rectangle smallSubunit; // Subunidad menor del Ribosoma
     private Rectangle largeSubunit; // Subunidad mayor del Ribosoma
-    private HBox mrnaContainer;    // Contenedor del ARNm (lo que se mueve)
+    private PistaARNm mrnaTrack;   // Pista del ARNm (lo que se mueve)
+    private Rectangle mutantSmallSubunit; // Ribosoma del alelo mutado (modo comparación)
+    private Rectangle mutantLargeSubunit;
+    private PistaARNm mutantTrack;        // Pista del alelo mutado (modo comparación)
+    private Label normalLaneLabel;
+    private Label mutantLaneLabel;
+    private long lastFrameNanos = 0;        // Instante del pulso anterior (para suavizar la translocación)
 
     // Constantes de diseño
     private final double BASE_WIDTH = 25; // Ancho visual de cada base
@@ -74,20 +180,24 @@ public class SimulacionRibosomalGUI extends Application {
     private final double SMALL_SUBUNIT_Y_POS = MRNA_CHANNEL_Y - SMALL_SUBUNIT_HEIGHT - (CHANNEL_SPACE / 2) + 10;
     private final double LARGE_SUBUNIT_Y_POS = MRNA_CHANNEL_Y + (CHANNEL_SPACE / 2);
     private final double MRNA_CONTAINER_Y_POS = MRNA_CHANNEL_Y - 10;
+    private final double MRNA_TRACK_HEIGHT = 30;
+    private final double TRANSLOCATION_TIME_CONSTANT = 0.12; // Segundos para recorrer ~63% de la distancia pendiente
+    private final double MUTANT_LANE_OFFSET = -180; // El carril del alelo mutado va arriba del normal
+    private final double POLYSOME_Y = 30;            // La vista del polisoma va arriba de ambos carriles
+    private final double POLYSOME_HEIGHT = 70;
+
+    // Velocidades disponibles (codones por segundo); "Normal" equivale al paso original de 500 ms
+    private static final String[] SPEED_NAMES = {"Lenta", "Normal", "Rápida", "Muy rápida", "Turbo"};
+    private static final double[] SPEED_VALUES = {1, 2, 8, 60, SimulacionEnSegundoPlano.VELOCIDAD_MAXIMA};
+    private ChoiceBox<String> speedSelector;
+
+    // Tiempo de trabajo de cada pulso de la interfaz durante la simulación (ver RegistroMetricas)
+    private static final RegistroMetricas.Temporizador FRAME_TIMER = RegistroMetricas.global().temporizador("gui.cuadro");
     // ----------------------------------------------
 
     @Override
     public void start(Stage primaryStage) {
-        // Se asume la existencia de la clase DiccionarioAminoacidos
-        try {
-            Class<?> dictClass = Class.forName("org.lsz.uvm.util.DiccionarioAminoacidos");
-            java.lang.reflect.Method createMethod = dictClass.getMethod("crearDiccionarioAminoacidos");
-            mapaAminoacidos = (Map<String, String>) createMethod.invoke(null);
-        } catch (Exception e) {
-            System.err.println("Error al cargar DiccionarioAminoacidos: " + e.getMessage());
-            mapaAminoacidos = new java.util.HashMap<>();
-        }
-
+        // La ventana se muestra de inmediato; el diccionario se carga en segundo plano (ver loadDictionary).
         BorderPane root = new BorderPane();
         root.setTop(createHeader());
 
@@ -98,10 +208,113 @@ public class SimulacionRibosomalGUI extends Application {
 
         root.setBottom(createControlPanel());
 
+        // Consumidor de eventos: drena lo que produjo el motor y actualiza la UI una vez por pulso.
+        eventConsumer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                // Sólo se mide durante una simulación; en reposo el pulso no hace trabajo.
+                boolean measured = simulacion != null || polisoma != null;
+                EventosJFR.CuadroGUI frameEvent = new EventosJFR.CuadroGUI();
+                frameEvent.begin();
+                long frameStart = System.nanoTime();
+
+                applyPendingEvents();
+                advanceTrack(now);
+                if (polisoma != null) {
+                    polysomeTrack.setInstantanea(polisoma.getUltima());
+                }
+
+                if (measured) {
+                    FRAME_TIMER.registrar(System.nanoTime() - frameStart);
+                    if (frameEvent.shouldCommit()) {
+                        frameEvent.modo = polisoma != null ? "polisoma" : comparisonMode ? "comparacion" : "traduccion";
+                        frameEvent.commit();
+                    }
+                }
+            }
+        };
+        eventConsumer.start();
+        primaryStage.setOnHidden(e -> {
+            closeSimulation();
+            cancelLoad();
+            loader.shutdownNow();
+        });
+
         Scene scene = new Scene(root, 1200, 750);
         primaryStage.setTitle("Simulación Ribosomal: COL5A1 vs. cEDS");
         primaryStage.setScene(scene);
         primaryStage.show();
+
+        loadDictionary();
+    }
+
+    /**
+     * Lee el diccionario de aminoácidos y las tasas por codón fuera del hilo de JavaFX.
+     * Los botones de carga se habilitan cuando el traductor está listo.
+     */
+    private void loadDictionary() {
+        Task<Map<String, String>> task = new Task<>() {
+            @Override
+            protected Map<String, String> call() throws Exception {
+                Map<String, String> dictionary = DiccionarioAminoacidos.crearDiccionarioAminoacidos();
+                try {
+                    // Se publica a la UI al terminar la tarea (onSucceeded corre después de call)
+                    tasasElongacion = TasasElongacion.porDefecto();
+                } catch (IOException e) {
+                    // Sin tasas el polisoma usa la tasa uniforme; el diccionario sigue siendo válido.
+                    System.err.println("Error al cargar las tasas por codón: " + e.getMessage());
+                }
+                return dictionary;
+            }
+        };
+        task.setOnSucceeded(e -> useDictionary(task.getValue(), "Cargue una proteína para empezar."));
+        task.setOnFailed(e -> {
+            System.err.println("Error al cargar DiccionarioAminoacidos: " + task.getException().getMessage());
+            useDictionary(new HashMap<>(), "Error al cargar el diccionario: " + task.getException().getMessage());
+        });
+        runLoad(task, "Cargando diccionario de aminoácidos...");
+    }
+
+    private void useDictionary(Map<String, String> dictionary, String message) {
+        mapaAminoacidos = dictionary;
+        // Compila el diccionario una sola vez en la tabla de 64 codones.
+        traductor = TraductorCodones.compilar(mapaAminoacidos);
+        // Las tasas son proporcionales al uso de codones humano; sin archivo, todos los codones pesan 1.
+        adaptacionCodones = AdaptacionCodones.desdeTasas(tasasElongacion != null ? tasasElongacion
+                : TasasElongacion.uniformes(TasasElongacion.TASA_POR_DEFECTO), traductor);
+        loadButton.setDisable(false);
+        compareButton.setDisable(false);
+        currentEventLabel.setText(message);
+    }
+
+    /**
+     * Ejecuta una carga en el hilo de carga, cancelando la anterior, y muestra su progreso
+     * en la barra del encabezado mientras dura.
+     */
+    private void runLoad(Task<?> task, String message) {
+        cancelLoad();
+        currentLoad = task;
+        loadProgress.progressProperty().bind(task.progressProperty());
+        loadProgress.setVisible(true);
+        cancelLoadButton.setVisible(true);
+        currentEventLabel.setText(message);
+        task.stateProperty().addListener((obs, previous, state) -> {
+            boolean finished = state == Worker.State.SUCCEEDED || state == Worker.State.FAILED
+                    || state == Worker.State.CANCELLED;
+            if (finished && currentLoad == task) {
+                currentLoad = null;
+                loadProgress.progressProperty().unbind();
+                loadProgress.setVisible(false);
+                cancelLoadButton.setVisible(false);
+            }
+        });
+        loader.execute(task);
+    }
+
+    private void cancelLoad() {
+        if (currentLoad != null) {
+            currentLoad.cancel();
+        }
     }
 
     /**
@@ -141,7 +354,8 @@ public class SimulacionRibosomalGUI extends Application {
         proteinSelector.getItems().addAll("COL5A1 (Normal)", "COL5A1_cEDS (Mutado)");
         proteinSelector.setValue("Seleccionar Proteína");
 
-        Button loadButton = new Button("Cargar");
+        loadButton = new Button("Cargar");
+        loadButton.setDisable(true); // Hasta que el diccionario esté cargado
         loadButton.setOnAction(e -> {
             try {
                 // Al cargar la proteína, se llama a loadProtein, que reinicia el estado lógico.
@@ -152,7 +366,21 @@ public class SimulacionRibosomalGUI extends Application {
         });
         loadButton.setStyle("-fx-background-color: #4CAF50; -fx-text-fill: white; -fx-font-weight: bold;");
 
-        header.getChildren().addAll(title, new Separator(), selectLabel, proteinSelector, loadButton);
+        compareButton = new Button("Comparar Normal vs Mutado");
+        compareButton.setDisable(true);
+        compareButton.setOnAction(e -> loadComparison());
+        compareButton.setStyle("-fx-background-color: #7E57C2; -fx-text-fill: white; -fx-font-weight: bold;");
+
+        // Progreso de la carga en curso; sólo visible mientras hay una
+        loadProgress = new ProgressBar();
+        loadProgress.setPrefWidth(140);
+        loadProgress.setVisible(false);
+        cancelLoadButton = new Button("Cancelar");
+        cancelLoadButton.setOnAction(e -> cancelLoad());
+        cancelLoadButton.setVisible(false);
+
+        header.getChildren().addAll(title, new Separator(), selectLabel, proteinSelector, loadButton, compareButton,
+                loadProgress, cancelLoadButton);
         return header;
     }
 
@@ -167,74 +395,109 @@ public class SimulacionRibosomalGUI extends Application {
     }
 
     private void drawRibosome(Pane canvas) {
+        smallSubunit = createSmallSubunit(0);
+        largeSubunit = createLargeSubunit(0);
+
+        // Ribosoma del alelo mutado: sólo visible en el modo comparación
+        mutantSmallSubunit = createSmallSubunit(MUTANT_LANE_OFFSET);
+        mutantLargeSubunit = createLargeSubunit(MUTANT_LANE_OFFSET);
+        mutantSmallSubunit.setVisible(false);
+        mutantLargeSubunit.setVisible(false);
 
-        final double LARGE_OFFSET_X = LARGE_SUBUNIT_WIDTH / 2.0;
-        final double SMALL_OFFSET_X = SMALL_SUBUNIT_WIDTH / 2.0;
+        normalLaneLabel = createLaneLabel("Normal", 0);
+        mutantLaneLabel = createLaneLabel("Mutado", MUTANT_LANE_OFFSET);
 
-        // Subunidad Menor (la de arriba) - Centrada en START_X
-        smallSubunit = new Rectangle(START_X - SMALL_OFFSET_X, SMALL_SUBUNIT_Y_POS, SMALL_SUBUNIT_WIDTH, SMALL_SUBUNIT_HEIGHT);
-        smallSubunit.setFill(Color.web("#81D4FA"));
-        smallSubunit.setStroke(Color.web("#039BE5"));
-        smallSubunit.setStrokeWidth(2);
-        smallSubunit.setArcWidth(10);
-        smallSubunit.setArcHeight(10);
-        smallSubunit.setEffect(new javafx.scene.effect.DropShadow());
+        canvas.getChildren().addAll(smallSubunit, largeSubunit, mutantSmallSubunit, mutantLargeSubunit,
+                normalLaneLabel, mutantLaneLabel);
+    }
+
+    // Subunidad Menor (la de arriba) - Centrada en START_X
+    private Rectangle createSmallSubunit(double offsetY) {
+        Rectangle subunit = new Rectangle(START_X - SMALL_SUBUNIT_WIDTH / 2.0, SMALL_SUBUNIT_Y_POS + offsetY,
+                SMALL_SUBUNIT_WIDTH, SMALL_SUBUNIT_HEIGHT);
+        subunit.setFill(Color.web("#81D4FA"));
+        subunit.setStroke(Color.web("#039BE5"));
+        subunit.setStrokeWidth(2);
+        subunit.setArcWidth(10);
+        subunit.setArcHeight(10);
+        subunit.setEffect(new javafx.scene.effect.DropShadow());
+        return subunit;
+    }
 
-        // Subunidad Mayor (la de abajo) - Centrada en START_X
-        largeSubunit = new Rectangle(START_X - LARGE_OFFSET_X, LARGE_SUBUNIT_Y_POS, LARGE_SUBUNIT_WIDTH, LARGE_SUBUNIT_HEIGHT);
-        largeSubunit.setFill(Color.web("#4DB6AC"));
-        largeSubunit.setStroke(Color.web("#00897B"));
-        largeSubunit.setStrokeWidth(2);
-        largeSubunit.setArcWidth(20);
-        largeSubunit.setArcHeight(20);
-        largeSubunit.setEffect(new javafx.scene.effect.DropShadow());
+    // Subunidad Mayor (la de abajo) - Centrada en START_X
+    private Rectangle createLargeSubunit(double offsetY) {
+        Rectangle subunit = new Rectangle(START_X - LARGE_SUBUNIT_WIDTH / 2.0, LARGE_SUBUNIT_Y_POS + offsetY,
+                LARGE_SUBUNIT_WIDTH, LARGE_SUBUNIT_HEIGHT);
+        subunit.setFill(Color.web("#4DB6AC"));
+        subunit.setStroke(Color.web("#00897B"));
+        subunit.setStrokeWidth(2);
+        subunit.setArcWidth(20);
+        subunit.setArcHeight(20);
+        subunit.setEffect(new javafx.scene.effect.DropShadow());
+        return subunit;
+    }
 
-        canvas.getChildren().addAll(smallSubunit, largeSubunit);
+    private Label createLaneLabel(String text, double offsetY) {
+        Label label = new Label(text);
+        label.setFont(new Font("Arial Bold", 14));
+        label.setTextFill(Color.web("#006064"));
+        label.setLayoutX(10);
+        label.setLayoutY(SMALL_SUBUNIT_Y_POS + offsetY);
+        label.setVisible(false);
+        return label;
     }
 
     /**
-     * Dibuja la secuencia de ARNm dentro de un contenedor (HBox).
+     * Muestra la secuencia de ARNm en la pista virtualizada. La pista se crea una sola vez
+     * y sólo dibuja las bases visibles alrededor del ribosoma.
      */
-    private void drawmRNA(String sequence) {
-        // Eliminar el contenedor anterior
-        if (mrnaContainer != null) {
-            simulationCanvas.getChildren().remove(mrnaContainer);
-        }
-
-        // Si la secuencia es nula o vacía, no se dibuja nada
-        if (sequence == null || sequence.isEmpty()) {
-            mrnaContainer = null;
+    private void drawmRNA(SecuenciaNucleotidos sequence) {
+        // Si la secuencia es nula o vacía, se quita la pista del lienzo
+        if (sequence == null || sequence.longitud() == 0) {
+            if (mrnaTrack != null) {
+                simulationCanvas.getChildren().remove(mrnaTrack);
+                mrnaTrack.setSecuencia(null);
+            }
             return;
         }
 
-        mrnaContainer = new HBox(0); // 0 de espaciado entre bases
-        mrnaContainer.setLayoutY(MRNA_CONTAINER_Y_POS);
-        mrnaContainer.setLayoutX(START_X - BASE_WIDTH * 2);
-
-        // Dibuja la secuencia completa
-        for (int i = 0; i < sequence.length(); i++) {
-            String base = String.valueOf(sequence.charAt(i));
-
-            Label baseLabel = new Label(base);
-            baseLabel.setFont(new Font("Courier New Bold", 20));
-
-            // Colores para diferenciar bases
-            Color color;
-            if (base.equals("A")) color = Color.web("#EF5350");
-            else if (base.equals("U")) color = Color.web("#FFC107");
-            else if (base.equals("G")) color = Color.web("#66BB6A");
-            else if (base.equals("C")) color = Color.web("#42A5F5");
-            else color = Color.BLACK;
-
-            baseLabel.setTextFill(color);
-
-            baseLabel.setMinWidth(BASE_WIDTH);
-            baseLabel.setAlignment(Pos.CENTER);
-
-            mrnaContainer.getChildren().add(baseLabel);
+        if (mrnaTrack == null) {
+            mrnaTrack = new PistaARNm(BASE_WIDTH, START_X - BASE_WIDTH * 2, MRNA_TRACK_HEIGHT);
+            mrnaTrack.setLayoutY(MRNA_CONTAINER_Y_POS);
+            mrnaTrack.widthProperty().bind(simulationCanvas.widthProperty());
+        }
+        if (!simulationCanvas.getChildren().contains(mrnaTrack)) {
+            simulationCanvas.getChildren().add(mrnaTrack);
         }
+        mrnaTrack.setSecuencia(sequence);
+    }
 
-        simulationCanvas.getChildren().add(mrnaContainer);
+    /**
+     * Muestra u oculta el carril del alelo mutado (pista y ribosoma propios).
+     *
+     * @param sequence La secuencia mutada, o null para salir del modo comparación.
+     */
+    private void drawMutantLane(SecuenciaEmpaquetada sequence) {
+        boolean visible = sequence != null && !sequence.isEmpty();
+        if (mutantTrack == null && visible) {
+            mutantTrack = new PistaARNm(BASE_WIDTH, START_X - BASE_WIDTH * 2, MRNA_TRACK_HEIGHT);
+            mutantTrack.setLayoutY(MRNA_CONTAINER_Y_POS + MUTANT_LANE_OFFSET);
+            mutantTrack.widthProperty().bind(simulationCanvas.widthProperty());
+        }
+        if (mutantTrack != null) {
+            if (visible && !simulationCanvas.getChildren().contains(mutantTrack)) {
+                simulationCanvas.getChildren().add(mutantTrack);
+            } else if (!visible) {
+                simulationCanvas.getChildren().remove(mutantTrack);
+            }
+            mutantTrack.setSecuencia(visible ? sequence : null);
+        }
+        mutantSmallSubunit.setVisible(visible);
+        mutantLargeSubunit.setVisible(visible);
+        mutantSmallSubunit.setOpacity(1);
+        mutantLargeSubunit.setOpacity(1);
+        normalLaneLabel.setVisible(visible);
+        mutantLaneLabel.setVisible(visible);
     }
 
     /**
@@ -267,10 +530,14 @@ public class SimulacionRibosomalGUI extends Application {
         seqTitle.setFont(new Font("Arial Bold", 18));
         seqTitle.setTextFill(Color.WHITE);
 
-        aminoAcidChainLabel = new Label("Aún no iniciada...");
-        aminoAcidChainLabel.setWrapText(true); // Se reactiva el wrap para ver la cadena en el ancho del panel.
-        aminoAcidChainLabel.setFont(new Font("Courier New", 14));
-        aminoAcidChainLabel.setTextFill(Color.web("#a7ffeb"));
+        // Área de sólo lectura: los aminoácidos nuevos se agregan al final en lugar de
+        // reemplazar todo el texto en cada paso.
+        aminoAcidChainArea = new TextArea("Aún no iniciada...");
+        aminoAcidChainArea.setWrapText(true);
+        aminoAcidChainArea.setEditable(false);
+        aminoAcidChainArea.setPrefRowCount(12);
+        aminoAcidChainArea.setFont(new Font("Courier New", 14));
+        aminoAcidChainArea.setStyle("-fx-control-inner-background: #00838f; -fx-text-fill: #a7ffeb;");
 
         // Sección de Evento
         Label eventTitle = new Label("\nEVENTO:");
@@ -279,7 +546,34 @@ public class SimulacionRibosomalGUI extends Application {
         currentEventLabel = new Label("Cargue una proteína para empezar.");
         currentEventLabel.setFont(new Font("Arial", 16));
         currentEventLabel.setTextFill(Color.web("#ffffff"));
-
+        currentEventLabel.setWrapText(true);
+
+        // Sección de Comparación (sólo con ambos alelos cargados)
+        Label comparisonTitle = new Label("\nCOMPARACIÓN:");
+        comparisonTitle.setFont(new Font("Arial Bold", 18));
+        comparisonTitle.setTextFill(Color.WHITE);
+        comparisonLabel = new Label("Use \"Comparar Normal vs Mutado\" para ver ambos alelos.");
+        comparisonLabel.setFont(new Font("Arial", 14));
+        comparisonLabel.setTextFill(Color.web("#ffff00"));
+        comparisonLabel.setWrapText(true);
+
+        // Sección de Composición (contenido GC y CAI frente al uso de codones humano)
+        Label compositionTitle = new Label("\nCOMPOSICIÓN:");
+        compositionTitle.setFont(new Font("Arial Bold", 18));
+        compositionTitle.setTextFill(Color.WHITE);
+        compositionLabel = new Label("Cargue una proteína para ver su composición.");
+        compositionLabel.setFont(new Font("Arial", 14));
+        compositionLabel.setTextFill(Color.web("#a7ffeb"));
+        compositionLabel.setWrapText(true);
+
+        // Sección de Colágeno (dominios Gly-X-Y, glicinas sustituidas, truncamiento)
+        Label collagenTitle = new Label("\nCOLÁGENO (Gly-X-Y):");
+        collagenTitle.setFont(new Font("Arial Bold", 18));
+        collagenTitle.setTextFill(Color.WHITE);
+        collagenLabel = new Label("Cargue una proteína para buscar la repetición Gly-X-Y.");
+        collagenLabel.setFont(new Font("Arial", 14));
+        collagenLabel.setTextFill(Color.web("#a7ffeb"));
+        collagenLabel.setWrapText(true);
 
         panel.getChildren().addAll(
                 codonTitle,
@@ -287,17 +581,54 @@ public class SimulacionRibosomalGUI extends Application {
                 countTitle,
                 aminoAcidCountLabel,
                 seqTitle,
-                aminoAcidChainLabel,
+                aminoAcidChainArea,
                 eventTitle,
-                currentEventLabel
+                currentEventLabel,
+                comparisonTitle,
+                comparisonLabel,
+                compositionTitle,
+                compositionLabel,
+                collagenTitle,
+                collagenLabel,
+                createEditPanel()
         );
         return panel;
     }
 
-    private HBox createControlPanel() {
+    /**
+     * Sección para editar la secuencia cargada: quitar bases a partir de una posición e
+     * insertar otras (una sustitución es quitar 1 e insertar 1).
+     */
+    private VBox createEditPanel() {
+        Label editTitle = new Label("\nEDITAR ARNm:");
+        editTitle.setFont(new Font("Arial Bold", 18));
+        editTitle.setTextFill(Color.WHITE);
+
+        editPositionField = new TextField();
+        editPositionField.setPromptText("Base (desde 1)");
+        editPositionField.setPrefColumnCount(7);
+        editRemoveField = new TextField("1");
+        editRemoveField.setPromptText("Quitar");
+        editRemoveField.setPrefColumnCount(3);
+        editBasesField = new TextField();
+        editBasesField.setPromptText("Insertar (p. ej. G)");
+        editBasesField.setPrefColumnCount(8);
+        editButton = new Button("Aplicar");
+        editButton.setDisable(true);
+        editButton.setOnAction(e -> applyEdit());
+        HBox fields = new HBox(8, editPositionField, editRemoveField, editBasesField, editButton);
+
+        editResultLabel = new Label("Cargue una proteína para editar su secuencia.");
+        editResultLabel.setFont(new Font("Arial", 14));
+        editResultLabel.setTextFill(Color.web("#ffff00"));
+        editResultLabel.setWrapText(true);
+
+        return new VBox(8, editTitle, fields, editResultLabel);
+    }
+
+    private VBox createControlPanel() {
         HBox panel = new HBox(20);
-        panel.setPadding(new Insets(15));
-        panel.setStyle("-fx-background-color: #cccccc;");
+        panel.setPadding(new Insets(15, 15, 5, 15));
         panel.setAlignment(Pos.CENTER);
 
         // Botones de control
@@ -314,9 +645,29 @@ public class SimulacionRibosomalGUI extends Application {
         Button resetButton = new Button("Reiniciar Todo");
         resetButton.setOnAction(e -> resetSimulation());
 
-        // Configuración del Timer de animación (simulación automática)
-        simulationTimer = new Timeline(new javafx.animation.KeyFrame(Duration.millis(500), e -> stepTranslation()));
-        simulationTimer.setCycleCount(Timeline.INDEFINITE);
+        // Selector de velocidad: desde tiempo real hasta "tan rápido como sea posible"
+        Label speedLabel = new Label("Velocidad:");
+        speedLabel.setFont(new Font("Arial Bold", 14));
+        speedSelector = new ChoiceBox<>();
+        speedSelector.getItems().addAll(SPEED_NAMES);
+        speedSelector.setValue("Normal");
+        speedSelector.setOnAction(e -> {
+            if (simulacion != null) {
+                simulacion.setVelocidad(selectedSpeed());
+            }
+            if (polisoma != null) {
+                polisoma.setVelocidad(selectedSpeed());
+            }
+        });
+
+        // Polisoma: muchos ribosomas sobre la secuencia cargada
+        Button polysomeButton = new Button("Polisoma");
+        polysomeButton.setOnAction(e -> togglePolysome());
+
+        // Capa de composición sobre el ARNm (contenido GC y adaptación de cada codón)
+        compositionCheck = new CheckBox("GC / CAI");
+        compositionCheck.setFont(new Font("Arial Bold", 14));
+        compositionCheck.setOnAction(e -> applyCompositionOverlay());
 
         // Estilos
         String style = "-fx-font-size: 14px; -fx-padding: 10 20; -fx-text-fill: white; -fx-font-weight: bold;";
@@ -324,8 +675,44 @@ public class SimulacionRibosomalGUI extends Application {
         pauseButton.setStyle(style + "-fx-background-color: #ff9800;");
         stepButton.setStyle(style + "-fx-background-color: #2196F3;");
         resetButton.setStyle(style + "-fx-background-color: #D32F2F;"); // Rojo
+        polysomeButton.setStyle(style + "-fx-background-color: #7E57C2;");
 
-        panel.getChildren().addAll(startButton, pauseButton, stepButton, resetButton);
+        panel.getChildren().addAll(startButton, pauseButton, stepButton, resetButton, polysomeButton, speedLabel, speedSelector,
+                compositionCheck);
+
+        VBox controls = new VBox(panel, createTimelinePanel());
+        controls.setStyle("-fx-background-color: #cccccc;");
+        return controls;
+    }
+
+    /**
+     * Barra de desplazamiento por codones: al soltarla (o con las flechas) la simulación salta
+     * a ese codón sin recorrer los anteriores.
+     */
+    private HBox createTimelinePanel() {
+        HBox panel = new HBox(15);
+        panel.setPadding(new Insets(0, 15, 10, 15));
+        panel.setAlignment(Pos.CENTER);
+
+        Label title = new Label("Codón:");
+        title.setFont(new Font("Arial Bold", 14));
+        timelineSlider = new Slider(0, 1, 0);
+        timelineSlider.setBlockIncrement(1);
+        timelineSlider.setDisable(true);
+        HBox.setHgrow(timelineSlider, Priority.ALWAYS);
+        timelineLabel = new Label("--- / ---");
+        timelineLabel.setMinWidth(110);
+        // Los cambios programáticos (durante la reproducción) sólo actualizan la etiqueta.
+        timelineSlider.valueProperty().addListener((obs, previous, value) -> timelineLabel.setText(
+                Math.round(value.doubleValue()) + " / " + Math.round(timelineSlider.getMax())));
+        timelineSlider.setOnMouseReleased(e -> seekTo((int) Math.round(timelineSlider.getValue())));
+        timelineSlider.setOnKeyReleased(e -> seekTo((int) Math.round(timelineSlider.getValue())));
+
+        variantButton = new Button("Ir a la variante");
+        variantButton.setDisable(true);
+        variantButton.setOnAction(e -> seekToVariant());
+
+        panel.getChildren().addAll(title, timelineSlider, timelineLabel, variantButton);
         return panel;
     }
 
@@ -333,175 +720,673 @@ public class SimulacionRibosomalGUI extends Application {
      * Reinicia completamente el estado lógico y visual de la simulación.
      */
     private void resetSimulation() {
-        // 1. Detener el timer
-        simulationTimer.stop();
-        isSimulationActive = false;
+        // 1. Detener la simulación en segundo plano
+        closeSimulation();
 
         // 2. Reiniciar estado lógico
         punteroInicial = 0;
         aminoacidosEncontrados = 0;
-        secuenciaAminoacidos = new StringBuilder();
         secuenciaARN = null;
 
         // 3. Reiniciar el estado visual
         currentCodonLabel.setText("---");
         aminoAcidCountLabel.setText("0");
-        aminoAcidChainLabel.setText("Aún no iniciada...");
+        resetChain("Aún no iniciada...");
         currentEventLabel.setText("Simulación Reiniciada. Cargue una proteína.");
+        compositionLabel.setText("Cargue una proteína para ver su composición.");
+        collagenLabel.setText("Cargue una proteína para buscar la repetición Gly-X-Y.");
 
-        // 4. Quitar el ARNm del lienzo
-        if (mrnaContainer != null) {
-            simulationCanvas.getChildren().remove(mrnaContainer);
-            mrnaContainer = null;
-        }
+        // 4. Quitar el ARNm del lienzo (y el carril mutado, si estaba en modo comparación)
+        drawmRNA(null);
+        exitComparisonMode();
 
         // 5. Reiniciar la selección de proteína
         proteinSelector.setValue("Seleccionar Proteína");
     }
 
     private void startSimulation() {
-        if (secuenciaARN == null || secuenciaARN.isEmpty()) {
+        if (editInProgress) {
+            return;
+        }
+        if (simulacion == null) {
             currentEventLabel.setText("ERROR: Primero debe cargar una secuencia.");
             return;
         }
-        isSimulationActive = true;
-        simulationTimer.play();
-        currentEventLabel.setText("Traducción iniciada. Velocidad: Normal.");
+        simulacion.iniciar(selectedSpeed());
+        currentEventLabel.setText("Traducción iniciada. Velocidad: " + speedSelector.getValue() + ".");
     }
 
     private void toggleSimulation() {
-        if (isSimulationActive) {
-            simulationTimer.pause();
-            isSimulationActive = false;
+        if (editInProgress) {
+            return;
+        }
+        if (simulacion == null) {
+            currentEventLabel.setText("ERROR: Primero debe cargar una secuencia.");
+            return;
+        }
+        if (simulacion.estaCorriendo()) {
+            simulacion.pausar();
             currentEventLabel.setText("Traducción en pausa.");
         } else {
-            simulationTimer.play();
-            isSimulationActive = true;
+            simulacion.iniciar(selectedSpeed());
             currentEventLabel.setText("Traducción reanudada.");
         }
     }
 
+    /**
+     * Lee la secuencia y la traduce completa en el hilo de carga; la UI sólo
+     * se actualiza cuando la tarea termina, así que la ventana responde durante la E/S.
+     */
     private void loadProtein(String proteina) {
         // Aseguramos que cualquier simulación previa se detenga
-        simulationTimer.stop();
-        isSimulationActive = false;
+        closeSimulation();
+        exitComparisonMode();
+        drawmRNA(null);
+        secuenciaARN = null;
 
-        try {
-            // Reinicia el estado para la nueva proteína
-            punteroInicial = 0;
-            aminoacidosEncontrados = 0;
-            secuenciaAminoacidos = new StringBuilder();
+        TraductorCodones taskTranslator = traductor;
+        AdaptacionCodones taskAdaptation = adaptacionCodones;
+        Task<LoadedProtein> task = new Task<>() {
+            @Override
+            protected LoadedProtein call() throws Exception {
+                // Llama a la función de la clase ARN para cargar y empaquetar la secuencia
+                SecuenciaEmpaquetada sequence = ARN.cargarSecuenciaProteina(proteina, (done, total) -> {
+                    updateProgress(done, total);
+                    return !isCancelled();
+                });
+                // Si la proteína viene del contenedor, sus paradas ya están calculadas.
+                IndiceParadas stops = sequence.isEmpty() ? null : ARN.cargarParadas(proteina, taskTranslator);
+                // La traducción completa se hace una vez; las ediciones sólo releen lo que cambia.
+                TraduccionIncremental translation = sequence.isEmpty() ? null
+                        : new TraduccionIncremental(new SecuenciaEditable(sequence), 0, taskTranslator);
+                AnalisisComposicion.Perfil profile = sequence.isEmpty() ? null
+                        : AnalisisComposicion.perfil(sequence, 0, taskTranslator, taskAdaptation,
+                        AnalisisComposicion.VENTANA_POR_DEFECTO);
+                EscanerColageno.Informe collagen = translation == null ? null
+                        : EscanerColageno.escanear(translation.peptido());
+                return new LoadedProtein(sequence, stops, translation, profile, collagen);
+            }
+        };
+        task.setOnSucceeded(e -> showProtein(proteina, task.getValue()));
+        task.setOnFailed(e -> currentEventLabel.setText("Error de E/S al cargar la proteína: "
+                + task.getException().getMessage()));
+        task.setOnCancelled(e -> currentEventLabel.setText("Carga de '" + proteina + "' cancelada."));
+        runLoad(task, "Cargando '" + proteina + "'...");
+    }
 
-            // Llama a la función de tu clase ARN para cargar y limpiar la secuencia
-            String ARN_CLASS_NAME = "org.lsz.uvm.main.ARN";
-            java.lang.reflect.Method method = Class.forName(ARN_CLASS_NAME)
-                    .getMethod("procesarDiccionarioProteina", String.class);
+    private void showProtein(String proteina, LoadedProtein loaded) {
+        if (loaded.sequence().isEmpty()) {
+            // Si la carga falla, el canvas queda vacío
+            currentEventLabel.setText("Error: Archivo no encontrado. Verifique la ruta.");
+            return;
+        }
+        // Reinicia el estado para la nueva proteína
+        punteroInicial = 0;
+        aminoacidosEncontrados = 0;
+        secuenciaARN = loaded.sequence();
+        indiceParadas = loaded.stops();
+        traduccionEditada = loaded.translation();
+
+        // El motor corre en su propio hilo sobre la secuencia editable; la UI sólo consume sus eventos
+        motor = new MotorTraduccion(traduccionEditada.getSecuencia(), traductor);
+        simulacion = new SimulacionEnSegundoPlano(motor);
+
+        // Reinicio visual de etiquetas de estado
+        currentEventLabel.setText("Secuencia '" + proteina + "' cargada. Longitud: " + secuenciaARN.length()
+                + " bases. Proteína esperada: " + traduccionEditada.getLongitud() + " aminoácidos.");
+        resetChain("Lista para iniciar...");
+        aminoAcidCountLabel.setText(String.valueOf(aminoacidosEncontrados));
+        // El último codón de la barra es el de terminación
+        enableTimeline(traduccionEditada.getLongitud() + 1);
+        editButton.setDisable(false);
+        editResultLabel.setText("Edite la secuencia para ver el efecto en la proteína.");
+        compositionLabel.setText(loaded.profile().describir());
+        referenciaColageno = loaded.collagen();
+        collagenLabel.setText(referenciaColageno.describir());
+        smallSubunit.setOpacity(1);
+        largeSubunit.setOpacity(1);
+
+        // Dibuja el nuevo ARNm
+        drawmRNA(traduccionEditada.getSecuencia());
+        applyCompositionOverlay();
+
+        if (secuenciaARN.length() >= 3) {
+            currentCodonLabel.setText(secuenciaARN.subsecuencia(0, 3).toString());
+        }
+    }
+
+    /**
+     * Carga ambos alelos y los compara en el hilo de carga; al terminar los prepara para
+     * traducirse lado a lado con el mismo reloj: un solo hilo avanza los dos motores y
+     * cada pulso drena ambas colas.
+     */
+    private void loadComparison() {
+        closeSimulation();
+        exitComparisonMode();
+        drawmRNA(null);
+        secuenciaARN = null;
 
-            secuenciaARN = (String) method.invoke(null, proteina);
+        TraductorCodones taskTranslator = traductor;
+        AdaptacionCodones taskAdaptation = adaptacionCodones;
+        Task<LoadedComparison> task = new Task<>() {
+            @Override
+            protected LoadedComparison call() throws Exception {
+                // Cada alelo ocupa la mitad de la barra de progreso
+                SecuenciaEmpaquetada normal = ARN.cargarSecuenciaProteina("COL5A1", (done, total) -> {
+                    updateProgress(done, 2.0 * total);
+                    return !isCancelled();
+                });
+                SecuenciaEmpaquetada mutant = ARN.cargarSecuenciaProteina("COL5A1_cEDS", (done, total) -> {
+                    updateProgress(total + done, 2.0 * total);
+                    return !isCancelled();
+                });
+                if (normal.isEmpty() || mutant.isEmpty()) {
+                    return new LoadedComparison(normal, mutant, null, null, null, null, null, null);
+                }
+                // El alelo mutado se escanea frente al normal (sustituciones nuevas y truncamiento).
+                EscanerColageno.Informe normalCollagen = EscanerColageno.escanear(taskTranslator.traducir(normal, 0));
+                return new LoadedComparison(normal, mutant, new ComparadorSecuencias(taskTranslator).comparar(normal, mutant),
+                        AnalisisComposicion.perfil(normal, 0, taskTranslator, taskAdaptation, AnalisisComposicion.VENTANA_POR_DEFECTO),
+                        AnalisisComposicion.perfil(mutant, 0, taskTranslator, taskAdaptation, AnalisisComposicion.VENTANA_POR_DEFECTO),
+                        normalCollagen,
+                        EscanerColageno.escanear(taskTranslator.traducir(mutant, 0), normalCollagen),
+                        ARN.cargarParadas("COL5A1", taskTranslator));
+            }
+        };
+        task.setOnSucceeded(e -> showComparison(task.getValue()));
+        task.setOnFailed(e -> currentEventLabel.setText("Error de E/S al cargar los alelos: "
+                + task.getException().getMessage()));
+        task.setOnCancelled(e -> currentEventLabel.setText("Carga de los alelos cancelada."));
+        runLoad(task, "Cargando y comparando ambos alelos...");
+    }
+
+    private void showComparison(LoadedComparison loaded) {
+        if (loaded.result() == null) {
+            currentEventLabel.setText("Error: No se encontraron ambos alelos. Verifique la ruta.");
+            return;
+        }
+        SecuenciaEmpaquetada normal = loaded.normal();
+        SecuenciaEmpaquetada mutante = loaded.mutant();
+        comparacion = loaded.result();
 
+        punteroInicial = 0;
+        aminoacidosEncontrados = 0;
+        punteroMutante = 0;
+        aminoacidosMutante = 0;
+        secuenciaARN = normal;
+        indiceParadas = loaded.normalStops();
+        motor = new MotorTraduccion(normal, traductor);
+        simulacion = new SimulacionEnSegundoPlano(motor, new MotorTraduccion(mutante, traductor));
+        comparisonMode = true;
+
+        drawmRNA(normal);
+        drawMutantLane(mutante);
+        mrnaTrack.setMarcador(comparacion.divergencia());
+        mutantTrack.setMarcador(comparacion.divergencia());
+        applyCompositionOverlay();
+        smallSubunit.setOpacity(1);
+        largeSubunit.setOpacity(1);
 
-            if (secuenciaARN != null && !secuenciaARN.isEmpty()) {
-                // Reinicio visual de etiquetas de estado
-                currentEventLabel.setText("Secuencia '" + proteina + "' cargada. Longitud: " + secuenciaARN.length() + " bases.");
-                aminoAcidChainLabel.setText("Lista para iniciar...");
-                aminoAcidCountLabel.setText(String.valueOf(aminoacidosEncontrados));
+        proteinSelector.setValue("Seleccionar Proteína");
+        currentCodonLabel.setText(normal.subsecuencia(0, Math.min(3, normal.longitud())).toString());
+        aminoAcidCountLabel.setText(comparisonCount());
+        resetChain("Lista para iniciar (se muestra la cadena del alelo normal)...");
+        currentEventLabel.setText("Alelos cargados: normal " + normal.longitud() + " bases, mutado "
+                + mutante.longitud() + " bases.");
+        comparisonLabel.setText(comparacion.describir());
+        compositionLabel.setText("Normal: " + loaded.normalProfile().describir()
+                + "\nMutado: " + loaded.mutantProfile().describir());
+        collagenLabel.setText("Normal: " + loaded.normalCollagen().describir()
+                + "\nMutado: " + loaded.mutantCollagen().describir());
+        enableTimeline(Math.max(comparacion.aminoacidosReferencia(), comparacion.aminoacidosMutante()) + 1);
+        variantButton.setDisable(comparacion.divergencia() < 0);
+    }
 
-                // Dibuja el nuevo ARNm
-                drawmRNA(secuenciaARN);
+    private void exitComparisonMode() {
+        comparisonMode = false;
+        comparacion = null;
+        punteroMutante = 0;
+        aminoacidosMutante = 0;
+        lastMutantEvent = null;
+        if (mutantSmallSubunit != null) {
+            drawMutantLane(null);
+        }
+        if (comparisonLabel != null) {
+            comparisonLabel.setText("Use \"Comparar Normal vs Mutado\" para ver ambos alelos.");
+        }
+    }
 
-                // Posiciona el ARNm al inicio (TranslateX(0) lo pone en START_X - 2*BASE_WIDTH)
-                if (mrnaContainer != null) {
-                    mrnaContainer.setTranslateX(0);
-                }
+    /**
+     * Inicia la simulación del polisoma sobre la secuencia cargada, o la detiene si ya estaba
+     * en marcha. La velocidad del selector se interpreta como segundos simulados por segundo.
+     */
+    private void togglePolysome() {
+        if (polisoma != null) {
+            closePolysome();
+            currentEventLabel.setText("Polisoma detenido.");
+            return;
+        }
+        if (secuenciaARN == null || secuenciaARN.longitud() < 3) {
+            currentEventLabel.setText("ERROR: Primero debe cargar una secuencia.");
+            return;
+        }
+        SimulacionPolisoma.Parametros parametros = SimulacionPolisoma.Parametros.porDefecto();
+        // Las tasas por codón de diccionario/tasas_codones.txt hacen visibles los codones lentos.
+        // Se leen junto con el diccionario; si fallaron, todos los codones usan la tasa uniforme.
+        double[] tasas = tasasElongacion != null ? tasasElongacion.comoArreglo() : null;
+        // El polisoma corre en otro hilo: recibe una copia de la secuencia con las ediciones.
+        SecuenciaEmpaquetada sequence = traduccionEditada != null ? traduccionEditada.getSecuencia().empaquetar() : secuenciaARN;
+        // Sin ediciones se usan las paradas cargadas con la secuencia (del contenedor, si viene de él).
+        IndiceParadas stops = indiceParadas != null ? indiceParadas : IndiceParadas.construir(sequence, traductor);
+        SimulacionPolisoma modelo = new SimulacionPolisoma(sequence, 0, stops, parametros, tasas, System.nanoTime());
+        if (polysomeTrack == null) {
+            polysomeTrack = new PistaPolisoma(POLYSOME_HEIGHT);
+            polysomeTrack.setLayoutY(POLYSOME_Y);
+            polysomeTrack.widthProperty().bind(simulationCanvas.widthProperty());
+        }
+        polysomeTrack.setHuella(parametros.huella());
+        if (!simulationCanvas.getChildren().contains(polysomeTrack)) {
+            simulationCanvas.getChildren().add(polysomeTrack);
+        }
+        polisoma = new PolisomaEnSegundoPlano(modelo);
+        polisoma.iniciar(selectedSpeed());
+        currentEventLabel.setText("Polisoma iniciado: " + modelo.getCodones() + " codones, hasta "
+                + modelo.getCapacidad() + " ribosomas.");
+    }
+
+    private void closePolysome() {
+        if (polisoma != null) {
+            polisoma.close();
+            polisoma = null;
+        }
+        if (polysomeTrack != null) {
+            polysomeTrack.setInstantanea(null);
+            simulationCanvas.getChildren().remove(polysomeTrack);
+        }
+    }
 
-                if (secuenciaARN.length() >= 3) {
-                    currentCodonLabel.setText(secuenciaARN.substring(0, 3));
+    private String comparisonCount() {
+        return aminoacidosEncontrados + " (normal) / " + aminoacidosMutante + " (mutado)";
+    }
+
+    /**
+     * Detiene y descarta la simulación en segundo plano, junto con sus eventos pendientes.
+     */
+    private void closeSimulation() {
+        if (simulacion != null) {
+            simulacion.close();
+            simulacion = null;
+        }
+        closePolysome();
+        motor = null;
+        pendingChain.setLength(0);
+        lastEvent = null;
+        lastMutantEvent = null;
+        traduccionEditada = null;
+        indiceParadas = null;
+        editInProgress = false;
+        if (editButton != null) {
+            editButton.setDisable(true);
+            editResultLabel.setText("Cargue una proteína para editar su secuencia.");
+        }
+        if (timelineSlider != null) {
+            timelineSlider.setDisable(true);
+            variantButton.setDisable(true);
+            timelineSlider.setValue(0);
+            timelineLabel.setText("--- / ---");
+        }
+    }
+
+    private void enableTimeline(int codons) {
+        timelineSlider.setMax(Math.max(1, codons));
+        timelineSlider.setValue(0);
+        timelineSlider.setDisable(false);
+        timelineLabel.setText("0 / " + codons);
+    }
+
+    /**
+     * Salta al codón indicado del alelo normal (y al mismo paso del mutado). Si la
+     * traducción estaba en marcha, continúa desde ahí.
+     */
+    private void seekTo(int codon) {
+        SimulacionEnSegundoPlano target = simulacion;
+        if (target == null || editInProgress) {
+            return;
+        }
+        boolean wasRunning = target.estaCorriendo();
+        // El paso k + 1 deja el ribosoma sobre el codón k (el paso 1 es la iniciación).
+        target.saltar(codon + 1).thenAccept(positions -> Platform.runLater(() -> {
+            if (simulacion != target) {
+                return; // Se cargó otra secuencia mientras tanto
+            }
+            applyJump(positions);
+            if (wasRunning) {
+                target.iniciar(selectedSpeed());
+            }
+        }));
+    }
+
+    /**
+     * Lleva la simulación unos codones antes del codón de parada prematuro del alelo
+     * mutado, o al codón de la divergencia si no hay parada prematura.
+     */
+    private void seekToVariant() {
+        if (comparacion == null || comparacion.divergencia() < 0) {
+            return;
+        }
+        int codon = comparacion.paradaPrematura() >= 0
+                ? Math.max(0, comparacion.paradaPrematura() - 5)
+                : comparacion.divergencia() / 3;
+        seekTo(codon);
+    }
+
+    /**
+     * Reemplaza el estado visual por el de las posiciones recibidas: la cadena se reconstruye
+     * a partir del péptido y las etiquetas muestran el evento del paso alcanzado.
+     */
+    private void applyJump(List<SimulacionEnSegundoPlano.Posicion> positions) {
+        pendingChain.setLength(0);
+        lastEvent = null;
+        lastMutantEvent = null;
+        restoreRibosome();
+
+        SimulacionEnSegundoPlano.Posicion normal = positions.get(0);
+        StringBuilder chain = new StringBuilder();
+        for (byte code : normal.peptido()) {
+            chain.append(Aminoacido.desdeCodigo(code).getNombre()).append("-");
+        }
+        if (chain.length() > 0) {
+            aminoAcidChainArea.setText(chain.toString());
+            chainStarted = true;
+        } else {
+            resetChain("Lista para iniciar...");
+        }
+
+        if (comparisonMode) {
+            mutantSmallSubunit.setOpacity(1);
+            mutantLargeSubunit.setOpacity(1);
+            comparisonLabel.setText(comparacion.describir());
+            EventoTraduccion mutantEvent = positions.get(1).evento();
+            if (mutantEvent != null) {
+                applyMutantEvent(mutantEvent);
+            }
+        }
+        if (normal.evento() != null) {
+            showEvent(normal.evento());
+        }
+    }
+
+    /**
+     * Detiene la disociación en curso y vuelve a mostrar el ribosoma normal.
+     */
+    private void restoreRibosome() {
+        dissociations.forEach(FadeTransition::stop);
+        dissociations.clear();
+        smallSubunit.setOpacity(1);
+        largeSubunit.setOpacity(1);
+    }
+
+    /**
+     * Aplica la edición del panel: con la simulación detenida se edita la secuencia
+     * (la proteína se vuelve a traducir sólo donde cambió) y se redibuja la ventana
+     * visible del ARNm; después el motor regresa al codón editado si ya lo había pasado.
+     */
+    private void applyEdit() {
+        SimulacionEnSegundoPlano target = simulacion;
+        if (target == null || traduccionEditada == null || editInProgress) {
+            return;
+        }
+        int position;
+        int remove;
+        try {
+            position = Integer.parseInt(editPositionField.getText().trim()) - 1;
+            String removeText = editRemoveField.getText().trim();
+            remove = removeText.isEmpty() ? 0 : Integer.parseInt(removeText);
+        } catch (NumberFormatException e) {
+            editResultLabel.setText("Error: la base y las bases a quitar deben ser números.");
+            return;
+        }
+        String bases = editBasesField.getText().trim();
+        boolean wasRunning = target.estaCorriendo();
+        editInProgress = true;
+        editButton.setDisable(true);
+        target.detener().thenRun(() -> Platform.runLater(() -> {
+            if (simulacion != target) {
+                return; // Se cargó otra secuencia mientras tanto
+            }
+            TraduccionIncremental.Cambio change;
+            try {
+                change = traduccionEditada.editar(position, remove, bases);
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                editResultLabel.setText("Error: " + e.getMessage());
+                finishEdit(target, wasRunning);
+                return;
+            }
+            // Las paradas guardadas ya no corresponden a la secuencia editada
+            indiceParadas = null;
+            // Redibuja la ventana visible (una edición antes del marco también lo recorre)
+            applyCompositionOverlay();
+            timelineSlider.setMax(traduccionEditada.getLongitud() + 1);
+            editResultLabel.setText(change.describir());
+            // La secuencia editable se recorre base por base; para un gen es inmediato.
+            compositionLabel.setText(AnalisisComposicion.perfil(traduccionEditada.getSecuencia(),
+                    traduccionEditada.getInicio(), traductor, adaptacionCodones,
+                    AnalisisComposicion.VENTANA_POR_DEFECTO).describir());
+            // Frente a la proteína cargada: glicinas sustituidas por la edición o dominio truncado.
+            collagenLabel.setText(EscanerColageno.escanear(traduccionEditada.peptido(), referenciaColageno).describir());
+            target.editado(0, position).thenAccept(rewound -> Platform.runLater(() -> {
+                if (simulacion != target) {
+                    return;
+                }
+                if (rewound != null) {
+                    applyRewind(rewound);
                 }
-            } else {
-                // Si la carga falla, reiniciamos el canvas a vacío
-                drawmRNA(null);
-                secuenciaARN = null;
-                currentEventLabel.setText("Error: Archivo no encontrado. Verifique la ruta.");
+                finishEdit(target, wasRunning);
+            }));
+        }));
+    }
+
+    private void finishEdit(SimulacionEnSegundoPlano target, boolean wasRunning) {
+        editInProgress = false;
+        editButton.setDisable(false);
+        if (wasRunning) {
+            target.iniciar(selectedSpeed());
+        }
+    }
+
+    /**
+     * El ribosoma ya había pasado la base editada y regresó al codón que la contiene:
+     * se recorta la cadena mostrada a los residuos anteriores, sin reescribirla.
+     */
+    private void applyRewind(SimulacionEnSegundoPlano.Posicion position) {
+        pendingChain.setLength(0);
+        lastEvent = null;
+        restoreRibosome();
+        byte[] peptide = position.peptido();
+        if (peptide.length == 0) {
+            resetChain("Lista para iniciar...");
+        } else if (chainStarted) {
+            int offset = 0;
+            for (byte code : peptide) {
+                offset += Aminoacido.desdeCodigo(code).getNombre().length() + 1;
             }
-        } catch (Exception e) {
-            currentEventLabel.setText("Error de E/S o reflexión al cargar la proteína.");
-            drawmRNA(null);
-            secuenciaARN = null;
+            aminoAcidChainArea.deleteText(offset, aminoAcidChainArea.getLength());
         }
+        showEvent(position.evento());
+    }
+
+    /**
+     * Muestra u oculta la capa de composición en las pistas visibles según la casilla.
+     */
+    private void applyCompositionOverlay() {
+        AdaptacionCodones overlay = compositionCheck.isSelected() ? adaptacionCodones : null;
+        if (mrnaTrack != null) {
+            mrnaTrack.setComposicion(overlay, traduccionEditada != null && !comparisonMode ? traduccionEditada.getInicio() : 0);
+        }
+        if (mutantTrack != null) {
+            mutantTrack.setComposicion(overlay, 0);
+        }
+    }
+
+    private void resetChain(String placeholder) {
+        aminoAcidChainArea.setText(placeholder);
+        chainStarted = false;
     }
 
     /**
      * Mueve visualmente el ARNm debajo del ribosoma, simulando la translocación.
+     * Se llama en cada pulso: el desplazamiento de la pista se acerca al del codón
+     * actual, de modo que a cualquier velocidad hay una sola "animación" en curso.
      */
-    private void translocatemRNA() {
-        // ... (sin cambios)
-        final double PIXELS_PER_CODON = BASE_WIDTH * 3;
+    private void advanceTrack(long now) {
+        double elapsed = lastFrameNanos == 0 ? 0 : (now - lastFrameNanos) / 1e9;
+        lastFrameNanos = now;
+        advanceTrack(mrnaTrack, punteroInicial, elapsed);
+        if (comparisonMode) {
+            advanceTrack(mutantTrack, punteroMutante, elapsed);
+        }
+    }
 
-        double newX = -(punteroInicial / 3) * PIXELS_PER_CODON;
+    private void advanceTrack(PistaARNm track, int pointer, double elapsed) {
+        if (track == null || track.getSecuencia() == null) {
+            return;
+        }
+        double current = track.desplazamientoProperty().get();
+        double target = track.desplazamientoPara(pointer);
+        double distance = target - current;
+        if (distance == 0) {
+            return;
+        }
+        // Si el ribosoma quedó más de una pantalla atrás (modo turbo) se salta directamente.
+        if (Math.abs(distance) > track.getWidth() || Math.abs(distance) < 0.5) {
+            track.desplazamientoProperty().set(target);
+            return;
+        }
+        double fraction = 1 - Math.exp(-elapsed / TRANSLOCATION_TIME_CONSTANT);
+        track.desplazamientoProperty().set(current + distance * fraction);
+    }
 
-        TranslateTransition tt = new TranslateTransition(Duration.millis(500), mrnaContainer);
-        tt.setToX(newX);
-        tt.play();
+    private double selectedSpeed() {
+        int index = speedSelector.getItems().indexOf(speedSelector.getValue());
+        return SPEED_VALUES[Math.max(0, index)];
     }
 
 
     /**
-     * Realiza un único paso de la traducción (1 codón), incluyendo la actualización visual.
+     * Solicita al motor un único paso de la traducción (1 codón); la actualización
+     * visual llega con el evento en el siguiente pulso.
      */
     private void stepTranslation() {
-        if (secuenciaARN == null || mrnaContainer == null) {
+        if (editInProgress) {
+            return;
+        }
+        if (simulacion == null || mrnaTrack == null || mrnaTrack.getSecuencia() == null) {
             currentEventLabel.setText("ERROR: Cargue una secuencia primero.");
-            simulationTimer.stop();
-            isSimulationActive = false;
             return;
         }
+        simulacion.paso();
+    }
 
-        if (punteroInicial + 3 > secuenciaARN.length()) {
-            simulationTimer.stop();
-            currentCodonLabel.setText("--- / Fin");
-            currentEventLabel.setText("TERMINACIÓN DE TRADUCCIÓN. Proteína finalizada. Total: " + aminoacidosEncontrados);
-            isSimulationActive = false;
+    /**
+     * Drena los eventos producidos desde el pulso anterior y los aplica de una sola vez:
+     * los aminoácidos se agregan en bloque a la cadena y las etiquetas muestran el último estado.
+     */
+    private void applyPendingEvents() {
+        if (simulacion == null) {
             return;
         }
+        if (comparisonMode && simulacion.drenar(1, event -> lastMutantEvent = event) > 0) {
+            applyMutantEvent(lastMutantEvent);
+            lastMutantEvent = null;
+        }
+        if (simulacion.drenar(this::collectEvent) == 0) {
+            return;
+        }
+        EventoTraduccion event = lastEvent;
+        lastEvent = null;
 
-        int punteroFinal = punteroInicial + 3;
-        String codon = secuenciaARN.substring(punteroInicial, punteroFinal);
-        String aminoacido = mapaAminoacidos.getOrDefault(codon, "");
-
-        // 1. Detección de Parada
-        if (aminoacido.equals("STOP") || aminoacido.equals("")) {
-            // Animación de disociación (se desvanecen)
-            javafx.animation.FadeTransition ft = new javafx.animation.FadeTransition(Duration.millis(1000), largeSubunit);
-            ft.setToValue(0);
-            ft.play();
-            javafx.animation.FadeTransition ft2 = new javafx.animation.FadeTransition(Duration.millis(1000), smallSubunit);
-            ft2.setToValue(0);
-            ft2.play();
-
-            simulationTimer.stop();
-            currentCodonLabel.setText(codon + " (STOP)");
-            currentEventLabel.setText("Codón de Parada Prematuro Encontrado. Ribosoma se disocia. Total: " + aminoacidosEncontrados);
-            isSimulationActive = false;
-        } else {
-            // 2. Proceso de Elongación
-            // ... (omito manejo de error de mapa)
+        if (pendingChain.length() > 0) {
+            if (!chainStarted) {
+                aminoAcidChainArea.clear();
+                chainStarted = true;
+            }
+            aminoAcidChainArea.appendText(pendingChain.toString());
+            pendingChain.setLength(0);
+        }
+        showEvent(event);
+    }
 
-            aminoacidosEncontrados++;
+    /**
+     * Muestra el estado del alelo normal después de un evento.
+     */
+    private void showEvent(EventoTraduccion event) {
+        // Sólo se aplica el último estado; la pista lo alcanza en advanceTrack.
+        punteroInicial = event.puntero();
+        aminoacidosEncontrados = event.aminoacidos();
+        aminoAcidCountLabel.setText(comparisonMode ? comparisonCount() : String.valueOf(aminoacidosEncontrados));
+        if (!timelineSlider.isValueChanging()) {
+            timelineSlider.setValue(event.tipo() == EventoTraduccion.Tipo.TERMINACION
+                    ? event.aminoacidos() + 1 : event.aminoacidos());
+        }
 
-            secuenciaAminoacidos.append(aminoacido).append("-");
-            currentCodonLabel.setText(codon + " -> " + aminoacido);
-            currentEventLabel.setText("Elongación: Unión del ARNt con " + aminoacido + ".");
+        String codon = event.codon() >= 0 ? TraductorCodones.decodificarCodon(event.codon()) : "---";
+        switch (event.tipo()) {
+            case INICIACION:
+                currentCodonLabel.setText(codon);
+                currentEventLabel.setText("Iniciación: el ribosoma se ensambla sobre el codón " + codon + ".");
+                break;
+            case ELONGACION:
+                currentCodonLabel.setText(codon + " -> " + event.aminoacido().getNombre());
+                currentEventLabel.setText("Elongación: Unión del ARNt con " + event.aminoacido().getNombre() + ".");
+                break;
+            case TERMINACION:
+                if (event.codon() < 0) {
+                    currentCodonLabel.setText("--- / Fin");
+                    currentEventLabel.setText("TERMINACIÓN DE TRADUCCIÓN. Proteína finalizada. Total: " + aminoacidosEncontrados);
+                } else {
+                    // Animación de disociación (se desvanecen)
+                    dissociate(smallSubunit, largeSubunit);
+
+                    currentCodonLabel.setText(codon + " (STOP)");
+                    currentEventLabel.setText("Codón de Parada Prematuro Encontrado. Ribosoma se disocia. Total: " + aminoacidosEncontrados);
+                }
+                break;
+        }
+    }
 
-            // ACTUALIZA EL LABEL DE LA CADENA Y EL CONTADOR
-            aminoAcidChainLabel.setText(secuenciaAminoacidos.toString());
-            aminoAcidCountLabel.setText(String.valueOf(aminoacidosEncontrados));
+    /**
+     * Aplica el último estado del alelo mutado: su pista, su contador y, al terminar,
+     * la disociación de su ribosoma junto con la consecuencia frente al alelo normal.
+     */
+    private void applyMutantEvent(EventoTraduccion event) {
+        punteroMutante = event.puntero();
+        aminoacidosMutante = event.aminoacidos();
+        aminoAcidCountLabel.setText(comparisonCount());
+        if (event.tipo() != EventoTraduccion.Tipo.TERMINACION) {
+            return;
+        }
+        if (event.codon() >= 0) {
+            dissociate(mutantSmallSubunit, mutantLargeSubunit);
+        }
+        comparisonLabel.setText(comparacion.describir() + "\nEl alelo mutado terminó con " + aminoacidosMutante
+                + " aminoácidos" + (event.codon() >= 0 ? " en el codón " + TraductorCodones.decodificarCodon(event.codon()) : "") + ".");
+    }
 
-            // 3. Avance del Puntero Lógico
-            punteroInicial = punteroInicial + 3;
+    private void dissociate(Rectangle small, Rectangle large) {
+        for (Rectangle subunit : new Rectangle[]{large, small}) {
+            FadeTransition ft = new FadeTransition(Duration.millis(1000), subunit);
+            ft.setToValue(0);
+            ft.setOnFinished(e -> dissociations.remove(ft));
+            dissociations.add(ft);
+            ft.play();
+        }
+    }
 
-            // 4. Animación de Translocación (Movimiento Ribosomal)
-            translocatemRNA();
+    private void collectEvent(EventoTraduccion event) {
+        if (event.tipo() == EventoTraduccion.Tipo.ELONGACION) {
+            pendingChain.append(event.aminoacido().getNombre()).append("-");
         }
+        lastEvent = event;
     }
 
     public static void main(String[] args) {
@@ -1,9 +1,15 @@
 package org.lsz.uvm.main;
 
-import org.lsz.uvm.util.UtilSimulacionRibosomal;
+import org.lsz.uvm.util.RegistroMetricas;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  *
@@ -15,6 +21,11 @@ import java.util.Map;
  */
 public class ARN {
 
+    // Contenedor binario con las proteinas importadas (ver AlmacenSecuencias)
+    private static final Path RUTA_ALMACEN = Paths.get("proteina", "proteinas" + AlmacenSecuencias.EXTENSION);
+    private static AlmacenSecuencias almacen;
+    private static long almacenModificado = -1;
+
     /**
      *
      * Procesa un archivo de texto de una proteína específica para extraer su secuencia de ARNm.
@@ -24,87 +35,313 @@ public class ARN {
      * @param proteina El nombre de la proteína cuyo archivo ARNm se desea procesar.
      * @return Un string que contiene la secuencia de ARNm limpia y concatenada.
      * Retorna un string vacío si el archivo de la proteína no se encuentra.
-     * @throws FileNotFoundException excepcion al no poder encontrar o leer el archivo
+     * @throws IOException excepcion al no poder leer el archivo
      */
     public static String procesarDiccionarioProteina(String proteina) throws IOException {
-        try {
+        return cargarSecuenciaProteina(proteina).toString();
+    }
 
-            // Muestra en consola la proteína que se está intentando procesar.
-            System.out.println("Proteina a procesar: " );
+    /**
+     *
+     * Procesa el archivo de una proteína y devuelve su secuencia de ARNm empaquetada
+     * a 2 bits por base, lista para ser consumida por el traductor y la interfaz gráfica.
+     *
+     * @param proteina El nombre de la proteína cuyo archivo ARNm se desea procesar.
+     * @return La secuencia de ARNm empaquetada. Retorna una secuencia vacía si el archivo
+     * de la proteína no se encuentra.
+     * @throws IOException excepcion al no poder leer el archivo
+     */
+    public static SecuenciaEmpaquetada cargarSecuenciaProteina(String proteina) throws IOException {
+        return cargarSecuenciaProteina(proteina, null);
+    }
 
-            // Construye la ruta completa al archivo de la proteína.
-            // Se asume que hay una carpeta "diccionario" en el mismo directorio que el ejecutable.
-            String rutaArchivo = "proteina/" + proteina + ".txt";
+    /**
+     *
+     * Igual que {@link #cargarSecuenciaProteina(String)}, informando el avance de la
+     * lectura del archivo de texto (la interfaz gráfica lo usa para su barra de progreso
+     * y para cancelar). Las secuencias del contenedor binario no requieren lectura.
+     *
+     * @param proteina El nombre de la proteína cuyo archivo ARNm se desea procesar.
+     * @param progreso Recibe el avance y puede cancelar la carga, o null.
+     * @return La secuencia de ARNm empaquetada, o una secuencia vacía si no se encuentra.
+     * @throws IOException excepcion al no poder leer el archivo
+     * @throws java.util.concurrent.CancellationException si {@code progreso} pidió cancelar
+     */
+    public static SecuenciaEmpaquetada cargarSecuenciaProteina(String proteina,
+                                                               CargadorSecuenciaMapeada.Progreso progreso) throws IOException {
+        // Construye la ruta completa al archivo de la proteína.
+        // Se asume que hay una carpeta "proteina" en el mismo directorio que el ejecutable.
+        String rutaArchivo = "proteina/" + proteina + ".txt";
 
-            // Intenta abrir el archivo.
-            File archivoProteina = new File(rutaArchivo);
+        // Intenta abrir el archivo.
+        File archivoProteina = new File(rutaArchivo);
 
-            // Verifica si el archivo no pudo ser abierto.
-            if (!archivoProteina.exists()) {
-                // Muestra un mensaje de error en el flujo de errores estándar.
-                System.out.println("Error: No se pudo encontrar la proteina en la base de datos");
-                // Retorna un string vacío para indicar un fallo.
-                return "";
+        // Si la proteína está en el contenedor binario (y el texto no cambió después de
+        // importarla) se sirve directamente del archivo mapeado, sin analizar texto.
+        AlmacenSecuencias almacen = almacenVigente(proteina, archivoProteina);
+        if (almacen != null) {
+            try {
+                return almacen.leer(proteina);
+            } catch (IOException e) {
+                // Un contenedor dañado no debe ocultar el archivo de texto original.
+                System.err.println("Advertencia: " + e.getMessage());
+                RegistroMetricas.global().contador("carga.contenedorDanado").incrementar();
+                if (!archivoProteina.exists()) {
+                    throw e;
+                }
             }
+        }
 
-            BufferedReader bf = new BufferedReader(new FileReader(archivoProteina));
-            String linea="";      // Variable para almacenar cada línea leída del archivo.
-            StringBuilder cadenaARNm = new StringBuilder(); // Variable para construir la secuencia de ARNm concatenada.
-
-            // Lee el archivo línea por línea hasta el final.
-            while ((linea = bf.readLine())!= null) {
-                // 1. Limpieza rigurosa: usa un regex para remover cualquier cosa que no sea A, T, C, G (números, espacios, caracteres ocultos, etc.)
-                // La expresión "[^atcgATCG]" remueve todo lo que NO sea A, T, C, G
-                String lineaLimpia = linea.replaceAll("[^atcgATCG]", "");
-                // 2. Procesa la línea limpia (convierte 'T' a 'U' y pone en mayúsculas)
-                if (!lineaLimpia.isEmpty()) {
-                    cadenaARNm.append(UtilSimulacionRibosomal.removerNumeros(lineaLimpia));
+        // Verifica si el archivo no pudo ser abierto.
+        if (!archivoProteina.exists()) {
+            // Muestra un mensaje de error en el flujo de errores estándar.
+            System.err.println("Error: No se pudo encontrar la proteina " + proteina + " en la base de datos");
+            RegistroMetricas.global().contador("carga.noEncontradas").incrementar();
+            // Retorna una secuencia vacía para indicar un fallo.
+            return SecuenciaEmpaquetada.VACIA;
+        }
+
+        // Mapea el archivo y en una sola pasada filtra, pasa a mayúsculas, convierte T en U
+        // y empaqueta las bases, sin expresiones regulares ni cadenas intermedias.
+        // Si el archivo no cambió desde la última carga, la secuencia sale de la caché.
+        // Los errores de lectura se propagan a quien llama en lugar de ocultarse.
+        try {
+            return CacheSecuencias.compartida().cargar(archivoProteina.toPath(), progreso);
+        } catch (IOException e) {
+            RegistroMetricas.global().contador("carga.errores").incrementar();
+            throw e;
+        }
+    }
+    /**
+     *
+     * Devuelve el índice de paradas de la secuencia que entrega
+     * {@link #cargarSecuenciaProteina(String)}. Si la proteína sale del contenedor
+     * binario se usa el índice guardado al importarla; si no, se construye
+     * recorriendo la secuencia.
+     *
+     * @param proteina El nombre de la proteína.
+     * @param traductor El traductor con el diccionario compilado (define las paradas).
+     * @return El índice de paradas de la secuencia.
+     * @throws IOException excepcion al no poder leer el archivo
+     */
+    public static IndiceParadas cargarParadas(String proteina, TraductorCodones traductor) throws IOException {
+        File archivoProteina = new File("proteina/" + proteina + ".txt");
+        AlmacenSecuencias almacen = almacenVigente(proteina, archivoProteina);
+        if (almacen != null) {
+            try {
+                return almacen.paradas(proteina, traductor);
+            } catch (IOException e) {
+                if (!archivoProteina.exists()) {
+                    throw e;
                 }
+                // El contenedor está dañado (cargarSecuenciaProteina ya lo reportó): se usa el texto.
+                return IndiceParadas.construir(CacheSecuencias.compartida().cargar(archivoProteina.toPath()), traductor);
+            }
+        }
+        return IndiceParadas.construir(cargarSecuenciaProteina(proteina), traductor);
+    }
+
+    /**
+     *
+     * Convierte todos los archivos de texto de la carpeta "proteina" en el contenedor
+     * binario que usa {@link #cargarSecuenciaProteina(String)}, incluyendo el índice de
+     * paradas calculado con el diccionario actual.
+     *
+     * @param traductor El traductor con el diccionario compilado.
+     * @return La ruta del contenedor generado.
+     * @throws IOException si algún archivo no se puede leer o el contenedor no se puede escribir
+     */
+    public static Path importarProteinas(TraductorCodones traductor) throws IOException {
+        List<Path> archivos = new ArrayList<>();
+        try (Stream<Path> contenido = Files.list(RUTA_ALMACEN.getParent())) {
+            contenido.filter(ruta -> ruta.getFileName().toString().endsWith(".txt"))
+                    .sorted()
+                    .forEach(archivos::add);
+        }
+        AlmacenSecuencias.importar(archivos, RUTA_ALMACEN, traductor);
+        return RUTA_ALMACEN;
+    }
 
+    /**
+     * @return El contenedor si tiene la proteína y el archivo de texto no cambió después de importarla, o null.
+     */
+    private static AlmacenSecuencias almacenVigente(String proteina, File archivoProteina) {
+        AlmacenSecuencias almacen = almacenProteinas();
+        if (almacen != null && almacen.contiene(proteina)
+                && (!archivoProteina.exists() || archivoProteina.lastModified() <= almacenModificado)) {
+            return almacen;
+        }
+        return null;
+    }
+
+    /**
+     * Abre el contenedor de proteínas una sola vez y lo vuelve a abrir si se regenera.
+     *
+     * @return El contenedor, o null si no existe o no se puede leer.
+     */
+    private static synchronized AlmacenSecuencias almacenProteinas() {
+        File archivo = RUTA_ALMACEN.toFile();
+        long modificado = archivo.lastModified();
+        if (modificado == 0) {
+            return null;
+        }
+        if (almacen == null || modificado != almacenModificado) {
+            try {
+                AlmacenSecuencias nuevo = AlmacenSecuencias.abrir(RUTA_ALMACEN);
+                if (almacen != null) {
+                    // Las secuencias ya entregadas siguen mapeadas aunque se cierre el canal.
+                    almacen.close();
+                }
+                almacen = nuevo;
+                almacenModificado = modificado;
+            } catch (IOException e) {
+                System.err.println("No se pudo abrir " + RUTA_ALMACEN + ": " + e.getMessage());
+                return null;
             }
-            bf.close();
-            // Retorna la secuencia de ARNm limpia y completa.
-            return cadenaARNm.toString();
-        }catch(Exception e) {
-            e.getCause();
         }
-        return proteina;
+        return almacen;
+    }
+
+    /**
+     *
+     * Obtiene un registro de un archivo FASTA o GenBank con varios registros usando
+     * su índice ".secidx" (se construye la primera vez). Sólo se lee del disco la región
+     * del registro solicitado.
+     *
+     * @param archivo La ruta del archivo de secuencias.
+     * @param registro El nombre del registro (ej. el nombre tras '>' o el de LOCUS).
+     * @return La secuencia de ARNm empaquetada del registro.
+     * @throws IOException si el archivo o el registro no se pueden leer
+     */
+    public static SecuenciaEmpaquetada cargarSecuencia(Path archivo, String registro) throws IOException {
+        return IndiceSecuencias.abrir(archivo).leer(registro);
+    }
+
+    /**
+     *
+     * Obtiene un sub-rango de un registro posicionándose directamente en el archivo.
+     *
+     * @param archivo La ruta del archivo de secuencias.
+     * @param registro El nombre del registro.
+     * @param inicio Primera base del rango (incluida, desde 0).
+     * @param fin Última base del rango (excluida).
+     * @return Las bases del rango empaquetadas.
+     * @throws IOException si el archivo o el registro no se pueden leer
+     */
+    public static SecuenciaEmpaquetada cargarSecuencia(Path archivo, String registro, int inicio, int fin) throws IOException {
+        return IndiceSecuencias.abrir(archivo).leer(registro, inicio, fin);
+    }
+
+    /**
+     *
+     * Evalúa una tabla de variantes de pacientes (ver {@link Variante#leerTabla}) contra
+     * la proteína de referencia cargada una sola vez: cada variante se aplica como un
+     * alelo virtual ({@link SecuenciaConVariantes}), su codón de parada se busca con el
+     * índice de paradas de la referencia y el alelo materializado se compara con
+     * {@link ComparadorSecuencias}. La última fila aplica todas las variantes juntas.
+     * Las variantes que no coinciden con la referencia se reportan en su fila.
+     *
+     * @param proteina El nombre de la proteína de referencia.
+     * @param tabla La ruta de la tabla de variantes.
+     * @param traductor El traductor con el diccionario compilado.
+     * @param salida Recibe una fila separada por tabuladores por variante.
+     * @throws IOException si la proteína o la tabla no se pueden leer, o no se puede escribir
+     * @throws IllegalStateException si la búsqueda en la tabla de piezas no coincide con el alelo materializado
+     */
+    public static void evaluarVariantes(String proteina, Path tabla, TraductorCodones traductor, Writer salida)
+            throws IOException {
+        SecuenciaEmpaquetada referencia = cargarSecuenciaProteina(proteina);
+        if (referencia.isEmpty()) {
+            throw new IOException("No se encontro la proteina " + proteina);
+        }
+        IndiceParadas paradas = cargarParadas(proteina, traductor);
+        ComparadorSecuencias comparador = new ComparadorSecuencias(traductor);
+        List<Variante> variantes = Variante.leerTabla(tabla);
+
+        salida.write("variante\tparada\taminoacidos\ttipo\tcambio_marco\ttruncamiento\tdescripcion\n");
+        for (Variante variante : variantes) {
+            evaluarAlelo(variante.notacion(), referencia, List.of(variante), paradas, comparador, traductor, salida);
+        }
+        if (variantes.size() > 1) {
+            evaluarAlelo("todas", referencia, variantes, paradas, comparador, traductor, salida);
+        }
+    }
+
+    private static void evaluarAlelo(String nombre, SecuenciaEmpaquetada referencia, List<Variante> variantes,
+                                     IndiceParadas paradas, ComparadorSecuencias comparador,
+                                     TraductorCodones traductor, Writer salida) throws IOException {
+        SecuenciaConVariantes alelo;
+        try {
+            alelo = SecuenciaConVariantes.aplicar(referencia, variantes);
+        } catch (IllegalArgumentException e) {
+            salida.write(nombre + "\t-\t-\t-\t-\t-\tError: " + e.getMessage() + "\n");
+            return;
+        }
+        int parada = alelo.posicionTerminacion(0, paradas, traductor);
+        ComparadorSecuencias.Resultado resultado = comparador.comparar(referencia, alelo.materializar());
+        // La tabla de piezas y la copia materializada deben dar la misma proteína.
+        boolean coincide = parada >= 0
+                ? resultado.terminacionMutante() == ComparadorSecuencias.Terminacion.CODON_PARADA
+                && resultado.aminoacidosMutante() == parada / 3
+                : resultado.terminacionMutante() == ComparadorSecuencias.Terminacion.FIN_SECUENCIA;
+        if (!coincide) {
+            throw new IllegalStateException("La parada de " + nombre + " en la tabla de piezas (" + parada
+                    + ") no coincide con el alelo materializado (" + resultado.aminoacidosMutante() + " aa)");
+        }
+        salida.write(nombre + '\t' + (parada >= 0 ? String.valueOf(parada + 1) : "-") + '\t'
+                + resultado.aminoacidosMutante() + '\t' + resultado.tipo() + '\t' + resultado.cambioMarco() + '\t'
+                + resultado.truncamiento() + '\t' + resultado.describir() + '\n');
     }
+
     /**
      *
      * Simula el proceso ribosomal de traducción de una secuencia de ARNm a una cadena
-     * de aminoácidos. Busca el codón de inicio (AUG) y traduce los codones subsiguientes
-     * hasta encontrar un codón de terminación.
+     * de aminoácidos. Traduce el marco 0 desde la primera base (que en los archivos
+     * de CDS es el codón de inicio AUG) hasta encontrar un codón de terminación.
+     * Para buscar los codones AUG en los seis marcos de lectura use {@link BuscadorORF}.
      *
      * @param secuenciaARN La cadena de ARNm a ser procesada.
      * @param mapaAminoacidos Un mapa que contiene la correspondencia entre codones y
      *                        aminoácidos.
      */
     public static void procesarSecuenciaARN(String secuenciaARN, Map<String, String> mapaAminoacidos){
-        boolean isMetionina = false;
-        int punteroInicial = 0;
-        int punteroFinal = punteroInicial+3;
-        int aminoacidosEncontrados = 0;
-        String aminoacido = "";
-        String codon = "";
-        StringBuilder secuenciaAminoacidos = new StringBuilder();
-
-        while(punteroInicial + 3 <= secuenciaARN.length()){
-            punteroFinal = punteroInicial+3;
-            codon = secuenciaARN.substring(punteroInicial, punteroFinal);
-            aminoacido = (mapaAminoacidos.containsKey(codon) ? mapaAminoacidos.get(codon) : "");
-            if(aminoacido.equals("") || aminoacido.equals("STOP")){
-                    break;
-            }
-            aminoacidosEncontrados++;
-            secuenciaAminoacidos.append(aminoacido+" --> ");
-            punteroInicial = punteroInicial +3;
+        procesarSecuenciaARN(SecuenciaEmpaquetada.desdeTexto(secuenciaARN), mapaAminoacidos);
+    }
+
+    /**
+     *
+     * Version de {@link #procesarSecuenciaARN(String, Map)} que recorre directamente
+     * la secuencia empaquetada.
+     *
+     * @param secuenciaARN La secuencia de ARNm empaquetada a ser procesada.
+     * @param mapaAminoacidos Un mapa que contiene la correspondencia entre codones y
+     *                        aminoácidos.
+     */
+    public static void procesarSecuenciaARN(SecuenciaEmpaquetada secuenciaARN, Map<String, String> mapaAminoacidos){
+        byte[] peptido = traducirSecuenciaARN(secuenciaARN, TraductorCodones.compilar(mapaAminoacidos));
 
+        // La cadena de texto solo se construye para mostrar el resultado.
+        StringBuilder secuenciaAminoacidos = new StringBuilder(peptido.length * 14);
+        for (byte codigo : peptido) {
+            secuenciaAminoacidos.append(Aminoacido.desdeCodigo(codigo).getNombre()).append(" --> ");
         }
-        System.out.println("AMINOACIDOS ENCONTRADOS: " + aminoacidosEncontrados);
+        System.out.println("AMINOACIDOS ENCONTRADOS: " + peptido.length);
         System.out.println("SECUENCIA DE AMINOACIDOS ENCONTRADA: \n");
         System.out.println(secuenciaAminoacidos.toString());
     }
 
+    /**
+     *
+     * Traduce la secuencia de ARNm desde la primera base hasta el primer codón de
+     * terminación (o desconocido) usando la tabla compilada del traductor.
+     *
+     * @param secuenciaARN La secuencia de ARNm empaquetada.
+     * @param traductor El traductor con el diccionario ya compilado.
+     * @return El péptido como códigos de {@link Aminoacido}.
+     */
+    public static byte[] traducirSecuenciaARN(SecuenciaEmpaquetada secuenciaARN, TraductorCodones traductor){
+        return traductor.traducir(secuenciaARN, 0);
+    }
+
 
 }
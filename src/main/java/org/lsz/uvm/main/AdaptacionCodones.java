@@ -0,0 +1,109 @@
+package org.lsz.uvm.main;
+
+/**
+ *
+ * Adaptacion relativa de cada codon (Sharp y Li): el peso de un codon es su
+ * frecuencia en un conjunto de referencia dividida entre la del codon sinonimo
+ * mas frecuente, asi que el codon preferido de cada aminoacido pesa 1. El indice
+ * de adaptacion de codones (CAI) de un marco es la media geometrica de los pesos
+ * de sus codones.
+ *
+ * Los codones de terminacion o desconocidos y los aminoacidos con un solo codon
+ * (metionina y triptofano en el codigo estandar) no tienen peso y no cuentan en
+ * el indice.
+ *
+ * La referencia por defecto son las {@link TasasElongacion}: el archivo de tasas
+ * es proporcional al uso de codones del genoma humano, asi que
+ * {@link #desdeTasas} da los pesos frente al uso humano sin otro archivo.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class AdaptacionCodones {
+
+    /** Cuenta que se usa para un codon ausente de la referencia (como en Sharp y Li). */
+    private static final double CUENTA_AUSENTE = 0.5;
+
+    private final double[] pesos;
+    private final double[] logaritmos;
+
+    private AdaptacionCodones(double[] pesos) {
+        this.pesos = pesos;
+        this.logaritmos = new double[pesos.length];
+        for (int codon = 0; codon < pesos.length; codon++) {
+            logaritmos[codon] = Math.log(pesos[codon]);
+        }
+    }
+
+    /**
+     * @param tasas Tasas por codon proporcionales al uso del codon.
+     * @param traductor El traductor con el diccionario compilado (define los sinonimos).
+     * @return Los pesos relativos a las tasas.
+     */
+    public static AdaptacionCodones desdeTasas(TasasElongacion tasas, TraductorCodones traductor) {
+        return new AdaptacionCodones(relativos(tasas.comoArreglo(), traductor));
+    }
+
+    /**
+     * @param referencia El uso de codones de un conjunto de genes de referencia.
+     * @param traductor El traductor con el diccionario compilado (define los sinonimos).
+     * @return Los pesos relativos a la referencia.
+     */
+    public static AdaptacionCodones desdeUso(AnalisisComposicion.UsoCodones referencia, TraductorCodones traductor) {
+        double[] frecuencias = new double[64];
+        for (int codon = 0; codon < 64; codon++) {
+            long cuenta = referencia.cuentas()[codon];
+            frecuencias[codon] = cuenta > 0 ? cuenta : CUENTA_AUSENTE;
+        }
+        return new AdaptacionCodones(relativos(frecuencias, traductor));
+    }
+
+    /**
+     * @param codon El codigo del codon (0 a 63).
+     * @return El peso del codon (0 a 1), o NaN si el codon no cuenta en el indice.
+     */
+    public double peso(int codon) {
+        return pesos[codon & 0x3F];
+    }
+
+    /**
+     * Calcula el CAI a partir de las cuentas de codones, sin volver a leer la secuencia.
+     *
+     * @param uso El uso de codones del marco.
+     * @return El indice (0 a 1), o NaN si el marco no tiene codones con peso.
+     */
+    public double indice(AnalisisComposicion.UsoCodones uso) {
+        double suma = 0;
+        long codones = 0;
+        for (int codon = 0; codon < 64; codon++) {
+            long cuenta = uso.cuentas()[codon];
+            if (cuenta > 0 && !Double.isNaN(pesos[codon])) {
+                suma += cuenta * logaritmos[codon];
+                codones += cuenta;
+            }
+        }
+        return codones == 0 ? Double.NaN : Math.exp(suma / codones);
+    }
+
+    /**
+     * Divide cada frecuencia entre la mayor de sus sinonimos.
+     */
+    private static double[] relativos(double[] frecuencias, TraductorCodones traductor) {
+        double[] maximos = new double[Aminoacido.values().length];
+        int[] sinonimos = new int[maximos.length];
+        for (int codon = 0; codon < 64; codon++) {
+            if (!traductor.terminaTraduccion(codon)) {
+                int aminoacido = traductor.codigo(codon);
+                maximos[aminoacido] = Math.max(maximos[aminoacido], frecuencias[codon]);
+                sinonimos[aminoacido]++;
+            }
+        }
+        double[] pesos = new double[64];
+        for (int codon = 0; codon < 64; codon++) {
+            int aminoacido = traductor.codigo(codon);
+            pesos[codon] = traductor.terminaTraduccion(codon) || sinonimos[aminoacido] < 2
+                    ? Double.NaN : frecuencias[codon] / maximos[aminoacido];
+        }
+        return pesos;
+    }
+}
@@ -0,0 +1,376 @@
+package org.lsz.uvm.main;
+
+import org.lsz.uvm.util.RegistroMetricas;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *
+ * Contenedor binario de secuencias: un encabezado con el directorio de entradas
+ * (nombre, longitud, huella del contenido y, opcionalmente, el indice de paradas
+ * precalculado) seguido de las bases empaquetadas a 2 bits. Al abrirlo solo se lee
+ * el directorio; cada secuencia se mapea a memoria la primera vez que se pide y se
+ * sirve sin copiar ni interpretar texto, asi que cambiar de proteina no cuesta
+ * ningun analisis aunque la biblioteca tenga miles de genes. Al mapearla se compara
+ * la huella de sus bases con la del directorio, de modo que un contenedor danado se
+ * reporta en lugar de traducirse.
+ *
+ * Formato (todos los enteros en big-endian):
+ * <pre>
+ *   int   MAGIA ("TRBS")        int  VERSION
+ *   int   numero de entradas    int  bytes del encabezado y el directorio
+ *   long  mascara de codones de parada del indice (0 si no hay indice)
+ *   por entrada:
+ *     short bytes del nombre, nombre en UTF-8
+ *     int   longitud en bases
+ *     long  desplazamiento de las bases     long huella del contenido
+ *     long  desplazamiento de las paradas (0 si no hay)   int x3 paradas por marco
+ *   datos: palabras de 32 bases y arreglos int de paradas, alineados a 8 bytes
+ * </pre>
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class AlmacenSecuencias implements AutoCloseable {
+
+    /** Extension de los contenedores. */
+    public static final String EXTENSION = ".secbin";
+
+    private static final int MAGIA = 0x54524253;
+    private static final int VERSION = 1;
+    private static final int TAMANO_ENCABEZADO = 24;
+    /** Bytes fijos de cada entrada del directorio, sin contar el nombre. */
+    private static final int TAMANO_ENTRADA = 2 + 4 + 8 + 8 + 8 + 3 * 4;
+
+    private static final RegistroMetricas.Temporizador MAPEOS =
+            RegistroMetricas.global().temporizador("carga.contenedor", "bytes");
+
+    /** Entrada del directorio. */
+    private record Entrada(String nombre, int longitud, long desplazamientoBases, long huella,
+                           long desplazamientoParadas, int[] numeroParadas) {
+    }
+
+    private final Path archivo;
+    private final FileChannel canal;
+    private final long mascaraParadas;
+    private final Map<String, Entrada> entradas;
+    private final Map<String, SecuenciaEmpaquetada> mapeadas = new ConcurrentHashMap<>();
+
+    private AlmacenSecuencias(Path archivo, FileChannel canal, long mascaraParadas, Map<String, Entrada> entradas) {
+        this.archivo = archivo;
+        this.canal = canal;
+        this.mascaraParadas = mascaraParadas;
+        this.entradas = entradas;
+    }
+
+    /**
+     * Abre un contenedor y lee su directorio.
+     *
+     * @param archivo La ruta del contenedor.
+     * @return El almacen abierto; debe cerrarse con {@link #close()}.
+     * @throws IOException si el archivo no se puede leer o no es un contenedor valido
+     */
+    public static AlmacenSecuencias abrir(Path archivo) throws IOException {
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        try {
+            ByteBuffer encabezado = leer(archivo, canal, 0, TAMANO_ENCABEZADO);
+            if (encabezado.getInt() != MAGIA) {
+                throw new IOException(archivo + " no es un contenedor de secuencias");
+            }
+            int version = encabezado.getInt();
+            if (version != VERSION) {
+                throw new IOException("Version " + version + " no soportada en " + archivo);
+            }
+            int numero = encabezado.getInt();
+            int tamanoDirectorio = encabezado.getInt();
+            long mascara = encabezado.getLong();
+            // Se valida antes de reservar memoria para que un contenedor truncado
+            // o danado no termine en una excepcion ajena a la E/S.
+            long tamano = canal.size();
+            if (numero < 0 || tamanoDirectorio < TAMANO_ENCABEZADO || tamanoDirectorio > tamano
+                    || (long) numero * TAMANO_ENTRADA > tamanoDirectorio - TAMANO_ENCABEZADO) {
+                throw danado(archivo, "directorio de " + numero + " entradas y " + tamanoDirectorio
+                        + " bytes en un archivo de " + tamano + " bytes");
+            }
+
+            // El directorio completo se lee de una sola vez.
+            ByteBuffer entrada = leer(archivo, canal, TAMANO_ENCABEZADO, tamanoDirectorio - TAMANO_ENCABEZADO);
+            Map<String, Entrada> entradas = new LinkedHashMap<>(Math.max(16, numero * 2));
+            try {
+                for (int i = 0; i < numero; i++) {
+                    int bytesNombre = entrada.getShort() & 0xFFFF;
+                    byte[] nombre = new byte[bytesNombre];
+                    entrada.get(nombre);
+                    int longitud = entrada.getInt();
+                    long desplazamientoBases = entrada.getLong();
+                    long huella = entrada.getLong();
+                    long desplazamientoParadas = entrada.getLong();
+                    int[] paradas = {entrada.getInt(), entrada.getInt(), entrada.getInt()};
+                    String texto = new String(nombre, StandardCharsets.UTF_8);
+                    long totalParadas = (long) paradas[0] + paradas[1] + paradas[2];
+                    if (longitud < 0 || desplazamientoBases < tamanoDirectorio
+                            || desplazamientoBases > tamano - (longitud + 31L) / 32 * 8
+                            || paradas[0] < 0 || paradas[1] < 0 || paradas[2] < 0
+                            || (desplazamientoParadas != 0 && (desplazamientoParadas < tamanoDirectorio
+                                    || desplazamientoParadas > tamano - 4 * totalParadas))) {
+                        throw danado(archivo, "la entrada '" + texto + "' apunta fuera del archivo");
+                    }
+                    if (entradas.put(texto, new Entrada(texto, longitud, desplazamientoBases, huella,
+                            desplazamientoParadas, paradas)) != null) {
+                        throw danado(archivo, "la entrada '" + texto + "' esta repetida");
+                    }
+                }
+            } catch (BufferUnderflowException e) {
+                throw danado(archivo, "el directorio termina antes de la entrada " + (entradas.size() + 1));
+            }
+            return new AlmacenSecuencias(archivo, canal, mascara, entradas);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Convierte archivos de texto (como los de {@code proteina/}) en un contenedor.
+     * Cada archivo produce una entrada con el nombre del archivo sin extension. Los
+     * archivos se procesan uno por uno, por lo que la memoria no depende del tamano
+     * de la biblioteca.
+     *
+     * @param archivos Los archivos de secuencia.
+     * @param destino La ruta del contenedor; se reemplaza de forma atomica al terminar.
+     * @param traductor Si no es null, se guarda el indice de paradas calculado con este traductor.
+     * @throws IOException si algun archivo no se puede leer, dos archivos producen el
+     *         mismo nombre o el destino no se puede escribir; el destino anterior se conserva
+     */
+    public static void importar(List<Path> archivos, Path destino, TraductorCodones traductor) throws IOException {
+        List<byte[]> nombres = new ArrayList<>(archivos.size());
+        Set<String> vistos = new HashSet<>();
+        long tamanoDirectorio = TAMANO_ENCABEZADO;
+        for (Path ruta : archivos) {
+            String nombre = ruta.getFileName().toString();
+            int punto = nombre.lastIndexOf('.');
+            String nombreEntrada = punto > 0 ? nombre.substring(0, punto) : nombre;
+            byte[] bytes = nombreEntrada.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF || tamanoDirectorio + TAMANO_ENTRADA + bytes.length > Integer.MAX_VALUE) {
+                throw new IOException("Nombre demasiado largo: " + nombre);
+            }
+            if (!vistos.add(nombreEntrada)) {
+                throw new IOException("Dos archivos producen la entrada '" + nombreEntrada + "': " + ruta);
+            }
+            nombres.add(bytes);
+            tamanoDirectorio += TAMANO_ENTRADA + bytes.length;
+        }
+
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try {
+            try (FileChannel salida = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer directorio = ByteBuffer.allocate((int) tamanoDirectorio);
+                directorio.putInt(MAGIA).putInt(VERSION).putInt(archivos.size()).putInt((int) tamanoDirectorio)
+                        .putLong(traductor != null ? traductor.mascaraTerminacion() : 0);
+
+                long posicion = alinear(tamanoDirectorio);
+                for (int i = 0; i < archivos.size(); i++) {
+                    SecuenciaEmpaquetada secuencia = CargadorSecuenciaMapeada.cargar(archivos.get(i));
+                    int longitud = secuencia.longitud();
+                    int numeroPalabras = (longitud + 31) / 32;
+
+                    long desplazamientoBases = posicion;
+                    ByteBuffer bases = ByteBuffer.allocate(numeroPalabras * 8);
+                    for (int base = 0; base < longitud; base += 32) {
+                        bases.putLong(secuencia.bloque(base));
+                    }
+                    bases.flip();
+                    posicion = escribir(salida, posicion, bases);
+
+                    long desplazamientoParadas = 0;
+                    int[] numeroParadas = new int[3];
+                    if (traductor != null) {
+                        IndiceParadas indice = IndiceParadas.construir(secuencia, traductor);
+                        desplazamientoParadas = posicion;
+                        int total = 0;
+                        for (int marco = 0; marco < 3; marco++) {
+                            numeroParadas[marco] = indice.numeroParadas(marco);
+                            total += numeroParadas[marco];
+                        }
+                        ByteBuffer paradas = ByteBuffer.allocate(total * 4);
+                        for (int marco = 0; marco < 3; marco++) {
+                            for (int parada : indice.paradas(marco)) {
+                                paradas.putInt(parada);
+                            }
+                        }
+                        paradas.flip();
+                        posicion = escribir(salida, posicion, paradas);
+                    }
+
+                    directorio.putShort((short) nombres.get(i).length).put(nombres.get(i))
+                            .putInt(longitud).putLong(desplazamientoBases).putLong(secuencia.huella())
+                            .putLong(desplazamientoParadas)
+                            .putInt(numeroParadas[0]).putInt(numeroParadas[1]).putInt(numeroParadas[2]);
+                }
+                directorio.flip();
+                escribir(salida, 0, directorio);
+                salida.force(true);
+            }
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            // No se deja un contenedor a medias junto al destino.
+            try {
+                Files.deleteIfExists(temporal);
+            } catch (IOException borrado) {
+                e.addSuppressed(borrado);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return La ruta del contenedor.
+     */
+    public Path getArchivo() {
+        return archivo;
+    }
+
+    /**
+     * @return Los nombres de las secuencias, en el orden en que se importaron.
+     */
+    public List<String> nombres() {
+        return Collections.unmodifiableList(new ArrayList<>(entradas.keySet()));
+    }
+
+    /**
+     * @param nombre El nombre de la secuencia.
+     * @return true si el contenedor tiene esa secuencia.
+     */
+    public boolean contiene(String nombre) {
+        return entradas.containsKey(nombre);
+    }
+
+    /**
+     * Devuelve la secuencia respaldada directamente por el archivo mapeado. La primera
+     * vez que se pide se comprueba su huella.
+     *
+     * @param nombre El nombre de la secuencia.
+     * @return La secuencia, sin copia de las bases.
+     * @throws IOException si la secuencia no existe, no se puede mapear o no coincide con su huella
+     */
+    public SecuenciaEmpaquetada leer(String nombre) throws IOException {
+        SecuenciaEmpaquetada secuencia = mapeadas.get(nombre);
+        if (secuencia != null) {
+            return secuencia;
+        }
+        Entrada entrada = requerir(nombre);
+        EventosJFR.CargaSecuencia evento = new EventosJFR.CargaSecuencia();
+        evento.begin();
+        long inicio = System.nanoTime();
+        long bytes = ((entrada.longitud() + 31L) / 32) * 8;
+        MappedByteBuffer region = canal.map(FileChannel.MapMode.READ_ONLY, entrada.desplazamientoBases(), bytes);
+        secuencia = SecuenciaEmpaquetada.desdePalabras(region.order(ByteOrder.BIG_ENDIAN).asLongBuffer(), entrada.longitud());
+        if (secuencia.huella() != entrada.huella()) {
+            throw new IOException("La secuencia '" + nombre + "' de " + archivo
+                    + " no coincide con la huella guardada al importarla (contenedor danado)");
+        }
+        MAPEOS.registrar(System.nanoTime() - inicio, bytes);
+        if (evento.shouldCommit()) {
+            evento.archivo = archivo + "#" + nombre;
+            evento.origen = "contenedor";
+            evento.bytes = bytes;
+            evento.bases = entrada.longitud();
+            evento.commit();
+        }
+        SecuenciaEmpaquetada anterior = mapeadas.putIfAbsent(nombre, secuencia);
+        return anterior != null ? anterior : secuencia;
+    }
+
+    /**
+     * Devuelve el indice de paradas de una secuencia. Si el contenedor lo trae y fue
+     * calculado con los mismos codones de parada que {@code traductor}, se lee del
+     * archivo; si no, se construye recorriendo la secuencia.
+     *
+     * @param nombre El nombre de la secuencia.
+     * @param traductor El traductor con el diccionario compilado.
+     * @return El indice de paradas.
+     * @throws IOException si la secuencia no existe o no se puede leer
+     */
+    public IndiceParadas paradas(String nombre, TraductorCodones traductor) throws IOException {
+        Entrada entrada = requerir(nombre);
+        // Las paradas solo sirven si las bases de las que salieron estan intactas.
+        SecuenciaEmpaquetada secuencia = leer(nombre);
+        if (entrada.desplazamientoParadas() == 0 || mascaraParadas != traductor.mascaraTerminacion()) {
+            return IndiceParadas.construir(secuencia, traductor);
+        }
+        int[] numero = entrada.numeroParadas();
+        IntBuffer datos = leer(archivo, canal, entrada.desplazamientoParadas(), 4 * (numero[0] + numero[1] + numero[2])).asIntBuffer();
+        int[][] paradas = new int[3][];
+        for (int marco = 0; marco < 3; marco++) {
+            paradas[marco] = new int[numero[marco]];
+            datos.get(paradas[marco]);
+        }
+        return IndiceParadas.desdeParadas(paradas, entrada.longitud());
+    }
+
+    /**
+     * Cierra el archivo. Las secuencias ya mapeadas siguen siendo validas.
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    private Entrada requerir(String nombre) throws IOException {
+        Entrada entrada = entradas.get(nombre);
+        if (entrada == null) {
+            throw new IOException("La secuencia '" + nombre + "' no existe en " + archivo);
+        }
+        return entrada;
+    }
+
+    private static ByteBuffer leer(Path archivo, FileChannel canal, long posicion, int bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, posicion + buffer.position()) < 0) {
+                throw danado(archivo, "termina en el byte " + (posicion + buffer.position()));
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static IOException danado(Path archivo, String detalle) {
+        return new IOException("Contenedor truncado o danado " + archivo + ": " + detalle);
+    }
+
+    /**
+     * Escribe el buffer completo y devuelve la siguiente posicion alineada a 8 bytes.
+     */
+    private static long escribir(FileChannel salida, long posicion, ByteBuffer datos) throws IOException {
+        long actual = posicion;
+        while (datos.hasRemaining()) {
+            actual += salida.write(datos, actual);
+        }
+        return alinear(actual);
+    }
+
+    private static long alinear(long posicion) {
+        return (posicion + 7) & ~7L;
+    }
+}
@@ -0,0 +1,120 @@
+package org.lsz.uvm.main;
+
+/**
+ *
+ * Aminoacidos que puede producir la traduccion, con el nombre usado en
+ * el archivo "diccionario/aminoacidos.txt" y su codigo de una letra.
+ * El ordinal de cada constante es el valor que se guarda en las tablas
+ * de traduccion y en los peptidos compactos ({@code byte[]}).
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public enum Aminoacido {
+
+    ALANINA("Alanina", 'A'),
+    ARGININA("Arginina", 'R'),
+    ASPARAGINA("Asparagina", 'N'),
+    ACIDO_ASPARTICO("Acido Aspartico", 'D'),
+    CISTEINA("Cisteina", 'C'),
+    GLUTAMINA("Glutamina", 'Q'),
+    ACIDO_GLUTAMICO("Acido Glutamico", 'E'),
+    GLICINA("Glicina", 'G'),
+    HISTIDINA("Histidina", 'H'),
+    ISOLEUCINA("Isoleucina", 'I'),
+    LEUCINA("Leucina", 'L'),
+    LISINA("Lisina", 'K'),
+    METIONINA("Metionina", 'M'),
+    FENILALANINA("Fenilalanina", 'F'),
+    PROLINA("Prolina", 'P'),
+    SERINA("Serina", 'S'),
+    TREONINA("Treonina", 'T'),
+    TRIPTOFANO("Triptofano", 'W'),
+    TIROSINA("Tirosina", 'Y'),
+    VALINA("Valina", 'V'),
+    /** Codon de terminacion. */
+    STOP("STOP", '*'),
+    /** Codon sin entrada en el diccionario; la traduccion se detiene igual que con STOP. */
+    DESCONOCIDO("", '?');
+
+    private static final Aminoacido[] VALORES = values();
+
+    private final String nombre;
+    private final char letra;
+
+    Aminoacido(String nombre, char letra) {
+        this.nombre = nombre;
+        this.letra = letra;
+    }
+
+    /**
+     * @return El nombre del aminoacido tal como aparece en el diccionario.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * @return El codigo de una letra (IUPAC) del aminoacido.
+     */
+    public char getLetra() {
+        return letra;
+    }
+
+    /**
+     * @return El codigo compacto usado en las tablas y peptidos.
+     */
+    public byte codigo() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * @return true si el ribosoma debe detenerse en este aminoacido.
+     */
+    public boolean terminaTraduccion() {
+        return this == STOP || this == DESCONOCIDO;
+    }
+
+    /**
+     * Obtiene el aminoacido a partir de su codigo compacto.
+     *
+     * @param codigo El ordinal almacenado en un peptido.
+     * @return El aminoacido correspondiente.
+     */
+    public static Aminoacido desdeCodigo(int codigo) {
+        return VALORES[codigo];
+    }
+
+    /**
+     * Busca el aminoacido por el nombre usado en el diccionario.
+     *
+     * @param nombre El nombre del aminoacido (ej. "Glicina" o "STOP").
+     * @return El aminoacido o {@link #DESCONOCIDO} si el nombre no se reconoce.
+     */
+    public static Aminoacido desdeNombre(String nombre) {
+        if (nombre == null) {
+            return DESCONOCIDO;
+        }
+        String buscado = nombre.trim();
+        for (Aminoacido aminoacido : VALORES) {
+            if (aminoacido != DESCONOCIDO && aminoacido.nombre.equalsIgnoreCase(buscado)) {
+                return aminoacido;
+            }
+        }
+        return DESCONOCIDO;
+    }
+
+    /**
+     * Convierte un peptido compacto a su representacion de una letra por residuo.
+     *
+     * @param peptido Los codigos de aminoacido.
+     * @return El peptido en notacion de una letra.
+     */
+    public static String aLetras(byte[] peptido) {
+        char[] letras = new char[peptido.length];
+        for (int i = 0; i < peptido.length; i++) {
+            letras[i] = VALORES[peptido[i]].letra;
+        }
+        return new String(letras);
+    }
+}
@@ -0,0 +1,477 @@
+package org.lsz.uvm.main;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ *
+ * Composicion de una secuencia: conteo de bases, contenido GC global y por
+ * ventanas deslizantes, y uso de codones del marco de lectura (el indice de
+ * adaptacion se calcula con {@link AdaptacionCodones}).
+ *
+ * En una {@link SecuenciaEmpaquetada} las bases se cuentan 32 a la vez: cada
+ * {@code long} de {@link SecuenciaEmpaquetada#bloque} tiene 32 pares de bits y
+ * una base es G o C exactamente cuando sus dos bits son distintos (C=01, G=10),
+ * asi que {@code bitCount((bloque >>> 1 ^ bloque) & 0x5555...)} da las G+C del
+ * bloque en unas cuantas instrucciones. Los rangos grandes se dividen en un
+ * {@link ForkJoinPool}. Cualquier otra {@link SecuenciaNucleotidos} (por ejemplo
+ * la {@link SecuenciaEditable}) se recorre base por base.
+ *
+ * El perfil por ventanas no vuelve a contar cada ventana: se calcula una vez la
+ * suma acumulada de G+C por bloque y cada ventana es la resta de dos sumas.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class AnalisisComposicion {
+
+    /** Bases por ventana del perfil GC si no se indica otra. */
+    public static final int VENTANA_POR_DEFECTO = 100;
+
+    /** Bit bajo de cada base dentro de un bloque de 32 bases. */
+    private static final long BITS_BAJOS = 0x5555555555555555L;
+    private static final int BASES_POR_BLOQUE = 32;
+    /** Bloques (o ventanas) a partir de los cuales un rango se divide en dos tareas. */
+    private static final int UMBRAL_BLOQUES = 1 << 15;
+
+    private AnalisisComposicion() {
+    }
+
+    /**
+     * Conteo de cada base.
+     */
+    public record Composicion(long a, long c, long g, long u) {
+
+        public long total() {
+            return a + c + g + u;
+        }
+
+        /**
+         * @return La fraccion de G+C (0 a 1), o NaN si no hay bases.
+         */
+        public double contenidoGC() {
+            long total = total();
+            return total == 0 ? Double.NaN : (double) (g + c) / total;
+        }
+    }
+
+    /**
+     * Contenido GC de ventanas de {@code ventana} bases que empiezan cada {@code paso} bases.
+     *
+     * @param ventana Bases por ventana.
+     * @param paso Bases entre el inicio de una ventana y la siguiente.
+     * @param fracciones Fraccion de G+C de cada ventana.
+     */
+    public record PerfilGC(int ventana, int paso, float[] fracciones) {
+
+        public int ventanas() {
+            return fracciones.length;
+        }
+
+        /**
+         * @param indice La ventana (desde 0).
+         * @return La primera base de la ventana.
+         */
+        public int inicio(int indice) {
+            return indice * paso;
+        }
+
+        /**
+         * @return La menor fraccion de G+C entre las ventanas, o NaN si no hay ventanas.
+         */
+        public double minimo() {
+            double minimo = Double.NaN;
+            for (float fraccion : fracciones) {
+                minimo = Double.isNaN(minimo) ? fraccion : Math.min(minimo, fraccion);
+            }
+            return minimo;
+        }
+
+        /**
+         * @return La mayor fraccion de G+C entre las ventanas, o NaN si no hay ventanas.
+         */
+        public double maximo() {
+            double maximo = Double.NaN;
+            for (float fraccion : fracciones) {
+                maximo = Double.isNaN(maximo) ? fraccion : Math.max(maximo, fraccion);
+            }
+            return maximo;
+        }
+    }
+
+    /**
+     * Veces que aparece cada codon (indexado por su codigo de 0 a 63) en un marco de lectura.
+     */
+    public record UsoCodones(long[] cuentas) {
+
+        public long total() {
+            long total = 0;
+            for (long cuenta : cuentas) {
+                total += cuenta;
+            }
+            return total;
+        }
+
+        /**
+         * @param codon El codigo del codon (0 a 63).
+         * @return Apariciones del codon por cada mil codones.
+         */
+        public double porMil(int codon) {
+            long total = total();
+            return total == 0 ? 0 : 1000.0 * cuentas[codon & 0x3F] / total;
+        }
+
+        /**
+         * @param otro Otro uso de codones.
+         * @return La suma de ambos (por ejemplo, para un conjunto de referencia).
+         */
+        public UsoCodones sumar(UsoCodones otro) {
+            long[] suma = cuentas.clone();
+            for (int codon = 0; codon < suma.length; codon++) {
+                suma[codon] += otro.cuentas[codon];
+            }
+            return new UsoCodones(suma);
+        }
+    }
+
+    /**
+     * Resumen de composicion de un transcrito.
+     *
+     * @param composicion Conteo de bases de toda la secuencia.
+     * @param perfil Contenido GC por ventanas.
+     * @param uso Codones del marco, desde el inicio hasta la primera parada incluida.
+     * @param cai Indice de adaptacion de codones del marco, o NaN sin codones informativos.
+     */
+    public record Perfil(Composicion composicion, PerfilGC perfil, UsoCodones uso, double cai) {
+
+        /**
+         * @return Un resumen legible para la interfaz o la consola.
+         */
+        public String describir() {
+            StringBuilder texto = new StringBuilder()
+                    .append(String.format("GC %.1f %%", 100 * composicion.contenidoGC()));
+            if (perfil.ventanas() > 0) {
+                texto.append(String.format(" (ventanas de %d: %.0f-%.0f %%)",
+                        perfil.ventana(), 100 * perfil.minimo(), 100 * perfil.maximo()));
+            }
+            texto.append(". ").append(uso.total()).append(" codones");
+            if (!Double.isNaN(cai)) {
+                texto.append(String.format(", CAI %.3f", cai));
+            }
+            return texto.append('.').toString();
+        }
+    }
+
+    /**
+     * Analiza un transcrito completo: composicion, perfil GC y uso de codones del marco.
+     *
+     * @param secuencia La secuencia.
+     * @param inicio La posicion de la primera base del primer codon.
+     * @param traductor El traductor con el diccionario compilado (define las paradas).
+     * @param adaptacion Los pesos de referencia para el CAI.
+     * @param ventana Bases por ventana del perfil GC (el paso es la mitad de la ventana).
+     * @return El resumen.
+     */
+    public static Perfil perfil(SecuenciaNucleotidos secuencia, int inicio, TraductorCodones traductor,
+                                AdaptacionCodones adaptacion, int ventana) {
+        UsoCodones uso = usoCodones(secuencia, inicio, traductor);
+        return new Perfil(composicion(secuencia), perfilGC(secuencia, ventana, Math.max(1, ventana / 2)),
+                uso, adaptacion.indice(uso));
+    }
+
+    /**
+     * @param secuencia La secuencia.
+     * @return El conteo de bases de toda la secuencia.
+     */
+    public static Composicion composicion(SecuenciaNucleotidos secuencia) {
+        return composicion(secuencia, 0, secuencia.longitud());
+    }
+
+    /**
+     * @param secuencia La secuencia.
+     * @param desde Primera base (incluida).
+     * @param hasta Ultima base (excluida).
+     * @return El conteo de bases del rango.
+     */
+    public static Composicion composicion(SecuenciaNucleotidos secuencia, int desde, int hasta) {
+        validarRango(secuencia, desde, hasta);
+        long[] cuentas;
+        if (secuencia instanceof SecuenciaEmpaquetada empaquetada) {
+            cuentas = ForkJoinPool.commonPool().invoke(new TareaConteo(empaquetada, desde, hasta));
+        } else {
+            cuentas = new long[4];
+            for (int i = desde; i < hasta; i++) {
+                cuentas[secuencia.base(i)]++;
+            }
+        }
+        return new Composicion(cuentas[SecuenciaEmpaquetada.A], cuentas[SecuenciaEmpaquetada.C],
+                cuentas[SecuenciaEmpaquetada.G], cuentas[SecuenciaEmpaquetada.U]);
+    }
+
+    /**
+     * @param secuencia La secuencia.
+     * @param desde Primera base (incluida).
+     * @param hasta Ultima base (excluida).
+     * @return Las bases G o C del rango.
+     */
+    public static int contarGC(SecuenciaNucleotidos secuencia, int desde, int hasta) {
+        validarRango(secuencia, desde, hasta);
+        int gc = 0;
+        if (secuencia instanceof SecuenciaEmpaquetada empaquetada) {
+            for (int i = desde; i < hasta; i += BASES_POR_BLOQUE) {
+                gc += Long.bitCount(gc(empaquetada.bloque(i)) & primeras(hasta - i));
+            }
+            return gc;
+        }
+        for (int i = desde; i < hasta; i++) {
+            int base = secuencia.base(i);
+            if (base == SecuenciaEmpaquetada.C || base == SecuenciaEmpaquetada.G) {
+                gc++;
+            }
+        }
+        return gc;
+    }
+
+    /**
+     * Calcula el contenido GC de todas las ventanas completas de la secuencia.
+     *
+     * @param secuencia La secuencia.
+     * @param ventana Bases por ventana.
+     * @param paso Bases entre el inicio de una ventana y la siguiente.
+     * @return El perfil (sin ventanas si la secuencia es mas corta que una ventana).
+     */
+    public static PerfilGC perfilGC(SecuenciaNucleotidos secuencia, int ventana, int paso) {
+        if (ventana <= 0 || paso <= 0) {
+            throw new IllegalArgumentException("La ventana y el paso deben ser positivos: " + ventana + ", " + paso);
+        }
+        int longitud = secuencia.longitud();
+        int ventanas = longitud < ventana ? 0 : (longitud - ventana) / paso + 1;
+        float[] fracciones = new float[ventanas];
+        if (ventanas == 0) {
+            return new PerfilGC(ventana, paso, fracciones);
+        }
+        if (secuencia instanceof SecuenciaEmpaquetada empaquetada) {
+            // acumulado[k] = G+C de las bases [0, 32k)
+            int bloques = (longitud + BASES_POR_BLOQUE - 1) / BASES_POR_BLOQUE;
+            int[] acumulado = new int[bloques + 1];
+            ForkJoinPool.commonPool().invoke(new TareaBloques(empaquetada, acumulado, 0, bloques));
+            for (int k = 0; k < bloques; k++) {
+                acumulado[k + 1] += acumulado[k];
+            }
+            ForkJoinPool.commonPool().invoke(new TareaVentanas(empaquetada, acumulado, ventana, paso, fracciones, 0, ventanas));
+            return new PerfilGC(ventana, paso, fracciones);
+        }
+        int gc = contarGC(secuencia, 0, ventana);
+        int contadas = ventana;
+        for (int i = 0; i < ventanas; i++) {
+            int inicio = i * paso;
+            // Se desliza la cuenta: entran las bases nuevas y salen las anteriores a la ventana.
+            if (paso < ventana) {
+                for (; contadas < inicio + ventana; contadas++) {
+                    gc += esGC(secuencia.base(contadas)) - esGC(secuencia.base(contadas - ventana));
+                }
+            } else if (i > 0) {
+                gc = contarGC(secuencia, inicio, inicio + ventana);
+            }
+            fracciones[i] = (float) gc / ventana;
+        }
+        return new PerfilGC(ventana, paso, fracciones);
+    }
+
+    /**
+     * Cuenta los codones del marco desde {@code inicio} hasta el primer codon de
+     * terminacion (incluido) o el final de la secuencia.
+     *
+     * @param secuencia La secuencia.
+     * @param inicio La posicion de la primera base del primer codon.
+     * @param traductor El traductor con el diccionario compilado.
+     * @return El uso de codones del marco.
+     */
+    public static UsoCodones usoCodones(SecuenciaNucleotidos secuencia, int inicio, TraductorCodones traductor) {
+        long[] cuentas = new long[64];
+        int longitud = secuencia.longitud();
+        if (secuencia instanceof SecuenciaEmpaquetada empaquetada) {
+            // Un bloque trae 10 codones completos (30 de sus 32 bases).
+            for (int puntero = inicio; puntero + 3 <= longitud; puntero += 30) {
+                long bloque = empaquetada.bloque(puntero);
+                int codones = Math.min(10, (longitud - puntero) / 3);
+                for (int k = 0; k < codones; k++) {
+                    int codon = (int) (bloque >>> (58 - 6 * k)) & 0x3F;
+                    cuentas[codon]++;
+                    if (traductor.terminaTraduccion(codon)) {
+                        return new UsoCodones(cuentas);
+                    }
+                }
+            }
+            return new UsoCodones(cuentas);
+        }
+        for (int puntero = inicio; puntero + 3 <= longitud; puntero += 3) {
+            int codon = secuencia.codon(puntero);
+            cuentas[codon]++;
+            if (traductor.terminaTraduccion(codon)) {
+                break;
+            }
+        }
+        return new UsoCodones(cuentas);
+    }
+
+    /**
+     * @return Un bit encendido (en la posicion baja de cada par) por cada base G o C del bloque.
+     */
+    private static long gc(long bloque) {
+        return ((bloque >>> 1) ^ bloque) & BITS_BAJOS;
+    }
+
+    /**
+     * @return La mascara de las primeras {@code bases} del bloque (todas si son 32 o mas).
+     */
+    private static long primeras(int bases) {
+        return bases >= BASES_POR_BLOQUE ? -1L : ~(-1L >>> (2 * bases));
+    }
+
+    private static int gcHasta(SecuenciaEmpaquetada secuencia, int[] acumulado, int posicion) {
+        int bloque = posicion / BASES_POR_BLOQUE;
+        int resto = posicion % BASES_POR_BLOQUE;
+        if (resto == 0) {
+            return acumulado[bloque];
+        }
+        return acumulado[bloque] + Long.bitCount(gc(secuencia.bloque(bloque * BASES_POR_BLOQUE)) & primeras(resto));
+    }
+
+    private static int esGC(int base) {
+        return base == SecuenciaEmpaquetada.C || base == SecuenciaEmpaquetada.G ? 1 : 0;
+    }
+
+    private static void validarRango(SecuenciaNucleotidos secuencia, int desde, int hasta) {
+        if (desde < 0 || hasta > secuencia.longitud() || desde > hasta) {
+            throw new IndexOutOfBoundsException("Rango [" + desde + ", " + hasta + ") fuera de la secuencia de longitud "
+                    + secuencia.longitud());
+        }
+    }
+
+    /**
+     * Cuenta A, C, G y U de un rango, 32 bases por iteracion.
+     */
+    private static final class TareaConteo extends RecursiveTask<long[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final SecuenciaEmpaquetada secuencia;
+        private final int desde;
+        private final int hasta;
+
+        TareaConteo(SecuenciaEmpaquetada secuencia, int desde, int hasta) {
+            this.secuencia = secuencia;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (hasta - desde > UMBRAL_BLOQUES * BASES_POR_BLOQUE) {
+                // El corte cae en un multiplo de 32 desde el inicio del rango.
+                int medio = desde + ((hasta - desde) / BASES_POR_BLOQUE / 2) * BASES_POR_BLOQUE;
+                TareaConteo derecha = new TareaConteo(secuencia, medio, hasta);
+                derecha.fork();
+                long[] cuentas = new TareaConteo(secuencia, desde, medio).compute();
+                long[] otras = derecha.join();
+                for (int base = 0; base < 4; base++) {
+                    cuentas[base] += otras[base];
+                }
+                return cuentas;
+            }
+            long c = 0;
+            long g = 0;
+            long u = 0;
+            for (int i = desde; i < hasta; i += BASES_POR_BLOQUE) {
+                long bloque = secuencia.bloque(i);
+                long altos = (bloque >>> 1) & BITS_BAJOS;
+                long bajos = bloque & BITS_BAJOS;
+                // Las bases fuera del rango quedan en cero (A) y no afectan a C, G ni U.
+                long mascara = primeras(hasta - i) & BITS_BAJOS;
+                c += Long.bitCount(~altos & bajos & mascara);
+                g += Long.bitCount(altos & ~bajos & mascara);
+                u += Long.bitCount(altos & bajos & mascara);
+            }
+            return new long[]{hasta - desde - c - g - u, c, g, u};
+        }
+    }
+
+    /**
+     * Escribe las G+C de cada bloque {@code k} en {@code acumulado[k + 1]}; cada tarea
+     * escribe posiciones distintas.
+     */
+    private static final class TareaBloques extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final SecuenciaEmpaquetada secuencia;
+        private final int[] acumulado;
+        private final int desde;
+        private final int hasta;
+
+        TareaBloques(SecuenciaEmpaquetada secuencia, int[] acumulado, int desde, int hasta) {
+            this.secuencia = secuencia;
+            this.acumulado = acumulado;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > UMBRAL_BLOQUES) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new TareaBloques(secuencia, acumulado, desde, medio),
+                        new TareaBloques(secuencia, acumulado, medio, hasta));
+                return;
+            }
+            // bloque() ya deja en cero las posiciones despues del final de la secuencia.
+            for (int k = desde; k < hasta; k++) {
+                acumulado[k + 1] = Long.bitCount(gc(secuencia.bloque(k * BASES_POR_BLOQUE)));
+            }
+        }
+    }
+
+    /**
+     * Calcula las fracciones de un rango de ventanas a partir de la suma acumulada.
+     */
+    private static final class TareaVentanas extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final SecuenciaEmpaquetada secuencia;
+        private final int[] acumulado;
+        private final int ventana;
+        private final int paso;
+        private final float[] fracciones;
+        private final int desde;
+        private final int hasta;
+
+        TareaVentanas(SecuenciaEmpaquetada secuencia, int[] acumulado, int ventana, int paso,
+                      float[] fracciones, int desde, int hasta) {
+            this.secuencia = secuencia;
+            this.acumulado = acumulado;
+            this.ventana = ventana;
+            this.paso = paso;
+            this.fracciones = fracciones;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > UMBRAL_BLOQUES) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new TareaVentanas(secuencia, acumulado, ventana, paso, fracciones, desde, medio),
+                        new TareaVentanas(secuencia, acumulado, ventana, paso, fracciones, medio, hasta));
+                return;
+            }
+            for (int i = desde; i < hasta; i++) {
+                int inicio = i * paso;
+                int gc = gcHasta(secuencia, acumulado, inicio + ventana) - gcHasta(secuencia, acumulado, inicio);
+                fracciones[i] = (float) gc / ventana;
+            }
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package org.lsz.uvm.main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ *
+ * Busca marcos abiertos de lectura (ORF) AUG...STOP en los seis marcos de una
+ * secuencia: los tres de la hebra directa y los tres del complemento inverso.
+ *
+ * Cada marco se divide en bloques de codones que se recorren en paralelo en un
+ * {@link ForkJoinPool}. Cada bloque produce un resumen (primer AUG antes de la
+ * primera parada, ORF completos internos y AUG abierto tras la ultima parada);
+ * al unir dos resumenes se completa el ORF que cruza el limite entre bloques,
+ * por lo que el resultado es identico al de un recorrido secuencial.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class BuscadorORF {
+
+    /** Numero de codones a partir del cual un bloque se divide en dos tareas. */
+    private static final int UMBRAL_CODONES = 1 << 15;
+
+    private final TraductorCodones traductor;
+    private final int minimoAminoacidos;
+
+    /**
+     * @param traductor El traductor con el diccionario compilado.
+     * @param minimoAminoacidos Longitud minima del ORF en aminoacidos (sin contar el STOP).
+     */
+    public BuscadorORF(TraductorCodones traductor, int minimoAminoacidos) {
+        this.traductor = traductor;
+        this.minimoAminoacidos = Math.max(1, minimoAminoacidos);
+    }
+
+    /**
+     *
+     * Marco abierto de lectura encontrado. Las coordenadas siempre se expresan
+     * sobre la hebra directa, de modo que {@code inicio < fin} en ambas hebras.
+     *
+     * @param directa true si el ORF esta en la hebra directa, false si esta en el complemento inverso.
+     * @param marco Marco de lectura (0, 1 o 2) dentro de su hebra.
+     * @param inicio Primera base del ORF en la hebra directa (incluida).
+     * @param fin Base siguiente al final del codon STOP en la hebra directa (excluida).
+     */
+    public record ORF(boolean directa, int marco, int inicio, int fin) {
+
+        /**
+         * @return El numero de aminoacidos que codifica, sin contar el STOP.
+         */
+        public int aminoacidos() {
+            return (fin - inicio) / 3 - 1;
+        }
+    }
+
+    /**
+     * Busca los ORF en los seis marcos usando el pool comun.
+     *
+     * @param secuencia La secuencia de ARNm (hebra directa).
+     * @return Los ORF de la hebra directa y luego los del complemento inverso, por marco y posicion.
+     */
+    public List<ORF> buscar(SecuenciaEmpaquetada secuencia) {
+        return buscar(secuencia, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Busca los ORF en los seis marcos.
+     *
+     * @param secuencia La secuencia de ARNm (hebra directa).
+     * @param pool El pool donde se ejecutan las tareas.
+     * @return Los ORF de la hebra directa y luego los del complemento inverso, por marco y posicion.
+     */
+    public List<ORF> buscar(SecuenciaEmpaquetada secuencia, ForkJoinPool pool) {
+        SecuenciaEmpaquetada inversa = secuencia.complementoInverso();
+        List<TareaMarco> tareas = new ArrayList<>(6);
+        for (int marco = 0; marco < 3; marco++) {
+            tareas.add(tareaMarco(secuencia, marco));
+        }
+        for (int marco = 0; marco < 3; marco++) {
+            tareas.add(tareaMarco(inversa, marco));
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                ForkJoinTask.invokeAll(tareas);
+                return null;
+            }
+        });
+
+        int longitud = secuencia.longitud();
+        List<ORF> orfs = new ArrayList<>();
+        for (int i = 0; i < tareas.size(); i++) {
+            boolean directa = i < 3;
+            int marco = i % 3;
+            Resumen resumen = tareas.get(i).join();
+            if (resumen.tieneParada && resumen.primerAug >= 0) {
+                agregar(orfs, directa, marco, longitud, resumen.primerAug, resumen.primeraParada);
+            }
+            for (int j = 0; j < resumen.numeroOrfs; j++) {
+                agregar(orfs, directa, marco, longitud, resumen.orfs[2 * j], resumen.orfs[2 * j + 1]);
+            }
+        }
+        return orfs;
+    }
+
+    /**
+     * Traduce un ORF encontrado, tomando la hebra que corresponda.
+     *
+     * @param secuencia La secuencia de ARNm (hebra directa) donde se busco el ORF.
+     * @param orf El ORF a traducir.
+     * @return El peptido como codigos de {@link Aminoacido}.
+     */
+    public byte[] traducir(SecuenciaEmpaquetada secuencia, ORF orf) {
+        SecuenciaEmpaquetada region = secuencia.subsecuencia(orf.inicio(), orf.fin());
+        return traductor.traducir(orf.directa() ? region : region.complementoInverso(), 0);
+    }
+
+    private void agregar(List<ORF> orfs, boolean directa, int marco, int longitud, int aug, int parada) {
+        if ((parada - aug) / 3 < minimoAminoacidos) {
+            return;
+        }
+        int fin = parada + 3;
+        if (directa) {
+            orfs.add(new ORF(true, marco, aug, fin));
+        } else {
+            orfs.add(new ORF(false, marco, longitud - fin, longitud - aug));
+        }
+    }
+
+    private TareaMarco tareaMarco(SecuenciaEmpaquetada secuencia, int marco) {
+        int codones = Math.max(0, (secuencia.longitud() - marco) / 3);
+        return new TareaMarco(secuencia, marco, 0, codones);
+    }
+
+    /**
+     *
+     * Resumen de un bloque de codones de un marco. Las posiciones son bases de la hebra recorrida.
+     */
+    private static final class Resumen {
+
+        boolean tieneParada;
+        /** Primer AUG antes de la primera parada (o del bloque completo si no hay parada). */
+        int primerAug = -1;
+        int primeraParada = -1;
+        int ultimaParada = -1;
+        /** Primer AUG despues de la ultima parada; solo es valido si hay parada. */
+        int augFinal = -1;
+        /** Pares (AUG, parada) de los ORF completos dentro del bloque. */
+        int[] orfs = new int[0];
+        int numeroOrfs;
+
+        void agregarOrf(int aug, int parada) {
+            if (2 * numeroOrfs == orfs.length) {
+                orfs = Arrays.copyOf(orfs, Math.max(8, orfs.length * 2));
+            }
+            orfs[2 * numeroOrfs] = aug;
+            orfs[2 * numeroOrfs + 1] = parada;
+            numeroOrfs++;
+        }
+
+        void agregarOrfs(Resumen otro) {
+            for (int j = 0; j < otro.numeroOrfs; j++) {
+                agregarOrf(otro.orfs[2 * j], otro.orfs[2 * j + 1]);
+            }
+        }
+
+        /**
+         * Une el resumen de un bloque con el del bloque que le sigue.
+         */
+        static Resumen unir(Resumen izquierdo, Resumen derecho) {
+            if (!izquierdo.tieneParada && !derecho.tieneParada) {
+                Resumen union = new Resumen();
+                union.primerAug = izquierdo.primerAug >= 0 ? izquierdo.primerAug : derecho.primerAug;
+                return union;
+            }
+            if (!izquierdo.tieneParada) {
+                if (izquierdo.primerAug >= 0) {
+                    derecho.primerAug = izquierdo.primerAug;
+                }
+                return derecho;
+            }
+            if (!derecho.tieneParada) {
+                if (izquierdo.augFinal < 0) {
+                    izquierdo.augFinal = derecho.primerAug;
+                }
+                return izquierdo;
+            }
+            // Ambos tienen parada: el ORF abierto del izquierdo termina en la primera parada del derecho.
+            int aug = izquierdo.augFinal >= 0 ? izquierdo.augFinal : derecho.primerAug;
+            if (aug >= 0) {
+                izquierdo.agregarOrf(aug, derecho.primeraParada);
+            }
+            izquierdo.agregarOrfs(derecho);
+            izquierdo.ultimaParada = derecho.ultimaParada;
+            izquierdo.augFinal = derecho.augFinal;
+            return izquierdo;
+        }
+    }
+
+    /**
+     *
+     * Recorre los codones [desde, hasta) de un marco, dividiendo el trabajo si el rango es grande.
+     */
+    private final class TareaMarco extends RecursiveTask<Resumen> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final SecuenciaEmpaquetada secuencia;
+        private final int marco;
+        private final int desde;
+        private final int hasta;
+
+        TareaMarco(SecuenciaEmpaquetada secuencia, int marco, int desde, int hasta) {
+            this.secuencia = secuencia;
+            this.marco = marco;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected Resumen compute() {
+            if (hasta - desde <= UMBRAL_CODONES) {
+                return recorrer();
+            }
+            int mitad = (desde + hasta) >>> 1;
+            TareaMarco izquierda = new TareaMarco(secuencia, marco, desde, mitad);
+            TareaMarco derecha = new TareaMarco(secuencia, marco, mitad, hasta);
+            izquierda.fork();
+            Resumen resumenDerecho = derecha.compute();
+            return Resumen.unir(izquierda.join(), resumenDerecho);
+        }
+
+        private Resumen recorrer() {
+            Resumen resumen = new Resumen();
+            int augAbierto = -1;
+            for (int codon = desde; codon < hasta; codon++) {
+                int posicion = marco + 3 * codon;
+                int codigo = secuencia.codon(posicion);
+                if (traductor.terminaTraduccion(codigo)) {
+                    if (!resumen.tieneParada) {
+                        resumen.tieneParada = true;
+                        resumen.primeraParada = posicion;
+                        resumen.primerAug = augAbierto;
+                    } else if (augAbierto >= 0 && (posicion - augAbierto) / 3 >= minimoAminoacidos) {
+                        // Los ORF internos cortos se descartan aqui para no acumularlos.
+                        resumen.agregarOrf(augAbierto, posicion);
+                    }
+                    resumen.ultimaParada = posicion;
+                    augAbierto = -1;
+                } else if (codigo == TraductorCodones.CODON_INICIO && augAbierto < 0) {
+                    augAbierto = posicion;
+                }
+            }
+            if (resumen.tieneParada) {
+                resumen.augFinal = augAbierto;
+            } else {
+                resumen.primerAug = augAbierto;
+            }
+            return resumen;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package org.lsz.uvm.main;
+
+import org.lsz.uvm.util.CacheLRU;
+import org.lsz.uvm.util.RegistroMetricas;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *
+ * Cache en memoria de secuencias cargadas y de sus traducciones, acotada por
+ * peso (bytes aproximados) con desalojo LRU.
+ *
+ * Las secuencias se identifican por la ruta del archivo junto con su fecha de
+ * modificacion y su tamano: si el archivo cambia, la siguiente carga lo detecta,
+ * invalida la entrada anterior y vuelve a leerlo. Las traducciones se identifican
+ * por la huella del contenido ({@link SecuenciaEmpaquetada#huella()}), de modo que
+ * dos archivos con las mismas bases comparten el resultado.
+ *
+ * El tamano de la cache compartida se configura con la propiedad del sistema
+ * {@code traduccion.cache.bytes} (256 MB por defecto). Sus aciertos, fallos y
+ * desalojos se publican como medidores {@code cache.*} en {@link RegistroMetricas}.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class CacheSecuencias {
+
+    private static final long PESO_POR_DEFECTO = 256L << 20;
+    private static final CacheSecuencias COMPARTIDA =
+            new CacheSecuencias(Long.getLong("traduccion.cache.bytes", PESO_POR_DEFECTO));
+
+    static {
+        RegistroMetricas metricas = RegistroMetricas.global();
+        metricas.medidor("cache.aciertos", COMPARTIDA::getAciertos);
+        metricas.medidor("cache.fallos", COMPARTIDA::getFallos);
+        metricas.medidor("cache.desalojos", COMPARTIDA::getDesalojos);
+        metricas.medidor("cache.bytes", COMPARTIDA::getPesoActual);
+    }
+
+    /** Identifica una version concreta de un archivo. */
+    private record ClaveArchivo(Path ruta, long modificado, long tamano) {
+    }
+
+    /**
+     * Identifica una traduccion por contenido, marco de inicio y tabla de codones
+     * ({@link TraductorCodones} se compara por su tabla, no por identidad).
+     */
+    private record ClaveTraduccion(long huella, int longitud, int inicio, TraductorCodones traductor) {
+    }
+
+    private final CacheLRU<Object, Object> cache;
+    private final Map<Path, ClaveArchivo> vigentes = new ConcurrentHashMap<>();
+
+    /**
+     * @param pesoMaximo Bytes aproximados que pueden ocupar las entradas.
+     */
+    public CacheSecuencias(long pesoMaximo) {
+        this.cache = new CacheLRU<>(pesoMaximo, CacheSecuencias::peso);
+    }
+
+    /**
+     * @return La cache que comparten la interfaz grafica, {@link ARN} y el procesamiento por lotes.
+     */
+    public static CacheSecuencias compartida() {
+        return COMPARTIDA;
+    }
+
+    /**
+     * Devuelve la secuencia del archivo, leyendola solo si no esta en la cache o si
+     * el archivo cambio desde la ultima lectura.
+     *
+     * @param archivo La ruta del archivo de secuencia.
+     * @return La secuencia empaquetada.
+     * @throws IOException si el archivo no se puede leer
+     */
+    public SecuenciaEmpaquetada cargar(Path archivo) throws IOException {
+        return cargar(archivo, null);
+    }
+
+    /**
+     * Igual que {@link #cargar(Path)}, informando el avance si el archivo se lee.
+     *
+     * @param archivo La ruta del archivo de secuencia.
+     * @param progreso Recibe el avance y puede cancelar la lectura, o null.
+     * @return La secuencia empaquetada.
+     * @throws IOException si el archivo no se puede leer
+     * @throws java.util.concurrent.CancellationException si {@code progreso} pidio cancelar
+     */
+    public SecuenciaEmpaquetada cargar(Path archivo, CargadorSecuenciaMapeada.Progreso progreso) throws IOException {
+        Path ruta = archivo.toAbsolutePath().normalize();
+        BasicFileAttributes atributos = Files.readAttributes(ruta, BasicFileAttributes.class);
+        ClaveArchivo clave = new ClaveArchivo(ruta, atributos.lastModifiedTime().toMillis(), atributos.size());
+        ClaveArchivo anterior = vigentes.put(ruta, clave);
+        if (anterior != null && !anterior.equals(clave)) {
+            // El archivo cambio: la version anterior ya no sirve.
+            cache.invalidar(anterior);
+        }
+        try {
+            return (SecuenciaEmpaquetada) cache.obtener(clave, k -> {
+                try {
+                    return CargadorSecuenciaMapeada.cargar(ruta, progreso);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            vigentes.remove(ruta, clave);
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Traduce desde la base 0, reutilizando el resultado si la misma secuencia (por
+     * contenido) ya se tradujo con el mismo traductor.
+     *
+     * @param secuencia La secuencia de ARNm.
+     * @param traductor El traductor con el diccionario compilado.
+     * @return El peptido como codigos de {@link Aminoacido}; es una copia que quien llama puede modificar.
+     */
+    public byte[] traducir(SecuenciaEmpaquetada secuencia, TraductorCodones traductor) {
+        return traducir(secuencia, 0, traductor);
+    }
+
+    /**
+     * Igual que {@link #traducir(SecuenciaEmpaquetada, TraductorCodones)} desde una posicion dada.
+     *
+     * @param secuencia La secuencia de ARNm.
+     * @param inicio La posicion de la primera base del primer codon.
+     * @param traductor El traductor con el diccionario compilado.
+     * @return El peptido como codigos de {@link Aminoacido}; es una copia que quien llama puede modificar.
+     */
+    public byte[] traducir(SecuenciaEmpaquetada secuencia, int inicio, TraductorCodones traductor) {
+        ClaveTraduccion clave = new ClaveTraduccion(secuencia.huella(), secuencia.longitud(), inicio, traductor);
+        byte[] peptido = (byte[]) cache.obtener(clave, k -> traductor.traducir(secuencia, inicio));
+        return peptido.clone();
+    }
+
+    /**
+     * Olvida la secuencia de un archivo (sus traducciones se desalojan solas por LRU).
+     *
+     * @param archivo La ruta del archivo.
+     */
+    public void invalidar(Path archivo) {
+        ClaveArchivo clave = vigentes.remove(archivo.toAbsolutePath().normalize());
+        if (clave != null) {
+            cache.invalidar(clave);
+        }
+    }
+
+    /**
+     * Vacia la cache.
+     */
+    public void limpiar() {
+        vigentes.clear();
+        cache.limpiar();
+    }
+
+    public long getAciertos() {
+        return cache.getAciertos();
+    }
+
+    public long getFallos() {
+        return cache.getFallos();
+    }
+
+    public long getDesalojos() {
+        return cache.getDesalojos();
+    }
+
+    public long getPesoActual() {
+        return cache.getPesoActual();
+    }
+
+    @Override
+    public String toString() {
+        return cache.toString();
+    }
+
+    /**
+     * Peso aproximado en bytes: 2 bits por base o 1 byte por aminoacido, mas el encabezado.
+     */
+    private static long peso(Object valor) {
+        if (valor instanceof SecuenciaEmpaquetada) {
+            return ((SecuenciaEmpaquetada) valor).longitud() / 4L + 64;
+        }
+        if (valor instanceof byte[]) {
+            return ((byte[]) valor).length + 16L;
+        }
+        return 64;
+    }
+}
@@ -0,0 +1,199 @@
+package org.lsz.uvm.main;
+
+import org.lsz.uvm.util.RegistroMetricas;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CancellationException;
+
+/**
+ *
+ * Cargador de secuencias que mapea el archivo en memoria con
+ * {@link FileChannel#map} y lo recorre una sola vez byte por byte.
+ * En la misma pasada descarta numeros, espacios y signos, pasa a mayusculas,
+ * convierte T en U y empaqueta a 2 bits.
+ *
+ * Una letra que no es base (N u otro codigo IUPAC) no cabe en 2 bits; descartarla
+ * correria todas las bases siguientes y cambiaria el marco de lectura, asi que la
+ * carga falla con una {@link IOException} que indica el residuo y su linea.
+ *
+ * Acepta el formato numerado de "proteina/COL5A1.txt" (estilo GenBank) y
+ * FASTA: las lineas que inician con '>' se consideran encabezados y se omiten.
+ * El archivo se mapea por ventanas, por lo que el heap solo crece con la
+ * secuencia empaquetada (1/4 de byte por base).
+ *
+ * Quien carga puede pasar un {@link Progreso} para mostrar el avance y cancelar
+ * la lectura de archivos grandes; se consulta cada {@link #BLOQUE_PROGRESO} bytes.
+ *
+ * Cada carga se registra en {@link RegistroMetricas} ({@code carga.texto}, con
+ * los bytes analizados) y como evento {@link EventosJFR.CargaSecuencia}.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class CargadorSecuenciaMapeada {
+
+    /** Tamano de cada ventana mapeada del archivo. */
+    private static final long TAMANO_VENTANA = 64L * 1024 * 1024;
+
+    /** Bytes procesados entre dos avisos de progreso. */
+    public static final int BLOQUE_PROGRESO = 1 << 20;
+
+    /** Codigo de {@link #TABLA_BASES} para '>', que inicia un encabezado FASTA al principio de linea. */
+    static final byte ENCABEZADO = -2;
+
+    /** Codigo de {@link #TABLA_BASES} para una letra que no es base (N y los demas codigos IUPAC). */
+    static final byte NO_BASE = -3;
+
+    private static final RegistroMetricas.Temporizador CARGAS =
+            RegistroMetricas.global().temporizador("carga.texto", "bytes");
+    private static final RegistroMetricas.Contador BASES = RegistroMetricas.global().contador("carga.texto.bases");
+
+    /** Tabla de byte a codigo de base; se calcula una sola vez (tambien la usa {@link TraduccionEnFlujo}). */
+    static final byte[] TABLA_BASES = new byte[256];
+
+    static {
+        for (int i = 0; i < TABLA_BASES.length; i++) {
+            TABLA_BASES[i] = (byte) SecuenciaEmpaquetada.codificar(i);
+            if (TABLA_BASES[i] < 0 && (i | 0x20) >= 'a' && (i | 0x20) <= 'z') {
+                TABLA_BASES[i] = NO_BASE;
+            }
+        }
+        TABLA_BASES['>'] = ENCABEZADO;
+    }
+
+    /**
+     * Recibe el avance de una carga y decide si debe continuar.
+     */
+    @FunctionalInterface
+    public interface Progreso {
+        /**
+         * @param procesados Bytes del archivo ya procesados.
+         * @param total Bytes totales a procesar.
+         * @return false para cancelar la carga.
+         */
+        boolean continuar(long procesados, long total);
+    }
+
+    private CargadorSecuenciaMapeada() {
+    }
+
+    /**
+     * Carga y limpia el archivo completo.
+     *
+     * @param archivo La ruta del archivo de secuencia.
+     * @return La secuencia de ARNm empaquetada.
+     * @throws IOException si el archivo no se puede abrir o leer, o tiene residuos que no son bases
+     */
+    public static SecuenciaEmpaquetada cargar(Path archivo) throws IOException {
+        return cargar(archivo, null);
+    }
+
+    /**
+     * Carga y limpia el archivo completo informando el avance.
+     *
+     * @param archivo La ruta del archivo de secuencia.
+     * @param progreso Recibe el avance y puede cancelar la carga, o null.
+     * @return La secuencia de ARNm empaquetada.
+     * @throws IOException si el archivo no se puede abrir o leer, o tiene residuos que no son bases
+     * @throws CancellationException si {@code progreso} pidio cancelar
+     */
+    public static SecuenciaEmpaquetada cargar(Path archivo, Progreso progreso) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            return cargarMidiendo(archivo.toString(), canal, 0, canal.size(), progreso);
+        }
+    }
+
+    /**
+     * Carga y limpia una region del archivo ya abierto.
+     *
+     * @param canal El canal del archivo.
+     * @param desde Posicion del primer byte a procesar.
+     * @param hasta Posicion siguiente al ultimo byte a procesar.
+     * @return La secuencia de ARNm empaquetada con las bases de la region.
+     * @throws IOException si la region no se puede mapear o tiene residuos que no son bases
+     */
+    public static SecuenciaEmpaquetada cargar(FileChannel canal, long desde, long hasta) throws IOException {
+        return cargarMidiendo(null, canal, desde, hasta, null);
+    }
+
+    private static SecuenciaEmpaquetada cargarMidiendo(String archivo, FileChannel canal, long desde, long hasta,
+                                                       Progreso progreso) throws IOException {
+        EventosJFR.CargaSecuencia evento = new EventosJFR.CargaSecuencia();
+        evento.begin();
+        long inicio = System.nanoTime();
+        SecuenciaEmpaquetada secuencia = cargarRegion(archivo, canal, desde, hasta, progreso);
+        CARGAS.registrar(System.nanoTime() - inicio, hasta - desde);
+        BASES.sumar(secuencia.longitud());
+        if (evento.shouldCommit()) {
+            evento.archivo = archivo;
+            evento.origen = "texto";
+            evento.bytes = hasta - desde;
+            evento.bases = secuencia.longitud();
+            evento.commit();
+        }
+        return secuencia;
+    }
+
+    private static SecuenciaEmpaquetada cargarRegion(String archivo, FileChannel canal, long desde, long hasta,
+                                                     Progreso progreso) throws IOException {
+        long total = hasta - desde;
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("La region de " + total + " bytes excede el maximo de bases de una secuencia");
+        }
+        // El numero de bytes es una cota superior del numero de bases.
+        SecuenciaEmpaquetada.Constructor constructor = new SecuenciaEmpaquetada.Constructor((int) total);
+        boolean inicioLinea = true;
+        boolean enEncabezado = false;
+        long linea = 1;
+
+        for (long posicion = desde; posicion < hasta; posicion += TAMANO_VENTANA) {
+            long tamano = Math.min(TAMANO_VENTANA, hasta - posicion);
+            MappedByteBuffer ventana = canal.map(FileChannel.MapMode.READ_ONLY, posicion, tamano);
+            int limite = ventana.limit();
+            for (int bloque = 0; bloque < limite; bloque += BLOQUE_PROGRESO) {
+                int finBloque = Math.min(limite, bloque + BLOQUE_PROGRESO);
+                for (int i = bloque; i < finBloque; i++) {
+                    byte caracter = ventana.get(i);
+                    if (caracter == '\n') {
+                        inicioLinea = true;
+                        enEncabezado = false;
+                        linea++;
+                        continue;
+                    }
+                    if (enEncabezado) {
+                        continue;
+                    }
+                    byte base = TABLA_BASES[caracter & 0xFF];
+                    if (base >= 0) {
+                        constructor.agregar(base);
+                    } else if (base == ENCABEZADO && inicioLinea) {
+                        enEncabezado = true;
+                    } else if (base == NO_BASE) {
+                        throw residuoInvalido(caracter, linea, archivo);
+                    }
+                    inicioLinea = false;
+                }
+                if (progreso != null && !progreso.continuar(posicion - desde + finBloque, total)) {
+                    throw new CancellationException("Carga cancelada");
+                }
+            }
+        }
+        return constructor.construir();
+    }
+
+    /**
+     * @param caracter El residuo que no es base.
+     * @param linea La linea del residuo (desde 1, contada desde el inicio de la region).
+     * @param archivo El archivo, o null si se carga una region de un canal.
+     * @return La excepcion que describe el residuo.
+     */
+    static IOException residuoInvalido(byte caracter, long linea, String archivo) {
+        RegistroMetricas.global().contador("carga.residuosInvalidos").incrementar();
+        return new IOException("Residuo '" + (char) (caracter & 0xFF) + "' en la linea " + linea
+                + (archivo != null ? " de " + archivo : "") + ": solo se admiten las bases A, C, G y T/U");
+    }
+}
@@ -0,0 +1,325 @@
+package org.lsz.uvm.main;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Compara un alelo de referencia (normal) con un alelo mutado.
+ *
+ * 1. La primera divergencia se encuentra comparando 32 bases a la vez
+ *    (XOR de palabras empaquetadas y conteo de ceros a la izquierda).
+ * 2. Alrededor de la divergencia se hace un alineamiento en banda para
+ *    distinguir sustituciones de inserciones y deleciones.
+ * 3. Ambos alelos se traducen y se reporta la consecuencia en la proteina:
+ *    cambio del marco de lectura, codon de parada prematuro y truncamiento.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class ComparadorSecuencias {
+
+    /** Bases de cada alelo que se alinean a partir de la divergencia. */
+    private static final int VENTANA_ALINEAMIENTO = 256;
+    /** Maximo desplazamiento entre diagonales que cubre la banda. */
+    private static final int ANCHO_BANDA = 32;
+    /** Coincidencias seguidas que marcan el fin de la variante. */
+    private static final int COINCIDENCIAS_RESINCRONIZACION = 12;
+
+    private static final byte COINCIDENCIA = 0;
+    private static final byte SUSTITUCION = 1;
+    private static final byte DELECION = 2;
+    private static final byte INSERCION = 3;
+
+    private final TraductorCodones traductor;
+
+    /**
+     * @param traductor El traductor con el diccionario compilado.
+     */
+    public ComparadorSecuencias(TraductorCodones traductor) {
+        this.traductor = traductor;
+    }
+
+    /** Clasificacion de la variante a nivel de nucleotidos. */
+    public enum TipoVariante {
+        /** Los alelos son identicos. */
+        NINGUNA,
+        /** Sustitucion de una sola base (SNV). */
+        SNV,
+        /** Varias bases sustituidas sin cambiar la longitud. */
+        SUSTITUCION_MULTIPLE,
+        /** Bases agregadas en el alelo mutado. */
+        INSERCION,
+        /** Bases ausentes en el alelo mutado. */
+        DELECION,
+        /** Combinacion de sustituciones e indels. */
+        INDEL_COMPLEJO
+    }
+
+    /** Como termina la traduccion del alelo mutado. */
+    public enum Terminacion {
+        /** En un codon de terminacion (o desconocido). */
+        CODON_PARADA,
+        /** Se acabaron las bases antes de encontrar un codon de terminacion. */
+        FIN_SECUENCIA
+    }
+
+    /**
+     *
+     * Resultado de la comparacion.
+     *
+     * @param divergencia Primera base distinta, o -1 si los alelos son identicos.
+     * @param tipo Clasificacion de la variante.
+     * @param basesReferencia Bases de la referencia afectadas por la variante.
+     * @param basesMutante Bases del mutante que las reemplazan.
+     * @param cambioMarco true si la variante desplaza el marco de lectura.
+     * @param aminoacidosReferencia Longitud de la proteina normal.
+     * @param aminoacidosMutante Longitud de la proteina mutada.
+     * @param primerAminoacidoDistinto Primer residuo distinto (desde 0), o -1 si las proteinas son iguales.
+     * @param paradaPrematura Residuo donde el mutante se detiene antes que la referencia por un codon
+     *                        de parada, o -1 si no hay parada prematura.
+     * @param truncamiento Residuos perdidos respecto a la proteina normal (0 si no es mas corta).
+     * @param terminacionMutante Como termina la traduccion del mutante.
+     */
+    public record Resultado(int divergencia, TipoVariante tipo, int basesReferencia, int basesMutante,
+                            boolean cambioMarco, int aminoacidosReferencia, int aminoacidosMutante,
+                            int primerAminoacidoDistinto, int paradaPrematura, int truncamiento,
+                            Terminacion terminacionMutante) {
+
+        /**
+         * @return Un resumen legible para la interfaz o la consola.
+         */
+        public String describir() {
+            if (tipo == TipoVariante.NINGUNA) {
+                return "Los alelos son idénticos (" + aminoacidosReferencia + " aminoácidos).";
+            }
+            StringBuilder texto = new StringBuilder();
+            texto.append("Divergencia en la base ").append(divergencia + 1)
+                    .append(" (codón ").append(divergencia / 3 + 1).append("): ").append(tipo);
+            if (tipo != TipoVariante.SNV) {
+                texto.append(" ").append(basesReferencia).append(">").append(basesMutante).append(" bases");
+            }
+            if (cambioMarco) {
+                texto.append(", cambio del marco de lectura");
+            }
+            texto.append(". Proteína normal: ").append(aminoacidosReferencia)
+                    .append(" aa, mutada: ").append(aminoacidosMutante).append(" aa");
+            if (paradaPrematura >= 0) {
+                texto.append(". Codón de parada prematuro en el residuo ").append(paradaPrematura + 1);
+            } else if (terminacionMutante == Terminacion.FIN_SECUENCIA && truncamiento > 0) {
+                texto.append(". La secuencia mutada termina sin codón de parada");
+            }
+            if (truncamiento > 0) {
+                texto.append(" (truncamiento de ").append(truncamiento).append(" aa)");
+            }
+            return texto.append('.').toString();
+        }
+    }
+
+    /**
+     * Encuentra la primera posicion en la que dos secuencias difieren,
+     * comparando bloques de 32 bases.
+     *
+     * @param a Primera secuencia.
+     * @param b Segunda secuencia.
+     * @return La primera base distinta, la longitud de la mas corta si una es
+     * prefijo de la otra, o -1 si son identicas.
+     */
+    public static int primeraDivergencia(SecuenciaEmpaquetada a, SecuenciaEmpaquetada b) {
+        int comun = Math.min(a.longitud(), b.longitud());
+        for (int i = 0; i < comun; i += 32) {
+            long diferencia = a.bloque(i) ^ b.bloque(i);
+            if (diferencia != 0) {
+                int posicion = i + Long.numberOfLeadingZeros(diferencia) / 2;
+                if (posicion < comun) {
+                    return posicion;
+                }
+                break;
+            }
+        }
+        return a.longitud() == b.longitud() ? -1 : comun;
+    }
+
+    /**
+     * Compara los alelos y clasifica la consecuencia en la proteina.
+     *
+     * @param referencia El alelo normal.
+     * @param mutante El alelo mutado.
+     * @return El resultado de la comparacion.
+     */
+    public Resultado comparar(SecuenciaEmpaquetada referencia, SecuenciaEmpaquetada mutante) {
+        byte[] proteinaReferencia = traductor.traducir(referencia, 0);
+        byte[] proteinaMutante = traductor.traducir(mutante, 0);
+        int siguienteCodon = proteinaMutante.length * 3;
+        Terminacion terminacion = siguienteCodon + 3 <= mutante.longitud()
+                ? Terminacion.CODON_PARADA : Terminacion.FIN_SECUENCIA;
+
+        int primerDistinto = -1;
+        int comunes = Math.min(proteinaReferencia.length, proteinaMutante.length);
+        for (int i = 0; i < comunes; i++) {
+            if (proteinaReferencia[i] != proteinaMutante[i]) {
+                primerDistinto = i;
+                break;
+            }
+        }
+        if (primerDistinto < 0 && proteinaReferencia.length != proteinaMutante.length) {
+            primerDistinto = comunes;
+        }
+        int truncamiento = Math.max(0, proteinaReferencia.length - proteinaMutante.length);
+        int paradaPrematura = truncamiento > 0 && terminacion == Terminacion.CODON_PARADA ? proteinaMutante.length : -1;
+
+        int divergencia = primeraDivergencia(referencia, mutante);
+        if (divergencia < 0) {
+            return new Resultado(-1, TipoVariante.NINGUNA, 0, 0, false, proteinaReferencia.length,
+                    proteinaMutante.length, primerDistinto, paradaPrematura, truncamiento, terminacion);
+        }
+        int[] variante = alinearEnBanda(referencia, mutante, divergencia);
+        int basesReferencia = variante[0];
+        int basesMutante = variante[1];
+        TipoVariante tipo;
+        if (basesReferencia == basesMutante) {
+            tipo = basesReferencia == 1 ? TipoVariante.SNV : TipoVariante.SUSTITUCION_MULTIPLE;
+        } else if (basesReferencia == 0) {
+            tipo = TipoVariante.INSERCION;
+        } else if (basesMutante == 0) {
+            tipo = TipoVariante.DELECION;
+        } else {
+            tipo = TipoVariante.INDEL_COMPLEJO;
+        }
+        boolean cambioMarco = (basesMutante - basesReferencia) % 3 != 0;
+        return new Resultado(divergencia, tipo, basesReferencia, basesMutante, cambioMarco,
+                proteinaReferencia.length, proteinaMutante.length, primerDistinto, paradaPrematura,
+                truncamiento, terminacion);
+    }
+
+    /**
+     * Alinea una ventana de ambos alelos a partir de la divergencia con una banda
+     * de diagonales alrededor de la principal (distancia de edicion, extremos finales libres).
+     *
+     * @return {bases de referencia, bases del mutante} que abarca la variante hasta
+     * que las secuencias se resincronizan.
+     */
+    private static int[] alinearEnBanda(SecuenciaEmpaquetada referencia, SecuenciaEmpaquetada mutante, int inicio) {
+        int n = Math.min(VENTANA_ALINEAMIENTO, referencia.longitud() - inicio);
+        int m = Math.min(VENTANA_ALINEAMIENTO, mutante.longitud() - inicio);
+        if (n <= 0 || m <= 0) {
+            return new int[]{n, m};
+        }
+        int ancho = 2 * ANCHO_BANDA + 1;
+        int infinito = Integer.MAX_VALUE / 2;
+        int[] anterior = new int[ancho];
+        int[] actual = new int[ancho];
+        byte[] rastro = new byte[(n + 1) * ancho];
+
+        // Celda (i, j) se guarda en la columna j - i + ANCHO_BANDA de la fila i.
+        Arrays.fill(anterior, infinito);
+        for (int d = 0; d <= Math.min(ANCHO_BANDA, m); d++) {
+            anterior[ANCHO_BANDA + d] = d;
+            rastro[ANCHO_BANDA + d] = INSERCION;
+        }
+        int mejorCosto = anterior[ANCHO_BANDA + Math.min(ANCHO_BANDA, m)];
+        int mejorI = 0;
+        int mejorJ = Math.min(ANCHO_BANDA, m);
+        if (m > ANCHO_BANDA) {
+            mejorCosto = infinito;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            Arrays.fill(actual, infinito);
+            int baseReferencia = referencia.base(inicio + i - 1);
+            for (int d = -ANCHO_BANDA; d <= ANCHO_BANDA; d++) {
+                int j = i + d;
+                if (j < 0 || j > m) {
+                    continue;
+                }
+                int columna = d + ANCHO_BANDA;
+                int costo;
+                byte operacion;
+                if (j == 0) {
+                    costo = i;
+                    operacion = DELECION;
+                } else {
+                    // Diagonal: misma columna en la fila anterior.
+                    int diagonal = anterior[columna];
+                    boolean iguales = baseReferencia == mutante.base(inicio + j - 1);
+                    costo = diagonal == infinito ? infinito : diagonal + (iguales ? 0 : 1);
+                    operacion = iguales ? COINCIDENCIA : SUSTITUCION;
+                    // Delecion: (i - 1, j) esta en la columna d + 1 de la fila anterior.
+                    if (columna + 1 < ancho && anterior[columna + 1] != infinito && anterior[columna + 1] + 1 < costo) {
+                        costo = anterior[columna + 1] + 1;
+                        operacion = DELECION;
+                    }
+                    // Insercion: (i, j - 1) esta en la columna d - 1 de la fila actual.
+                    if (columna - 1 >= 0 && actual[columna - 1] != infinito && actual[columna - 1] + 1 < costo) {
+                        costo = actual[columna - 1] + 1;
+                        operacion = INSERCION;
+                    }
+                }
+                actual[columna] = costo;
+                rastro[i * ancho + columna] = operacion;
+                // Extremos finales libres: se puede terminar en la ultima fila o en la ultima columna;
+                // ante un empate se prefiere el alineamiento que cubre mas bases.
+                if ((i == n || j == m) && (costo < mejorCosto || (costo == mejorCosto && i + j > mejorI + mejorJ))) {
+                    mejorCosto = costo;
+                    mejorI = i;
+                    mejorJ = j;
+                }
+            }
+            int[] intercambio = anterior;
+            anterior = actual;
+            actual = intercambio;
+        }
+        if (mejorCosto >= infinito) {
+            return new int[]{n, m};
+        }
+
+        // Reconstruye las operaciones desde el final y luego las recorre desde el inicio.
+        byte[] operaciones = new byte[mejorI + mejorJ];
+        int cantidad = 0;
+        int i = mejorI;
+        int j = mejorJ;
+        while (i > 0 || j > 0) {
+            byte operacion = rastro[i * ancho + (j - i + ANCHO_BANDA)];
+            operaciones[cantidad++] = operacion;
+            if (operacion == COINCIDENCIA || operacion == SUSTITUCION) {
+                i--;
+                j--;
+            } else if (operacion == DELECION) {
+                i--;
+            } else {
+                j--;
+            }
+        }
+
+        int basesReferencia = 0;
+        int basesMutante = 0;
+        int consumidasReferencia = 0;
+        int consumidasMutante = 0;
+        int coincidenciasSeguidas = 0;
+        for (int k = cantidad - 1; k >= 0; k--) {
+            byte operacion = operaciones[k];
+            if (operacion == COINCIDENCIA) {
+                consumidasReferencia++;
+                consumidasMutante++;
+                if (++coincidenciasSeguidas >= COINCIDENCIAS_RESINCRONIZACION) {
+                    break;
+                }
+                continue;
+            }
+            coincidenciasSeguidas = 0;
+            if (operacion != INSERCION) {
+                consumidasReferencia++;
+            }
+            if (operacion != DELECION) {
+                consumidasMutante++;
+            }
+            basesReferencia = consumidasReferencia;
+            basesMutante = consumidasMutante;
+        }
+        if (coincidenciasSeguidas < COINCIDENCIAS_RESINCRONIZACION) {
+            // No se resincronizaron dentro de la ventana: la variante llega al final de lo alineado.
+            basesReferencia = mejorI == n ? n : basesReferencia;
+            basesMutante = mejorJ == m ? m : basesMutante;
+        }
+        return new int[]{basesReferencia, basesMutante};
+    }
+}
@@ -0,0 +1,529 @@
+package org.lsz.uvm.main;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ *
+ * Escaner de la repeticion Gly-X-Y de los colagenos (COL5A1 y sus variantes cEDS).
+ * La triple helice necesita una glicina cada tres residuos; los defectos clinicos
+ * son sustituciones de esas glicinas, interrupciones de la repeticion y cadenas
+ * truncadas antes de terminar el dominio.
+ *
+ * El peptido se lee una sola vez, en su forma compacta ({@code byte[]} de codigos
+ * de {@link Aminoacido}). Cada residuo lo revisa solo el seguimiento de su fase
+ * ({@code posicion % 3}): una fase abre un dominio en una glicina, tolera un
+ * triplete sin glicina si la repeticion continua despues (es una sustitucion de
+ * glicina) y cierra el dominio con dos tripletes seguidos sin glicina o al final
+ * de la cadena. Los dominios de al menos {@link #TRIPLETES_MINIMOS} tripletes se
+ * reportan; entre dos dominios cercanos hay una interrupcion, con cambio de fase
+ * si la glicina del segundo no cae en el marco del primero.
+ *
+ * Para la mutagenesis de saturacion ({@link #escanearSaturacion}) cada sustitucion se
+ * evalua sobre la misma cadena silvestre: un cambio de sentido se lee como un solo
+ * residuo distinto durante el recorrido y un codon sin sentido como una longitud
+ * menor, sin copiar la cadena por variante.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class EscanerColageno {
+
+    /** Tripletes Gly-X-Y a partir de los cuales una region se considera dominio de triple helice. */
+    public static final int TRIPLETES_MINIMOS = 10;
+
+    /** Residuos entre dos dominios hasta los cuales se reportan como una interrupcion del mismo dominio. */
+    public static final int INTERRUPCION_MAXIMA = 30;
+
+    /** Peptidos a partir de los cuales un lote se divide en dos tareas. */
+    private static final int UMBRAL_PEPTIDOS = 32;
+
+    private static final byte GLICINA = Aminoacido.GLICINA.codigo();
+
+    /**
+     * Region con la repeticion Gly-X-Y.
+     *
+     * @param inicio Primer residuo (una glicina, desde 0).
+     * @param fin Residuo despues del ultimo triplete (excluido).
+     * @param tripletes Tripletes del dominio, incluidos los que perdieron su glicina.
+     * @param abiertoAlFinal true si la cadena termina sin que la repeticion se interrumpa.
+     */
+    public record Dominio(int inicio, int fin, int tripletes, boolean abiertoAlFinal) {
+
+        public int longitud() {
+            return fin - inicio;
+        }
+    }
+
+    /**
+     * Posicion de glicina de un dominio ocupada por otro residuo.
+     *
+     * @param posicion El residuo (desde 0).
+     * @param residuo El aminoacido que ocupa la posicion.
+     */
+    public record Sustitucion(int posicion, Aminoacido residuo) {
+
+        /**
+         * @return La notacion de proteina, por ejemplo {@code p.G1012S}.
+         */
+        public String notacion() {
+            return "p.G" + (posicion + 1) + residuo.getLetra();
+        }
+    }
+
+    /**
+     * Residuos sin la repeticion entre dos dominios cercanos.
+     *
+     * @param inicio Primer residuo fuera de la repeticion.
+     * @param fin Primer residuo del dominio siguiente.
+     * @param cambioFase true si el dominio siguiente no continua el marco de tripletes del anterior.
+     */
+    public record Interrupcion(int inicio, int fin, boolean cambioFase) {
+    }
+
+    /**
+     * Cadena que termina antes del final del dominio principal de la referencia.
+     *
+     * @param inicioDominio Primer residuo del dominio de la referencia.
+     * @param finDominio Fin del dominio de la referencia.
+     * @param longitud Residuos de la cadena truncada.
+     */
+    public record Truncamiento(int inicioDominio, int finDominio, int longitud) {
+
+        /**
+         * @return Residuos del dominio de la referencia que faltan en la cadena.
+         */
+        public int residuosPerdidos() {
+            return finDominio - Math.max(inicioDominio, longitud);
+        }
+    }
+
+    /**
+     * Sustitucion de la mutagenesis de saturacion que altera la repeticion.
+     *
+     * @param efecto La sustitucion y su consecuencia en la proteina.
+     * @param informe El informe de la cadena mutada frente a la referencia.
+     */
+    public record Disrupcion(MutagenesisSaturacion.Efecto efecto, Informe informe) {
+    }
+
+    /**
+     * Resultado de la mutagenesis de saturacion sobre la repeticion Gly-X-Y.
+     *
+     * @param variantes Sustituciones evaluadas (cambio de sentido y sin sentido).
+     * @param disrupciones Las que alteran la repeticion, en el orden de la tabla.
+     */
+    public record Saturacion(int variantes, List<Disrupcion> disrupciones) {
+
+        /**
+         * Escribe las disrupciones separadas por tabuladores, una por linea.
+         *
+         * @param escritor Donde se escribe la tabla.
+         * @throws IOException si no se puede escribir
+         */
+        public void escribir(Writer escritor) throws IOException {
+            escritor.write("variante\tconsecuencia\tinforme\n");
+            for (Disrupcion disrupcion : disrupciones) {
+                escritor.write(disrupcion.efecto().notacion() + '\t' + disrupcion.efecto().consecuencia()
+                        + '\t' + disrupcion.informe().describir() + '\n');
+            }
+        }
+
+        /**
+         * @return Un resumen legible para la consola.
+         */
+        public String describir() {
+            return disrupciones.size() + " de " + variantes + " variantes alteran la repeticion Gly-X-Y.";
+        }
+    }
+
+    /**
+     * Resultado del escaneo de una cadena.
+     *
+     * @param longitud Residuos de la cadena.
+     * @param dominios Dominios de triple helice en orden.
+     * @param sustituciones Glicinas sustituidas dentro de los dominios.
+     * @param interrupciones Interrupciones entre dominios cercanos.
+     * @param sustitucionesNuevas Las sustituciones que no estan en la referencia (todas si no hay referencia).
+     * @param truncamiento El truncamiento frente a la referencia, o null si no hay.
+     */
+    public record Informe(int longitud, List<Dominio> dominios, List<Sustitucion> sustituciones,
+                          List<Interrupcion> interrupciones, List<Sustitucion> sustitucionesNuevas,
+                          Truncamiento truncamiento) {
+
+        /**
+         * @return El dominio mas largo, o null si la cadena no tiene ninguno.
+         */
+        public Dominio principal() {
+            return dominios.stream().max(Comparator.comparingInt(Dominio::longitud)).orElse(null);
+        }
+
+        /**
+         * @return true si la cadena tiene alguna alteracion frente a la referencia.
+         */
+        public boolean alterada() {
+            return truncamiento != null || !sustitucionesNuevas.isEmpty();
+        }
+
+        /**
+         * @return Un resumen legible para la interfaz o la consola.
+         */
+        public String describir() {
+            StringBuilder texto = new StringBuilder();
+            Dominio principal = principal();
+            if (principal == null) {
+                texto.append("Sin dominios Gly-X-Y (").append(longitud).append(" aa).");
+            } else {
+                texto.append(dominios.size()).append(dominios.size() == 1 ? " dominio" : " dominios")
+                        .append(" Gly-X-Y; principal: residuos ").append(principal.inicio() + 1).append('-')
+                        .append(principal.fin()).append(" (").append(principal.tripletes()).append(" tripletes")
+                        .append(principal.abiertoAlFinal() ? ", llega al final de la cadena" : "").append(").");
+            }
+            if (!sustituciones.isEmpty()) {
+                texto.append(" Glicinas sustituidas: ").append(sustituciones.size());
+                if (sustitucionesNuevas.size() != sustituciones.size()) {
+                    texto.append(" (").append(sustitucionesNuevas.size()).append(" nuevas)");
+                }
+                texto.append(notaciones(sustitucionesNuevas)).append('.');
+            }
+            long cambiosFase = interrupciones.stream().filter(Interrupcion::cambioFase).count();
+            if (!interrupciones.isEmpty()) {
+                texto.append(" Interrupciones: ").append(interrupciones.size());
+                if (cambiosFase > 0) {
+                    texto.append(" (").append(cambiosFase).append(" con cambio de fase)");
+                }
+                texto.append('.');
+            }
+            if (truncamiento != null) {
+                texto.append(" Truncada en el residuo ").append(truncamiento.longitud());
+                texto.append(truncamiento.longitud() <= truncamiento.inicioDominio()
+                        ? ", antes del dominio de triple hélice" : ", dentro del dominio de triple hélice");
+                texto.append(" (faltan ").append(truncamiento.residuosPerdidos()).append(" residuos del dominio).");
+            }
+            return texto.toString();
+        }
+
+        private static String notaciones(List<Sustitucion> sustituciones) {
+            if (sustituciones.isEmpty()) {
+                return "";
+            }
+            StringBuilder texto = new StringBuilder(": ");
+            int mostradas = Math.min(5, sustituciones.size());
+            for (int i = 0; i < mostradas; i++) {
+                texto.append(i == 0 ? "" : ", ").append(sustituciones.get(i).notacion());
+            }
+            return sustituciones.size() > mostradas ? texto.append(", ...").toString() : texto.toString();
+        }
+    }
+
+    private EscanerColageno() {
+    }
+
+    /**
+     * @param peptido Los codigos de {@link Aminoacido} de la cadena.
+     * @return Los dominios, sustituciones e interrupciones de la cadena.
+     */
+    public static Informe escanear(byte[] peptido) {
+        return escanear(peptido, null);
+    }
+
+    /**
+     * @param peptido Los codigos de {@link Aminoacido} de la cadena.
+     * @param referencia El informe de la cadena silvestre, o null.
+     * @return El informe, con las sustituciones nuevas y el truncamiento frente a la referencia.
+     */
+    public static Informe escanear(byte[] peptido, Informe referencia) {
+        return escanear(peptido, peptido.length, -1, (byte) 0, referencia);
+    }
+
+    /**
+     * Escanea los primeros {@code longitud} residuos de la cadena como si el residuo
+     * {@code cambio} fuera {@code residuoCambio}; la cadena no se modifica.
+     */
+    private static Informe escanear(byte[] peptido, int longitud, int cambio, byte residuoCambio, Informe referencia) {
+        Fase[] fases = {new Fase(), new Fase(), new Fase()};
+        List<Dominio> dominios = new ArrayList<>();
+        List<Sustitucion> sustituciones = new ArrayList<>();
+        for (int i = 0; i < longitud; i++) {
+            fases[i % 3].leer(i == cambio ? residuoCambio : peptido[i], i, longitud, dominios, sustituciones);
+        }
+        for (Fase fase : fases) {
+            fase.cerrar(longitud, true, dominios, sustituciones);
+        }
+
+        // Cada fase cierra sus dominios en orden, pero las tres fases se mezclan.
+        dominios.sort(Comparator.comparingInt(Dominio::inicio));
+        sustituciones.sort(Comparator.comparingInt(Sustitucion::posicion));
+        quitarTraslapes(dominios, sustituciones);
+
+        List<Interrupcion> interrupciones = new ArrayList<>();
+        for (int d = 1; d < dominios.size(); d++) {
+            Dominio anterior = dominios.get(d - 1);
+            Dominio siguiente = dominios.get(d);
+            if (siguiente.inicio() - anterior.fin() <= INTERRUPCION_MAXIMA) {
+                interrupciones.add(new Interrupcion(anterior.fin(), siguiente.inicio(),
+                        (siguiente.inicio() - anterior.inicio()) % 3 != 0));
+            }
+        }
+
+        List<Sustitucion> nuevas = sustituciones;
+        Truncamiento truncamiento = null;
+        if (referencia != null) {
+            nuevas = new ArrayList<>();
+            for (Sustitucion sustitucion : sustituciones) {
+                if (!referencia.sustituciones().contains(sustitucion)) {
+                    nuevas.add(sustitucion);
+                }
+            }
+            Dominio principal = referencia.principal();
+            if (principal != null && longitud < principal.fin()) {
+                truncamiento = new Truncamiento(principal.inicio(), principal.fin(), longitud);
+            }
+        }
+        return new Informe(longitud, List.copyOf(dominios), List.copyOf(sustituciones),
+                List.copyOf(interrupciones), List.copyOf(nuevas), truncamiento);
+    }
+
+    /**
+     * Escanea un lote de cadenas (por ejemplo, las variantes de un gen) en el pool comun.
+     *
+     * @param peptidos Las cadenas a escanear.
+     * @param referencia El informe de la cadena silvestre, o null.
+     * @return Un informe por cadena, en el mismo orden.
+     */
+    public static List<Informe> escanearLote(List<byte[]> peptidos, Informe referencia) {
+        return escanearLote(peptidos, referencia, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param peptidos Las cadenas a escanear.
+     * @param referencia El informe de la cadena silvestre, o null.
+     * @param pool El pool donde se ejecutan las tareas.
+     * @return Un informe por cadena, en el mismo orden.
+     */
+    public static List<Informe> escanearLote(List<byte[]> peptidos, Informe referencia, ForkJoinPool pool) {
+        Informe[] informes = new Informe[peptidos.size()];
+        pool.invoke(new TareaLote(peptidos, referencia, informes, 0, informes.length));
+        return Arrays.asList(informes);
+    }
+
+    /**
+     * Evalua cada sustitucion de cambio de sentido y sin sentido de una mutagenesis de
+     * saturacion frente a la referencia, en el pool comun.
+     *
+     * @param tabla La tabla de efectos de la secuencia silvestre.
+     * @param silvestre El peptido silvestre (codigos de {@link Aminoacido}).
+     * @param referencia El informe de {@code silvestre}.
+     * @return Las sustituciones que alteran la repeticion.
+     */
+    public static Saturacion escanearSaturacion(MutagenesisSaturacion.TablaEfectos tabla, byte[] silvestre,
+                                                Informe referencia) {
+        return escanearSaturacion(tabla, silvestre, referencia, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param tabla La tabla de efectos de la secuencia silvestre.
+     * @param silvestre El peptido silvestre (codigos de {@link Aminoacido}).
+     * @param referencia El informe de {@code silvestre}.
+     * @param pool El pool donde se ejecutan las tareas.
+     * @return Las sustituciones que alteran la repeticion.
+     */
+    public static Saturacion escanearSaturacion(MutagenesisSaturacion.TablaEfectos tabla, byte[] silvestre,
+                                                Informe referencia, ForkJoinPool pool) {
+        Disrupcion[] resultados = new Disrupcion[tabla.tamano()];
+        pool.invoke(new TareaSaturacion(tabla, silvestre, referencia, resultados, 0, resultados.length));
+        List<Disrupcion> disrupciones = new ArrayList<>();
+        for (Disrupcion disrupcion : resultados) {
+            if (disrupcion != null) {
+                disrupciones.add(disrupcion);
+            }
+        }
+        return new Saturacion(tabla.contar(MutagenesisSaturacion.Consecuencia.CAMBIO_SENTIDO)
+                + tabla.contar(MutagenesisSaturacion.Consecuencia.SIN_SENTIDO), List.copyOf(disrupciones));
+    }
+
+    /**
+     * Una cadena muy rica en glicina puede repetir en otra fase parte de un dominio;
+     * se conserva el dominio mas largo y se descarta lo que se traslapa con el. Un
+     * traslape menor a un triplete es un cambio de fase (el dominio siguiente empieza
+     * dentro del ultimo triplete del anterior): ese triplete se recorta.
+     */
+    private static void quitarTraslapes(List<Dominio> dominios, List<Sustitucion> sustituciones) {
+        List<Dominio> descartados = new ArrayList<>();
+        for (int d = 0; d < dominios.size(); d++) {
+            for (int e = d + 1; e < dominios.size() && dominios.get(e).inicio() < dominios.get(d).fin() - 2; e++) {
+                Dominio corto = dominios.get(d).longitud() < dominios.get(e).longitud() ? dominios.get(d) : dominios.get(e);
+                descartados.add(corto);
+            }
+        }
+        dominios.removeAll(descartados);
+        for (Dominio descartado : descartados) {
+            sustituciones.removeIf(sustitucion -> sustitucion.posicion() >= descartado.inicio()
+                    && sustitucion.posicion() < descartado.fin()
+                    && (sustitucion.posicion() - descartado.inicio()) % 3 == 0);
+        }
+        for (int d = 1; d < dominios.size(); d++) {
+            Dominio anterior = dominios.get(d - 1);
+            int siguiente = dominios.get(d).inicio();
+            if (siguiente < anterior.fin()) {
+                dominios.set(d - 1, new Dominio(anterior.inicio(), siguiente, anterior.tripletes(), anterior.abiertoAlFinal()));
+            }
+        }
+    }
+
+    /**
+     * Seguimiento de los residuos de una fase: solo ve las posiciones {@code i, i + 3, ...}.
+     */
+    private static final class Fase {
+        private boolean activa;
+        private int inicio;
+        private int ultimaGlicina;
+        private int fallo = -1;
+        private byte residuoFallo;
+        private int[] sustituciones = new int[8];
+        private byte[] residuos = new byte[8];
+        private int pendientes;
+
+        void leer(byte residuo, int posicion, int longitud, List<Dominio> dominios, List<Sustitucion> salida) {
+            if (residuo == GLICINA) {
+                if (!activa) {
+                    activa = true;
+                    inicio = posicion;
+                    pendientes = 0;
+                } else if (fallo >= 0) {
+                    // La repeticion continua despues de un triplete sin glicina.
+                    if (pendientes == sustituciones.length) {
+                        sustituciones = Arrays.copyOf(sustituciones, pendientes * 2);
+                        residuos = Arrays.copyOf(residuos, pendientes * 2);
+                    }
+                    residuos[pendientes] = residuoFallo;
+                    sustituciones[pendientes++] = fallo;
+                }
+                fallo = -1;
+                ultimaGlicina = posicion;
+            } else if (activa) {
+                if (fallo >= 0) {
+                    cerrar(longitud, false, dominios, salida);
+                } else {
+                    fallo = posicion;
+                    residuoFallo = residuo;
+                }
+            }
+        }
+
+        void cerrar(int longitud, boolean finCadena, List<Dominio> dominios, List<Sustitucion> salida) {
+            if (!activa) {
+                return;
+            }
+            activa = false;
+            int tripletes = (ultimaGlicina - inicio) / 3 + 1;
+            if (tripletes >= TRIPLETES_MINIMOS) {
+                int fin = Math.min(ultimaGlicina + 3, longitud);
+                // Abierto si despues de la ultima glicina no hubo un triplete completo sin glicina.
+                boolean abierto = finCadena && longitud - fin < 3;
+                dominios.add(new Dominio(inicio, fin, tripletes, abierto));
+                for (int s = 0; s < pendientes; s++) {
+                    salida.add(new Sustitucion(sustituciones[s], Aminoacido.desdeCodigo(residuos[s])));
+                }
+            }
+            fallo = -1;
+            pendientes = 0;
+        }
+    }
+
+    /**
+     * Escanea un rango del lote; cada tarea escribe posiciones distintas del arreglo.
+     */
+    private static final class TareaLote extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<byte[]> peptidos;
+        private final Informe referencia;
+        private final Informe[] informes;
+        private final int desde;
+        private final int hasta;
+
+        TareaLote(List<byte[]> peptidos, Informe referencia, Informe[] informes, int desde, int hasta) {
+            this.peptidos = peptidos;
+            this.referencia = referencia;
+            this.informes = informes;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > UMBRAL_PEPTIDOS) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new TareaLote(peptidos, referencia, informes, desde, medio),
+                        new TareaLote(peptidos, referencia, informes, medio, hasta));
+                return;
+            }
+            for (int i = desde; i < hasta; i++) {
+                informes[i] = escanear(peptidos.get(i), referencia);
+            }
+        }
+    }
+
+    /**
+     * Evalua un rango de la tabla de efectos; cada tarea escribe posiciones distintas del arreglo.
+     */
+    private static final class TareaSaturacion extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /** Entradas de la tabla a partir de las cuales un rango se divide en dos tareas. */
+        private static final int UMBRAL_EFECTOS = 256;
+
+        private final MutagenesisSaturacion.TablaEfectos tabla;
+        private final byte[] silvestre;
+        private final Informe referencia;
+        private final Disrupcion[] resultados;
+        private final int desde;
+        private final int hasta;
+
+        TareaSaturacion(MutagenesisSaturacion.TablaEfectos tabla, byte[] silvestre, Informe referencia,
+                        Disrupcion[] resultados, int desde, int hasta) {
+            this.tabla = tabla;
+            this.silvestre = silvestre;
+            this.referencia = referencia;
+            this.resultados = resultados;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > UMBRAL_EFECTOS) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new TareaSaturacion(tabla, silvestre, referencia, resultados, desde, medio),
+                        new TareaSaturacion(tabla, silvestre, referencia, resultados, medio, hasta));
+                return;
+            }
+            TraductorCodones traductor = tabla.getTraductor();
+            for (int i = desde; i < hasta; i++) {
+                MutagenesisSaturacion.Efecto efecto = tabla.efecto(i);
+                int residuo = efecto.numeroCodon() - 1;
+                Informe informe;
+                if (efecto.consecuencia() == MutagenesisSaturacion.Consecuencia.CAMBIO_SENTIDO) {
+                    informe = escanear(silvestre, silvestre.length, residuo,
+                            traductor.codigo(efecto.codonAlterno()), referencia);
+                } else if (efecto.consecuencia() == MutagenesisSaturacion.Consecuencia.SIN_SENTIDO) {
+                    informe = escanear(silvestre, residuo, -1, (byte) 0, referencia);
+                } else {
+                    continue;
+                }
+                if (informe.alterada()) {
+                    resultados[i] = new Disrupcion(efecto, informe);
+                }
+            }
+        }
+    }
+}
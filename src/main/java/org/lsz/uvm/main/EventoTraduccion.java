@@ -0,0 +1,29 @@
+package org.lsz.uvm.main;
+
+/**
+ *
+ * Evento producido por {@link MotorTraduccion} en cada paso del ribosoma.
+ *
+ * @param tipo El tipo de evento.
+ * @param posicion Base donde inicia el codon leido en este paso.
+ * @param codon Codigo del codon leido (0 a 63), o -1 si no quedaban bases suficientes.
+ * @param aminoacido El aminoacido del codon, o null si no habia codon.
+ * @param aminoacidos Aminoacidos en la cadena despues del evento.
+ * @param puntero Posicion del ribosoma (sitio P) despues del evento.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public record EventoTraduccion(Tipo tipo, int posicion, int codon, Aminoacido aminoacido,
+                               int aminoacidos, int puntero) {
+
+    /** Etapas de la traduccion. */
+    public enum Tipo {
+        /** El ribosoma se ensambla sobre el primer codon. */
+        INICIACION,
+        /** Se une un aminoacido a la cadena y el ribosoma avanza un codon. */
+        ELONGACION,
+        /** Codon de terminacion, codon desconocido o fin de la secuencia. */
+        TERMINACION
+    }
+}
@@ -0,0 +1,73 @@
+package org.lsz.uvm.main;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ *
+ * Eventos propios de Java Flight Recorder. Aparecen en la categoria
+ * "Traduccion Ribosomal" de una grabacion, junto a los del JDK (GC, hilos, E/S),
+ * y solo cuestan algo mientras hay una grabacion activa, por ejemplo con
+ * {@code -XX:StartFlightRecording} o {@code jcmd <pid> JFR.start}.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class EventosJFR {
+
+    private EventosJFR() {
+    }
+
+    /** Lectura de una secuencia desde un archivo de texto o un contenedor. */
+    @Name("org.lsz.uvm.CargaSecuencia")
+    @Label("Carga de secuencia")
+    @Category("Traduccion Ribosomal")
+    @StackTrace(false)
+    public static final class CargaSecuencia extends Event {
+        @Label("Archivo")
+        public String archivo;
+
+        @Label("Origen")
+        @Description("texto o contenedor")
+        public String origen;
+
+        @Label("Bytes leidos")
+        @DataAmount
+        public long bytes;
+
+        @Label("Bases")
+        public long bases;
+    }
+
+    /** Traduccion de una secuencia con la tabla de codones. */
+    @Name("org.lsz.uvm.Traduccion")
+    @Label("Traduccion")
+    @Category("Traduccion Ribosomal")
+    @StackTrace(false)
+    public static final class Traduccion extends Event {
+        @Label("Inicio")
+        public int inicio;
+
+        @Label("Codones")
+        public int codones;
+
+        @Label("Longitud de la secuencia")
+        public int longitud;
+    }
+
+    /** Un pulso de la interfaz grafica (drenar eventos y dibujar). */
+    @Name("org.lsz.uvm.CuadroGUI")
+    @Label("Cuadro de la interfaz")
+    @Category("Traduccion Ribosomal")
+    @StackTrace(false)
+    public static final class CuadroGUI extends Event {
+        @Label("Modo")
+        @Description("traduccion, comparacion o polisoma")
+        public String modo;
+    }
+}
@@ -0,0 +1,127 @@
+package org.lsz.uvm.main;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Indice de codones de terminacion de una secuencia: guarda, para cada uno de
+ * los tres marcos de lectura, las posiciones de todos los codones que detienen
+ * la traduccion, en arreglos {@code int[]} ordenados. Se construye una sola vez
+ * al cargar la secuencia (un recorrido lineal) y despues responde "siguiente
+ * parada en el marco" o "longitud de la proteina desde p" con busqueda binaria.
+ *
+ * Los codones de terminacion son los que {@link TraductorCodones#terminaTraduccion(int)}
+ * considera como tales (UAA, UAG, UGA y los codones ausentes del diccionario), de modo
+ * que las respuestas coinciden con lo que produce la traduccion codon por codon.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class IndiceParadas {
+
+    private final int[][] paradas;
+    private final int longitud;
+
+    private IndiceParadas(int[][] paradas, int longitud) {
+        this.paradas = paradas;
+        this.longitud = longitud;
+    }
+
+    /**
+     * Recorre la secuencia una vez, con un codon rodante de 6 bits.
+     *
+     * @param secuencia La secuencia de ARNm.
+     * @param traductor El traductor que define los codones de terminacion.
+     * @return El indice de la secuencia.
+     */
+    public static IndiceParadas construir(SecuenciaNucleotidos secuencia, TraductorCodones traductor) {
+        int longitud = secuencia.longitud();
+        boolean[] esParada = new boolean[64];
+        for (int codon = 0; codon < 64; codon++) {
+            esParada[codon] = traductor.terminaTraduccion(codon);
+        }
+        int capacidad = Math.max(16, longitud / 48);
+        int[][] paradas = {new int[capacidad], new int[capacidad], new int[capacidad]};
+        int[] cantidades = new int[3];
+
+        int codon = 0;
+        for (int i = 0; i < longitud; i++) {
+            codon = ((codon << 2) | secuencia.base(i)) & 0x3F;
+            if (i >= 2 && esParada[codon]) {
+                int posicion = i - 2;
+                int marco = posicion % 3;
+                if (cantidades[marco] == paradas[marco].length) {
+                    paradas[marco] = Arrays.copyOf(paradas[marco], paradas[marco].length * 2);
+                }
+                paradas[marco][cantidades[marco]++] = posicion;
+            }
+        }
+        for (int m = 0; m < 3; m++) {
+            paradas[m] = Arrays.copyOf(paradas[m], cantidades[m]);
+        }
+        return new IndiceParadas(paradas, longitud);
+    }
+
+    /**
+     * Reconstruye un indice a partir de posiciones ya calculadas (por ejemplo, leidas
+     * de un {@link AlmacenSecuencias}).
+     *
+     * @param paradas Las posiciones ordenadas de cada marco; los arreglos no se copian.
+     * @param longitud El numero de bases de la secuencia.
+     * @return El indice.
+     */
+    static IndiceParadas desdeParadas(int[][] paradas, int longitud) {
+        return new IndiceParadas(paradas, longitud);
+    }
+
+    /**
+     * @return El numero de bases de la secuencia indexada.
+     */
+    public int longitud() {
+        return longitud;
+    }
+
+    /**
+     * @param marco Marco de lectura (0, 1 o 2).
+     * @return Cuantos codones de terminacion hay en ese marco.
+     */
+    public int numeroParadas(int marco) {
+        return paradas[marco].length;
+    }
+
+    /**
+     * @param marco Marco de lectura (0, 1 o 2).
+     * @return Copia de las posiciones de las paradas del marco, en orden creciente.
+     */
+    public int[] paradas(int marco) {
+        return paradas[marco].clone();
+    }
+
+    /**
+     * Busca el primer codon de terminacion en el mismo marco que {@code posicion},
+     * empezando en ella.
+     *
+     * @param posicion La posicion desde donde se traduce.
+     * @return La posicion del codon de terminacion o -1 si no hay ninguno.
+     */
+    public int siguienteParada(int posicion) {
+        if (posicion < 0) {
+            throw new IndexOutOfBoundsException("Posicion negativa: " + posicion);
+        }
+        int[] marco = paradas[posicion % 3];
+        int indice = Arrays.binarySearch(marco, posicion);
+        if (indice < 0) {
+            indice = -indice - 1;
+        }
+        return indice < marco.length ? marco[indice] : -1;
+    }
+
+    /**
+     * @param inicio La posicion de la primera base del primer codon.
+     * @return Los aminoacidos que produce la traduccion desde {@code inicio}, sin el STOP.
+     */
+    public int longitudProteina(int inicio) {
+        int parada = siguienteParada(inicio);
+        return parada >= 0 ? (parada - inicio) / 3 : Math.max(0, (longitud - inicio) / 3);
+    }
+}
@@ -0,0 +1,455 @@
+package org.lsz.uvm.main;
+
+import org.lsz.uvm.util.RegistroMetricas;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *
+ * Indice de acceso aleatorio para archivos FASTA y GenBank con varios registros,
+ * equivalente a un indice ".fai": por cada registro guarda nombre, longitud,
+ * desplazamiento en bytes, bases por linea y bytes por linea. Con esos datos
+ * la posicion en disco de cualquier base se calcula en O(1), de modo que un gen
+ * o un sub-rango se lee sin recorrer el resto del archivo.
+ *
+ * El indice se guarda junto al archivo como "&lt;archivo&gt;.secidx" (columnas
+ * separadas por tabulador). Las cinco primeras columnas siguen el formato de
+ * samtools; se agregan la columna de la primera base dentro de la linea, el tamano
+ * de grupo (necesarios para las lineas numeradas de GenBank, "      421 gctccgcccg
+ * ggcg...") y el fin del registro. La extension es propia para no chocar con un
+ * ".fai" de samtools que ya este junto al archivo; un indice que no se puede leer
+ * se vuelve a construir.
+ * Como en samtools, la longitud y las coordenadas cuentan todos los residuos de
+ * la linea (cualquier letra, incluidas N y las demas ambiguedades IUPAC), asi que
+ * una N no rompe la uniformidad de las lineas ni desplaza las coordenadas. La
+ * secuencia empaquetada solo representa A, C, G y U: leer un rango que contiene
+ * otro residuo falla con una IOException que indica el registro y el rango.
+ * Si las lineas de un registro no son uniformes, el registro se lee completo
+ * desde su desplazamiento y se recorta; esa ruta lenta se avisa una vez por
+ * registro en la salida de error y se cuenta en "indice.lecturasCompletas".
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class IndiceSecuencias {
+
+    /** Extension del archivo de indice que se guarda junto a la secuencia. */
+    public static final String EXTENSION_INDICE = ".secidx";
+
+    private final Path archivo;
+    private final Map<String, Registro> registros;
+    private final Set<String> avisados = ConcurrentHashMap.newKeySet();
+
+    private IndiceSecuencias(Path archivo, Map<String, Registro> registros) {
+        this.archivo = archivo;
+        this.registros = registros;
+    }
+
+    /**
+     *
+     * Entrada del indice para un registro del archivo.
+     *
+     * @param nombre Nombre del registro (primer palabra tras '>' o el nombre de LOCUS).
+     * @param longitud Numero de bases del registro.
+     * @param desplazamiento Byte donde inicia la primera linea de secuencia.
+     * @param basesPorLinea Bases en cada linea completa, o 0 si las lineas no son uniformes.
+     * @param bytesPorLinea Bytes de cada linea completa incluyendo el salto de linea.
+     * @param columnaInicial Columna de la primera base dentro de cada linea.
+     * @param tamanoGrupo Bases por grupo separado por espacios, o 0 si no hay grupos.
+     * @param fin Byte siguiente al final de la ultima linea de secuencia.
+     */
+    public record Registro(String nombre, int longitud, long desplazamiento, int basesPorLinea,
+                           int bytesPorLinea, int columnaInicial, int tamanoGrupo, long fin) {
+
+        /**
+         * @return true si la posicion de cualquier base se puede calcular directamente.
+         */
+        public boolean esUniforme() {
+            return basesPorLinea > 0;
+        }
+
+        /**
+         * Calcula el byte del archivo donde se encuentra una base.
+         *
+         * @param base Posicion de la base dentro del registro.
+         * @return El desplazamiento en bytes de esa base.
+         */
+        long posicionBase(int base) {
+            int linea = base / basesPorLinea;
+            int columna = base % basesPorLinea;
+            int separadores = tamanoGrupo > 0 ? columna / tamanoGrupo : 0;
+            return desplazamiento + (long) linea * bytesPorLinea + columnaInicial + columna + separadores;
+        }
+    }
+
+    /**
+     * Abre el indice de un archivo. Si el indice no existe, es mas antiguo que el
+     * archivo o no se puede leer, se construye con una sola pasada y se guarda junto a el.
+     *
+     * @param archivo La ruta del archivo FASTA o GenBank.
+     * @return El indice del archivo.
+     * @throws IOException si el archivo no se puede leer
+     */
+    public static IndiceSecuencias abrir(Path archivo) throws IOException {
+        Path rutaIndice = rutaIndice(archivo);
+        if (Files.exists(rutaIndice)
+                && Files.getLastModifiedTime(rutaIndice).compareTo(Files.getLastModifiedTime(archivo)) >= 0) {
+            try {
+                return new IndiceSecuencias(archivo, leerIndice(rutaIndice));
+            } catch (IOException | NumberFormatException e) {
+                System.err.println("Advertencia: se reconstruye el indice " + rutaIndice + ": " + e.getMessage());
+            }
+        }
+        IndiceSecuencias indice = construir(archivo);
+        try {
+            indice.guardar(rutaIndice);
+        } catch (IOException e) {
+            // Un directorio de solo lectura no impide usar el indice en memoria.
+            System.err.println("Advertencia: no se pudo guardar el indice " + rutaIndice + ": " + e.getMessage());
+        }
+        return indice;
+    }
+
+    /**
+     * @param archivo La ruta del archivo de secuencias.
+     * @return La ruta del indice asociado.
+     */
+    public static Path rutaIndice(Path archivo) {
+        return archivo.resolveSibling(archivo.getFileName() + EXTENSION_INDICE);
+    }
+
+    /**
+     * @return Los nombres de los registros en el orden en que aparecen en el archivo.
+     */
+    public List<String> nombres() {
+        return Collections.unmodifiableList(new ArrayList<>(registros.keySet()));
+    }
+
+    /**
+     * @param nombre El nombre del registro.
+     * @return La entrada del indice o null si el registro no existe.
+     */
+    public Registro registro(String nombre) {
+        return registros.get(nombre);
+    }
+
+    /**
+     * @return La ruta del archivo indexado.
+     */
+    public Path getArchivo() {
+        return archivo;
+    }
+
+    /**
+     * Lee la secuencia completa de un registro.
+     *
+     * @param nombre El nombre del registro.
+     * @return La secuencia empaquetada.
+     * @throws IOException si el registro no existe o no se puede leer
+     */
+    public SecuenciaEmpaquetada leer(String nombre) throws IOException {
+        Registro registro = requerir(nombre);
+        return leer(nombre, 0, registro.longitud());
+    }
+
+    /**
+     * Lee un sub-rango de un registro posicionandose directamente en el archivo.
+     *
+     * @param nombre El nombre del registro.
+     * @param inicio Primera base (incluida).
+     * @param fin Ultima base (excluida).
+     * @return Las bases del rango empaquetadas.
+     * @throws IOException si el registro no existe, no se puede leer o el rango
+     *         contiene un residuo que no es A, C, G ni T/U
+     */
+    public SecuenciaEmpaquetada leer(String nombre, int inicio, int fin) throws IOException {
+        Registro registro = requerir(nombre);
+        if (inicio < 0 || fin > registro.longitud() || inicio > fin) {
+            throw new IndexOutOfBoundsException("Rango [" + inicio + ", " + fin + ") fuera del registro "
+                    + nombre + " de longitud " + registro.longitud());
+        }
+        if (inicio == fin) {
+            return SecuenciaEmpaquetada.VACIA;
+        }
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            if (registro.esUniforme()) {
+                long desde = registro.posicionBase(inicio);
+                long hasta = registro.posicionBase(fin - 1) + 1;
+                return CargadorSecuenciaMapeada.cargar(canal, desde, hasta);
+            }
+            if (avisados.add(nombre)) {
+                System.err.println("Advertencia: las lineas de " + nombre + " en " + archivo
+                        + " no son uniformes; cada lectura carga el registro completo");
+            }
+            RegistroMetricas.global().contador("indice.lecturasCompletas").incrementar();
+            SecuenciaEmpaquetada completa = CargadorSecuenciaMapeada.cargar(canal, registro.desplazamiento(), registro.fin());
+            return completa.subsecuencia(inicio, fin);
+        } catch (IOException e) {
+            throw new IOException("No se pudo leer " + nombre + " [" + inicio + ", " + fin + ") de "
+                    + archivo + ": " + e.getMessage(), e);
+        }
+    }
+
+    private Registro requerir(String nombre) throws IOException {
+        Registro registro = registros.get(nombre);
+        if (registro == null) {
+            throw new IOException("El registro '" + nombre + "' no existe en " + archivo);
+        }
+        return registro;
+    }
+
+    /**
+     * Guarda el indice en formato de texto separado por tabuladores.
+     *
+     * @param rutaIndice La ruta del archivo de indice.
+     * @throws IOException si no se puede escribir
+     */
+    public void guardar(Path rutaIndice) throws IOException {
+        try (BufferedWriter escritor = Files.newBufferedWriter(rutaIndice, StandardCharsets.UTF_8)) {
+            for (Registro registro : registros.values()) {
+                escritor.write(registro.nombre() + '\t' + registro.longitud() + '\t' + registro.desplazamiento()
+                        + '\t' + registro.basesPorLinea() + '\t' + registro.bytesPorLinea()
+                        + '\t' + registro.columnaInicial() + '\t' + registro.tamanoGrupo() + '\t' + registro.fin());
+                escritor.newLine();
+            }
+        }
+    }
+
+    private static Map<String, Registro> leerIndice(Path rutaIndice) throws IOException {
+        Map<String, Registro> registros = new LinkedHashMap<>();
+        try (BufferedReader lector = Files.newBufferedReader(rutaIndice, StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (linea.isBlank()) {
+                    continue;
+                }
+                String[] campos = linea.split("\t");
+                if (campos.length < 8) {
+                    throw new IOException("Linea de indice invalida en " + rutaIndice + ": " + linea);
+                }
+                Registro registro = new Registro(campos[0], Integer.parseInt(campos[1]), Long.parseLong(campos[2]),
+                        Integer.parseInt(campos[3]), Integer.parseInt(campos[4]), Integer.parseInt(campos[5]),
+                        Integer.parseInt(campos[6]), Long.parseLong(campos[7]));
+                registros.put(registro.nombre(), registro);
+            }
+        }
+        return registros;
+    }
+
+    /**
+     * Construye el indice recorriendo el archivo una sola vez.
+     *
+     * @param archivo La ruta del archivo FASTA o GenBank.
+     * @return El indice en memoria (no se guarda en disco).
+     * @throws IOException si el archivo no se puede leer
+     */
+    public static IndiceSecuencias construir(Path archivo) throws IOException {
+        Constructor constructor = new Constructor(nombreBase(archivo));
+        try (InputStream entrada = new BufferedInputStream(Files.newInputStream(archivo), 1 << 16)) {
+            byte[] bloque = new byte[1 << 16];
+            long posicion = 0;
+            int leidos;
+            while ((leidos = entrada.read(bloque)) > 0) {
+                for (int i = 0; i < leidos; i++) {
+                    constructor.procesar(bloque[i], posicion + i);
+                }
+                posicion += leidos;
+            }
+            constructor.terminar(posicion);
+        }
+        return new IndiceSecuencias(archivo, constructor.registros);
+    }
+
+    private static String nombreBase(Path archivo) {
+        String nombre = archivo.getFileName().toString();
+        int punto = nombre.lastIndexOf('.');
+        return punto > 0 ? nombre.substring(0, punto) : nombre;
+    }
+
+    /**
+     *
+     * Maquina de estados que recorre el archivo byte por byte, detecta los
+     * registros y mide la geometria de sus lineas sin guardar las lineas.
+     */
+    private static final class Constructor {
+
+        private static final int ESTADO_NINGUNO = 0;
+        private static final int ESTADO_FASTA = 1;
+        private static final int ESTADO_GENBANK_CABECERA = 2;
+        private static final int ESTADO_GENBANK_SECUENCIA = 3;
+        private static final int MAXIMO_CABECERA = 256;
+
+        private final Map<String, Registro> registros = new LinkedHashMap<>();
+        private final String nombreArchivo;
+        private int estado = ESTADO_NINGUNO;
+
+        // Linea actual.
+        private long inicioLinea = 0;
+        private final byte[] cabecera = new byte[MAXIMO_CABECERA];
+        private int largoCabecera = 0;
+        private int basesLinea = 0;
+        private long primeraBase = -1;
+        private long ultimaBase = -1;
+        private long separador = -1;
+
+        // Registro actual.
+        private String nombre;
+        private long desplazamiento = -1;
+        private long fin = -1;
+        private int longitud;
+        private int basesPorLinea;
+        private int bytesPorLinea;
+        private int columnaInicial;
+        private int tamanoGrupo;
+        private boolean uniforme;
+        private boolean lineaCorta;
+
+        Constructor(String nombreArchivo) {
+            this.nombreArchivo = nombreArchivo;
+        }
+
+        void procesar(byte caracter, long posicion) {
+            if (caracter == '\n') {
+                terminarLinea(posicion + 1);
+                return;
+            }
+            if (largoCabecera < MAXIMO_CABECERA) {
+                cabecera[largoCabecera++] = caracter;
+            }
+            if (esResiduo(caracter)) {
+                if (primeraBase < 0) {
+                    primeraBase = posicion;
+                }
+                ultimaBase = posicion;
+                basesLinea++;
+            } else if (primeraBase >= 0 && separador < 0 && caracter != '\r') {
+                separador = posicion;
+            }
+        }
+
+        /**
+         * Cuenta como residuo cualquier letra, igual que ".fai"; los digitos y
+         * espacios de las lineas de GenBank quedan fuera.
+         */
+        private static boolean esResiduo(byte caracter) {
+            int minuscula = caracter | 0x20;
+            return minuscula >= 'a' && minuscula <= 'z';
+        }
+
+        void terminar(long posicion) {
+            if (posicion > inicioLinea) {
+                terminarLinea(posicion);
+            }
+            cerrarRegistro();
+        }
+
+        private void terminarLinea(long siguienteLinea) {
+            String texto = new String(cabecera, 0, largoCabecera, StandardCharsets.US_ASCII);
+            if (texto.startsWith(">")) {
+                cerrarRegistro();
+                String[] palabras = texto.substring(1).trim().split("\\s+");
+                abrirRegistro(palabras[0].isEmpty() ? nombreArchivo : palabras[0]);
+                estado = ESTADO_FASTA;
+            } else if (texto.startsWith("LOCUS")) {
+                cerrarRegistro();
+                String[] palabras = texto.trim().split("\\s+");
+                abrirRegistro(palabras.length > 1 ? palabras[1] : nombreArchivo);
+                estado = ESTADO_GENBANK_CABECERA;
+            } else if (estado == ESTADO_GENBANK_CABECERA) {
+                if (texto.startsWith("ORIGIN")) {
+                    estado = ESTADO_GENBANK_SECUENCIA;
+                }
+            } else if (texto.startsWith("//")) {
+                cerrarRegistro();
+                estado = ESTADO_NINGUNO;
+            } else {
+                if (estado == ESTADO_NINGUNO && basesLinea > 0) {
+                    // Archivo sin encabezado: todo el contenido es un solo registro.
+                    abrirRegistro(nombreArchivo);
+                    estado = ESTADO_FASTA;
+                }
+                if (estado == ESTADO_FASTA || estado == ESTADO_GENBANK_SECUENCIA) {
+                    medirLineaSecuencia(siguienteLinea);
+                }
+            }
+            inicioLinea = siguienteLinea;
+            largoCabecera = 0;
+            basesLinea = 0;
+            primeraBase = -1;
+            ultimaBase = -1;
+            separador = -1;
+        }
+
+        private void abrirRegistro(String nombreRegistro) {
+            nombre = nombreRegistro;
+            desplazamiento = -1;
+            fin = -1;
+            longitud = 0;
+            basesPorLinea = 0;
+            bytesPorLinea = 0;
+            columnaInicial = 0;
+            tamanoGrupo = 0;
+            uniforme = true;
+            lineaCorta = false;
+        }
+
+        private void medirLineaSecuencia(long siguienteLinea) {
+            if (basesLinea == 0) {
+                // Una linea en blanco solo es valida al final del registro.
+                if (desplazamiento >= 0) {
+                    lineaCorta = true;
+                }
+                return;
+            }
+            int bytesLinea = (int) (siguienteLinea - inicioLinea);
+            int columna = (int) (primeraBase - inicioLinea);
+            if (desplazamiento < 0) {
+                desplazamiento = inicioLinea;
+                basesPorLinea = basesLinea;
+                bytesPorLinea = bytesLinea;
+                columnaInicial = columna;
+                tamanoGrupo = separador >= 0 ? (int) (separador - primeraBase) : 0;
+            } else if (lineaCorta || columna != columnaInicial || basesLinea > basesPorLinea
+                    || (basesLinea == basesPorLinea && bytesLinea != bytesPorLinea)) {
+                uniforme = false;
+            }
+            // La ultima base de la linea debe caer donde lo predice la geometria.
+            int separadores = tamanoGrupo > 0 ? (basesLinea - 1) / tamanoGrupo : 0;
+            if (ultimaBase - inicioLinea != columnaInicial + basesLinea - 1 + separadores) {
+                uniforme = false;
+            }
+            if (basesLinea < basesPorLinea) {
+                lineaCorta = true;
+            }
+            longitud += basesLinea;
+            fin = ultimaBase + 1;
+        }
+
+        private void cerrarRegistro() {
+            if (nombre == null) {
+                return;
+            }
+            if (desplazamiento >= 0) {
+                registros.put(nombre, new Registro(nombre, longitud, desplazamiento,
+                        uniforme ? basesPorLinea : 0, bytesPorLinea, columnaInicial, tamanoGrupo, fin));
+            }
+            nombre = null;
+        }
+    }
+}
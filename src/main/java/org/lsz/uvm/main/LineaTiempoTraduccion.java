@@ -0,0 +1,165 @@
+package org.lsz.uvm.main;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *
+ * Linea de tiempo de un {@link MotorTraduccion} que permite saltar a cualquier
+ * paso, hacia adelante o hacia atras. Cada {@link #INTERVALO_POR_DEFECTO} pasos
+ * guarda un {@link MotorTraduccion.Punto} inmutable (unos cuantos enteros; el
+ * peptido no se copia, es un prefijo del arreglo del motor). Un salto restaura el
+ * punto anterior al destino y repite a lo mas un intervalo de pasos, asi que
+ * cuesta O(intervalo) y no O(posicion).
+ *
+ * Solo el primer salto mas alla de lo ya recorrido traduce el tramo intermedio,
+ * registrando sus puntos de control en el camino.
+ *
+ * No es segura para hilos: se usa desde el mismo hilo que el motor.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class LineaTiempoTraduccion {
+
+    /** Pasos entre puntos de control. */
+    public static final int INTERVALO_POR_DEFECTO = 256;
+
+    private final MotorTraduccion motor;
+    private final int intervalo;
+    private final List<MotorTraduccion.Punto> puntos = new ArrayList<>();
+    private MotorTraduccion.Punto fin;
+
+    /**
+     * @param motor El motor a controlar; se reinicia al estado inicial.
+     */
+    public LineaTiempoTraduccion(MotorTraduccion motor) {
+        this(motor, INTERVALO_POR_DEFECTO);
+    }
+
+    /**
+     * @param motor El motor a controlar; se reinicia al estado inicial.
+     * @param intervalo Pasos entre puntos de control.
+     */
+    public LineaTiempoTraduccion(MotorTraduccion motor, int intervalo) {
+        if (intervalo <= 0) {
+            throw new IllegalArgumentException("El intervalo debe ser positivo: " + intervalo);
+        }
+        this.motor = motor;
+        this.intervalo = intervalo;
+        motor.reiniciar();
+        puntos.add(motor.punto());
+    }
+
+    /**
+     * Avanza el motor un paso y registra un punto de control si corresponde.
+     *
+     * @return El evento del paso, o null si la traduccion ya habia terminado.
+     */
+    public EventoTraduccion avanzar() {
+        EventoTraduccion evento = motor.avanzar();
+        if (evento == null) {
+            return null;
+        }
+        int paso = motor.getPasos();
+        if (paso % intervalo == 0 && paso / intervalo == puntos.size()) {
+            puntos.add(motor.punto());
+        }
+        if (evento.tipo() == EventoTraduccion.Tipo.TERMINACION) {
+            fin = motor.punto();
+        }
+        return evento;
+    }
+
+    /**
+     * Deja el motor justo despues del paso indicado. Los pasos mas alla de la
+     * terminacion se ajustan a la terminacion.
+     *
+     * @param paso El numero de eventos desde el estado inicial (0 es antes de la iniciacion).
+     * @return El evento de ese paso, o null si {@code paso} es 0.
+     */
+    public EventoTraduccion saltar(int paso) {
+        if (paso < 0) {
+            throw new IllegalArgumentException("Paso negativo: " + paso);
+        }
+        if (fin != null) {
+            paso = Math.min(paso, fin.paso());
+        }
+        if (paso == 0) {
+            motor.restaurar(puntos.get(0));
+            return null;
+        }
+        // Se repite al menos un paso para devolver su evento.
+        MotorTraduccion.Punto punto = puntos.get(Math.min((paso - 1) / intervalo, puntos.size() - 1));
+        int actual = motor.getPasos();
+        if (actual >= paso || actual < punto.paso()) {
+            motor.restaurar(punto);
+        }
+        EventoTraduccion evento = null;
+        while (motor.getPasos() < paso) {
+            EventoTraduccion siguiente = avanzar();
+            if (siguiente == null) {
+                break;
+            }
+            evento = siguiente;
+        }
+        return evento;
+    }
+
+    /**
+     * Descarta lo que dependia de una base editada en la secuencia del motor: los
+     * puntos de control cuyo ribosoma ya la habia leido y, si el motor la habia
+     * pasado, lo regresa al codon que la contiene para que vuelva a leerlo.
+     *
+     * @param posicion Primera base editada.
+     * @return El evento del paso al que regreso el motor, o null si no habia llegado a la edicion.
+     */
+    public EventoTraduccion invalidar(int posicion) {
+        int validos = puntos.size();
+        while (validos > 1 && !leidoAntesDe(puntos.get(validos - 1), posicion)) {
+            validos--;
+        }
+        puntos.subList(validos, puntos.size()).clear();
+        if (fin != null && !leidoAntesDe(fin, posicion)) {
+            fin = null;
+        }
+        if (leidoAntesDe(motor.punto(), posicion)) {
+            return null;
+        }
+        // El paso k + 1 deja el ribosoma sobre el codon k.
+        return saltar(posicion / 3 + 1);
+    }
+
+    public MotorTraduccion getMotor() {
+        return motor;
+    }
+
+    /**
+     * @return El paso actual del motor.
+     */
+    public int getPaso() {
+        return motor.getPasos();
+    }
+
+    /**
+     * @return El paso de la terminacion, o -1 si todavia no se ha recorrido.
+     */
+    public int getPasoFinal() {
+        return fin != null ? fin.paso() : -1;
+    }
+
+    /**
+     * @return Los puntos de control registrados, incluido el estado inicial.
+     */
+    public int getPuntosControl() {
+        return puntos.size();
+    }
+
+    /**
+     * @return true si el estado no dependia de ninguna base desde {@code posicion}.
+     */
+    private static boolean leidoAntesDe(MotorTraduccion.Punto punto, int posicion) {
+        // Al terminar en un codon, el motor tambien leyo ese codon.
+        return punto.puntero() + (punto.terminado() ? 3 : 0) <= posicion;
+    }
+}
@@ -0,0 +1,389 @@
+package org.lsz.uvm.main;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ *
+ * Traduccion estocastica al estilo Gillespie: en cada codon el ribosoma espera un
+ * tiempo exponencial con la tasa de {@link TasasElongacion} y puede desprenderse
+ * antes de terminar (tasa de caida constante), de modo que cada trayectoria
+ * produce una proteina completa o un producto truncado. Un ensamble de muchas
+ * trayectorias estima el rendimiento (fraccion de proteinas completas) y la
+ * distribucion de tiempos, que es lo que cambia una variante.
+ *
+ * El ensamble se divide en bloques de trayectorias en un {@link ForkJoinPool};
+ * cada bloque usa su propio {@link SplittableRandom} derivado de la semilla y
+ * acumula sumas e histogramas sin guardar trayectorias, asi que la memoria no
+ * depende del numero de trayectorias. Como la division no depende del numero
+ * de hilos, la misma semilla produce el mismo resultado en cualquier maquina.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class MonteCarloTraduccion {
+
+    /** Caidas por segundo: con ~6 codones/s equivale a perder el ribosoma en 1 de cada 3000 codones. */
+    public static final double TASA_CAIDA_POR_DEFECTO = 0.002;
+
+    /** Numero de trayectorias a partir del cual un bloque se divide en dos tareas. */
+    private static final int UMBRAL_TRAYECTORIAS = 2048;
+    /** Intervalos del histograma del tiempo total de traduccion. */
+    private static final int INTERVALOS = 200;
+
+    private final TasasElongacion tasas;
+    private final double tasaCaida;
+
+    /**
+     * @param tasas Las tasas de elongacion por codon.
+     * @param tasaCaida Caidas del ribosoma por segundo (0 para una traduccion sin perdidas).
+     */
+    public MonteCarloTraduccion(TasasElongacion tasas, double tasaCaida) {
+        if (!(tasaCaida >= 0) || Double.isInfinite(tasaCaida)) {
+            throw new IllegalArgumentException("Tasa de caida invalida: " + tasaCaida);
+        }
+        this.tasas = tasas;
+        this.tasaCaida = tasaCaida;
+    }
+
+    /**
+     * Simula el ensamble en el pool comun.
+     *
+     * @see #simular(SecuenciaNucleotidos, int, TraductorCodones, long, long, ForkJoinPool)
+     */
+    public Resumen simular(SecuenciaNucleotidos secuencia, int inicio, TraductorCodones traductor,
+                           long trayectorias, long semilla) {
+        return simular(secuencia, inicio, traductor, trayectorias, semilla, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param secuencia La secuencia de ARNm.
+     * @param inicio La posicion de la primera base del codon de inicio.
+     * @param traductor El traductor que define donde termina la traduccion.
+     * @param trayectorias El numero de ribosomas simulados.
+     * @param semilla La semilla del ensamble.
+     * @param pool El pool donde se ejecutan los bloques.
+     * @return Las estadisticas del ensamble.
+     */
+    public Resumen simular(SecuenciaNucleotidos secuencia, int inicio, TraductorCodones traductor,
+                           long trayectorias, long semilla, ForkJoinPool pool) {
+        if (inicio < 0 || inicio + 3 > secuencia.longitud()) {
+            throw new IllegalArgumentException("No hay un codon completo en la posicion " + inicio);
+        }
+        if (trayectorias < 1) {
+            throw new IllegalArgumentException("Se requiere al menos una trayectoria");
+        }
+        // Marco abierto: codones con sentido y, si existe, el de terminacion al final.
+        int parada = traductor.posicionTerminacion(secuencia, inicio);
+        boolean conParada = parada >= 0;
+        int sentido = conParada ? (parada - inicio) / 3 : (secuencia.longitud() - inicio) / 3;
+        int codones = sentido + (conParada ? 1 : 0);
+
+        double[] esperaMedia = new double[codones];
+        double[] riesgoAcumulado = new double[codones];
+        double tiempoEsperado = 0;
+        double riesgo = 0;
+        for (int k = 0; k < codones; k++) {
+            double tasa = tasas.tasa(secuencia.codon(inicio + 3 * k));
+            boolean liberacion = conParada && k == sentido;
+            double tasaTotal = liberacion ? tasa : tasa + tasaCaida;
+            if (!liberacion) {
+                riesgo -= Math.log1p(-tasaCaida / tasaTotal);
+            }
+            riesgoAcumulado[k] = riesgo;
+            esperaMedia[k] = 1 / tasaTotal;
+            tiempoEsperado += esperaMedia[k];
+        }
+        // El histograma cubre hasta 4 veces el tiempo esperado; lo demas cae en el ultimo intervalo.
+        double anchoIntervalo = Math.max(4 * tiempoEsperado, 1e-9) / INTERVALOS;
+
+        Modelo modelo = new Modelo(esperaMedia, riesgoAcumulado, anchoIntervalo);
+        Acumulador total = pool.invoke(new TareaTrayectorias(modelo, trayectorias, new SplittableRandom(semilla)));
+        return new Resumen(total, codones, conParada, anchoIntervalo);
+    }
+
+    /**
+     * Datos inmutables que comparten todas las tareas. {@code esperaMedia[k]} es el
+     * inverso de la tasa total del codon k y {@code riesgoAcumulado[k]} es -log de la
+     * probabilidad de no caer hasta el codon k inclusive.
+     */
+    private record Modelo(double[] esperaMedia, double[] riesgoAcumulado, double anchoIntervalo) {
+    }
+
+    /** Sumas e histogramas de un bloque; se combinan al unir las tareas. */
+    private static final class Acumulador {
+        long trayectorias;
+        long completas;
+        double sumaTiempo;
+        double sumaCuadradoTiempo;
+        final long[] histograma = new long[INTERVALOS];
+        final double[] sumaEspera;
+        final double[] sumaCuadradoEspera;
+        /** Caidas en cada codon: el producto truncado tiene ese numero de aminoacidos. */
+        final long[] caidas;
+
+        Acumulador(int codones) {
+            sumaEspera = new double[codones];
+            sumaCuadradoEspera = new double[codones];
+            caidas = new long[codones];
+        }
+
+        void combinar(Acumulador otro) {
+            trayectorias += otro.trayectorias;
+            completas += otro.completas;
+            sumaTiempo += otro.sumaTiempo;
+            sumaCuadradoTiempo += otro.sumaCuadradoTiempo;
+            for (int i = 0; i < INTERVALOS; i++) {
+                histograma[i] += otro.histograma[i];
+            }
+            for (int k = 0; k < caidas.length; k++) {
+                sumaEspera[k] += otro.sumaEspera[k];
+                sumaCuadradoEspera[k] += otro.sumaCuadradoEspera[k];
+                caidas[k] += otro.caidas[k];
+            }
+        }
+    }
+
+    /** Simula un rango de trayectorias, dividiendolo mientras sea grande. */
+    private static final class TareaTrayectorias extends RecursiveTask<Acumulador> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Modelo modelo;
+        private final long cantidad;
+        private final SplittableRandom aleatorio;
+
+        TareaTrayectorias(Modelo modelo, long cantidad, SplittableRandom aleatorio) {
+            this.modelo = modelo;
+            this.cantidad = cantidad;
+            this.aleatorio = aleatorio;
+        }
+
+        @Override
+        protected Acumulador compute() {
+            if (cantidad > UMBRAL_TRAYECTORIAS) {
+                long mitad = cantidad / 2;
+                TareaTrayectorias izquierda = new TareaTrayectorias(modelo, mitad, aleatorio.split());
+                TareaTrayectorias derecha = new TareaTrayectorias(modelo, cantidad - mitad, aleatorio);
+                izquierda.fork();
+                Acumulador resultado = derecha.compute();
+                resultado.combinar(izquierda.join());
+                return resultado;
+            }
+            double[] esperaMedia = modelo.esperaMedia();
+            double[] riesgoAcumulado = modelo.riesgoAcumulado();
+            int codones = esperaMedia.length;
+            Acumulador acumulador = new Acumulador(codones);
+            double[] sumaEspera = acumulador.sumaEspera;
+            double[] sumaCuadradoEspera = acumulador.sumaCuadradoEspera;
+            SplittableRandom aleatorio = this.aleatorio;
+
+            for (long t = 0; t < cantidad; t++) {
+                // La espera en un codon no depende de si termina en avance o en caida (riesgos
+                // en competencia), asi que el codon de la caida se elige una sola vez por
+                // trayectoria con el riesgo acumulado, en lugar de sortearlo en cada codon.
+                int caida = codones;
+                if (riesgoAcumulado[codones - 1] > 0) {
+                    double umbral = aleatorio.nextExponential();
+                    if (umbral < riesgoAcumulado[codones - 1]) {
+                        int indice = Arrays.binarySearch(riesgoAcumulado, umbral);
+                        caida = indice >= 0 ? indice : -indice - 1;
+                    }
+                }
+                int ultimo = Math.min(caida, codones - 1);
+                double tiempo = 0;
+                for (int k = 0; k <= ultimo; k++) {
+                    double espera = aleatorio.nextExponential() * esperaMedia[k];
+                    sumaEspera[k] += espera;
+                    sumaCuadradoEspera[k] += espera * espera;
+                    tiempo += espera;
+                }
+                if (caida < codones) {
+                    acumulador.caidas[caida]++;
+                    continue;
+                }
+                acumulador.completas++;
+                acumulador.sumaTiempo += tiempo;
+                acumulador.sumaCuadradoTiempo += tiempo * tiempo;
+                acumulador.histograma[(int) Math.min(INTERVALOS - 1, tiempo / modelo.anchoIntervalo())]++;
+            }
+            acumulador.trayectorias = cantidad;
+            return acumulador;
+        }
+    }
+
+    /**
+     *
+     * Estadisticas de un ensamble. Los tiempos totales se refieren a las trayectorias
+     * que terminaron la proteina; las esperas por codon incluyen a todos los ribosomas
+     * que llegaron a ese codon.
+     */
+    public static final class Resumen {
+
+        private final Acumulador total;
+        private final int codones;
+        private final boolean conParada;
+        private final double anchoIntervalo;
+
+        private Resumen(Acumulador total, int codones, boolean conParada, double anchoIntervalo) {
+            this.total = total;
+            this.codones = codones;
+            this.conParada = conParada;
+            this.anchoIntervalo = anchoIntervalo;
+        }
+
+        public long getTrayectorias() {
+            return total.trayectorias;
+        }
+
+        public long getCompletas() {
+            return total.completas;
+        }
+
+        /**
+         * @return Codones del marco abierto, incluido el de terminacion si existe.
+         */
+        public int getCodones() {
+            return codones;
+        }
+
+        public boolean tieneParada() {
+            return conParada;
+        }
+
+        /**
+         * @return Fraccion de ribosomas que terminaron la proteina completa.
+         */
+        public double rendimiento() {
+            return (double) total.completas / total.trayectorias;
+        }
+
+        /**
+         * @return Segundos promedio de una traduccion completa (NaN si ninguna termino).
+         */
+        public double tiempoMedio() {
+            return total.sumaTiempo / total.completas;
+        }
+
+        /**
+         * @return Desviacion estandar del tiempo de una traduccion completa.
+         */
+        public double desviacionTiempo() {
+            return desviacion(total.sumaTiempo, total.sumaCuadradoTiempo, total.completas);
+        }
+
+        /**
+         * Cuantil del tiempo total, interpolado dentro del intervalo del histograma.
+         *
+         * @param fraccion Entre 0 y 1 (0.5 es la mediana).
+         * @return Segundos, o NaN si ninguna trayectoria termino.
+         */
+        public double cuantilTiempo(double fraccion) {
+            if (total.completas == 0) {
+                return Double.NaN;
+            }
+            double objetivo = fraccion * total.completas;
+            long acumulado = 0;
+            for (int i = 0; i < INTERVALOS; i++) {
+                long cuenta = total.histograma[i];
+                if (acumulado + cuenta >= objetivo && cuenta > 0) {
+                    return (i + (objetivo - acumulado) / cuenta) * anchoIntervalo;
+                }
+                acumulado += cuenta;
+            }
+            return INTERVALOS * anchoIntervalo;
+        }
+
+        /**
+         * @return Copia del histograma de tiempos totales; el ultimo intervalo acumula la cola.
+         */
+        public long[] histogramaTiempo() {
+            return total.histograma.clone();
+        }
+
+        /**
+         * @return Segundos que cubre cada intervalo del histograma.
+         */
+        public double getAnchoIntervalo() {
+            return anchoIntervalo;
+        }
+
+        /**
+         * @param codon Indice del codon en el marco abierto (0 es el de inicio).
+         * @return Cuantos ribosomas llegaron a ese codon.
+         */
+        public long visitas(int codon) {
+            long visitas = total.trayectorias;
+            for (int k = 0; k < codon; k++) {
+                visitas -= total.caidas[k];
+            }
+            return visitas;
+        }
+
+        /**
+         * @return Espera promedio en segundos de cada codon del marco abierto.
+         */
+        public double[] esperaMedia() {
+            double[] media = new double[codones];
+            long visitas = total.trayectorias;
+            for (int k = 0; k < codones; k++) {
+                media[k] = visitas > 0 ? total.sumaEspera[k] / visitas : Double.NaN;
+                visitas -= total.caidas[k];
+            }
+            return media;
+        }
+
+        /**
+         * @return Desviacion estandar de la espera de cada codon del marco abierto.
+         */
+        public double[] desviacionEspera() {
+            double[] resultado = new double[codones];
+            long visitas = total.trayectorias;
+            for (int k = 0; k < codones; k++) {
+                resultado[k] = desviacion(total.sumaEspera[k], total.sumaCuadradoEspera[k], visitas);
+                visitas -= total.caidas[k];
+            }
+            return resultado;
+        }
+
+        /**
+         * @return Copia de las caidas por codon: el indice es la longitud del producto truncado.
+         */
+        public long[] caidas() {
+            return total.caidas.clone();
+        }
+
+        /**
+         * @return Un resumen de una linea por estadistica, para la consola.
+         */
+        public String describir() {
+            double[] media = esperaMedia();
+            Integer[] orden = new Integer[codones];
+            for (int k = 0; k < codones; k++) {
+                orden[k] = k;
+            }
+            Arrays.sort(orden, (a, b) -> Double.compare(media[b], media[a]));
+            StringBuilder lentos = new StringBuilder();
+            for (int i = 0; i < Math.min(5, codones); i++) {
+                lentos.append(i == 0 ? "" : ", ").append(orden[i] + 1)
+                        .append(String.format(" (%.2f s)", media[orden[i]]));
+            }
+            return String.format("Trayectorias: %d%nCodones: %d%s%nRendimiento: %.4f (%d completas)%n"
+                            + "Tiempo de traduccion: %.1f +/- %.1f s (mediana %.1f s, p95 %.1f s)%n"
+                            + "Codones mas lentos: %s",
+                    total.trayectorias, codones, conParada ? "" : " (sin codon de terminacion)",
+                    rendimiento(), total.completas, tiempoMedio(), desviacionTiempo(),
+                    cuantilTiempo(0.5), cuantilTiempo(0.95), lentos);
+        }
+
+        private static double desviacion(double suma, double sumaCuadrados, long n) {
+            if (n < 2) {
+                return Double.NaN;
+            }
+            double media = suma / n;
+            return Math.sqrt(Math.max(0, (sumaCuadrados - n * media * media) / (n - 1)));
+        }
+    }
+}
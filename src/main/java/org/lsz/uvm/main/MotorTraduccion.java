@@ -0,0 +1,162 @@
+package org.lsz.uvm.main;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Motor de traduccion paso a paso, independiente de la interfaz grafica.
+ * Cada llamada a {@link #avanzar()} mueve el ribosoma un codon y devuelve el
+ * {@link EventoTraduccion} correspondiente; el peptido se acumula en un arreglo
+ * compacto de codigos de {@link Aminoacido}.
+ *
+ * El estado puede guardarse como un {@link Punto} inmutable y restaurarse
+ * despues (ver {@link LineaTiempoTraduccion}). La traduccion es determinista, asi
+ * que el peptido de cualquier paso ya recorrido es un prefijo del arreglo del
+ * motor: un punto solo guarda cuantos aminoacidos de ese prefijo le pertenecen.
+ *
+ * No es seguro para hilos: debe usarse desde un solo hilo a la vez (por ejemplo
+ * el hilo de {@link SimulacionEnSegundoPlano}).
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class MotorTraduccion {
+
+    private final SecuenciaNucleotidos secuencia;
+    private final TraductorCodones traductor;
+
+    /**
+     * Estado del motor despues de {@code paso} eventos.
+     *
+     * @param paso Eventos producidos desde el estado inicial.
+     * @param puntero Posicion del ribosoma (sitio P).
+     * @param aminoacidos Longitud del peptido: su prefijo en el arreglo compartido del motor.
+     * @param iniciado true si ya ocurrio la iniciacion.
+     * @param terminado true si ya ocurrio la terminacion.
+     */
+    public record Punto(int paso, int puntero, int aminoacidos, boolean iniciado, boolean terminado) {
+    }
+
+    private int pasos;
+    private int puntero;
+    private int aminoacidos;
+    private byte[] peptido;
+    private boolean iniciado;
+    private boolean terminado;
+    private int alcanzados;
+
+    /**
+     * @param secuencia La secuencia de ARNm a traducir desde la base 0.
+     * @param traductor El traductor con el diccionario compilado.
+     */
+    public MotorTraduccion(SecuenciaNucleotidos secuencia, TraductorCodones traductor) {
+        this.secuencia = secuencia;
+        this.traductor = traductor;
+        this.peptido = new byte[Math.max(16, Math.min(secuencia.longitud() / 3, 1 << 16))];
+    }
+
+    /**
+     * Avanza un paso: el primer paso es la iniciacion y los siguientes leen un codon cada uno.
+     *
+     * @return El evento del paso, o null si la traduccion ya habia terminado.
+     */
+    public EventoTraduccion avanzar() {
+        if (terminado) {
+            return null;
+        }
+        pasos++;
+        if (!iniciado) {
+            iniciado = true;
+            int codon = puntero + 3 <= secuencia.longitud() ? secuencia.codon(puntero) : -1;
+            return new EventoTraduccion(EventoTraduccion.Tipo.INICIACION, puntero, codon,
+                    codon >= 0 ? traductor.aminoacido(codon) : null, aminoacidos, puntero);
+        }
+        if (puntero + 3 > secuencia.longitud()) {
+            terminado = true;
+            return new EventoTraduccion(EventoTraduccion.Tipo.TERMINACION, puntero, -1, null, aminoacidos, puntero);
+        }
+        int posicion = puntero;
+        int codon = secuencia.codon(posicion);
+        Aminoacido aminoacido = traductor.aminoacido(codon);
+        if (aminoacido.terminaTraduccion()) {
+            terminado = true;
+            return new EventoTraduccion(EventoTraduccion.Tipo.TERMINACION, posicion, codon, aminoacido, aminoacidos, puntero);
+        }
+        if (aminoacidos == peptido.length) {
+            peptido = Arrays.copyOf(peptido, peptido.length * 2);
+        }
+        peptido[aminoacidos++] = aminoacido.codigo();
+        alcanzados = Math.max(alcanzados, aminoacidos);
+        puntero += 3;
+        return new EventoTraduccion(EventoTraduccion.Tipo.ELONGACION, posicion, codon, aminoacido, aminoacidos, puntero);
+    }
+
+    /**
+     * Regresa el motor al estado inicial sobre la misma secuencia.
+     */
+    public void reiniciar() {
+        pasos = 0;
+        puntero = 0;
+        aminoacidos = 0;
+        iniciado = false;
+        terminado = false;
+    }
+
+    /**
+     * @return El estado actual; no copia el peptido.
+     */
+    public Punto punto() {
+        return new Punto(pasos, puntero, aminoacidos, iniciado, terminado);
+    }
+
+    /**
+     * Regresa (o adelanta) el motor a un estado que el mismo motor ya habia alcanzado.
+     * Cuesta O(1): el peptido de ese estado sigue en el arreglo compartido.
+     *
+     * @param punto Un estado obtenido con {@link #punto()} de este motor.
+     * @throws IllegalArgumentException si el peptido del punto nunca se sintetizo en este motor
+     */
+    public void restaurar(Punto punto) {
+        if (punto.aminoacidos() > alcanzados || punto.puntero() > secuencia.longitud()) {
+            throw new IllegalArgumentException("El punto no pertenece a este motor: " + punto);
+        }
+        pasos = punto.paso();
+        puntero = punto.puntero();
+        aminoacidos = punto.aminoacidos();
+        iniciado = punto.iniciado();
+        terminado = punto.terminado();
+    }
+
+    public SecuenciaNucleotidos getSecuencia() {
+        return secuencia;
+    }
+
+    /**
+     * @return La posicion actual del ribosoma (sitio P).
+     */
+    public int getPuntero() {
+        return puntero;
+    }
+
+    /**
+     * @return Los eventos producidos desde el estado inicial.
+     */
+    public int getPasos() {
+        return pasos;
+    }
+
+    public int getAminoacidos() {
+        return aminoacidos;
+    }
+
+    public boolean estaTerminado() {
+        return terminado;
+    }
+
+    /**
+     * @return Una copia del peptido sintetizado hasta ahora.
+     */
+    public byte[] peptido() {
+        return Arrays.copyOf(peptido, aminoacidos);
+    }
+}
@@ -0,0 +1,353 @@
+package org.lsz.uvm.main;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ *
+ * Mutagenesis de saturacion: enumera las 3 x N sustituciones de una sola base
+ * de una secuencia codificante y clasifica cada una (sinonima, de cambio de
+ * sentido, sin sentido, perdida del inicio o perdida de la parada) junto con la
+ * longitud de la proteina resultante.
+ *
+ * Una sustitucion solo cambia el codon que la contiene, asi que nunca se
+ * construye la secuencia mutada: el codon alterno se obtiene reemplazando dos
+ * bits del codigo del codon y se traduce con la tabla de {@link TraductorCodones}.
+ * Las perdidas de inicio y de parada consultan el {@link IndiceParadas} de la
+ * secuencia en lugar de volver a recorrerla. El recorrido se divide por
+ * bloques de codones en un {@link ForkJoinPool}.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class MutagenesisSaturacion {
+
+    /** Numero de codones a partir del cual un bloque se divide en dos tareas. */
+    private static final int UMBRAL_CODONES = 512;
+
+    private final TraductorCodones traductor;
+
+    /**
+     * @param traductor El traductor con el diccionario compilado.
+     */
+    public MutagenesisSaturacion(TraductorCodones traductor) {
+        this.traductor = traductor;
+    }
+
+    /** Efecto de una sustitucion sobre la proteina. */
+    public enum Consecuencia {
+        /** El codon mutado codifica el mismo aminoacido. */
+        SINONIMA,
+        /** El codon mutado codifica otro aminoacido (missense). */
+        CAMBIO_SENTIDO,
+        /** El codon mutado es de terminacion (nonsense). */
+        SIN_SENTIDO,
+        /** Se pierde el codon de inicio AUG. */
+        PERDIDA_INICIO,
+        /** El codon de terminacion pasa a codificar un aminoacido. */
+        PERDIDA_PARADA
+    }
+
+    /**
+     *
+     * Efecto de una sustitucion.
+     *
+     * @param posicion Base sustituida (desde 0).
+     * @param baseReferencia Codigo de 2 bits de la base original.
+     * @param baseAlterna Codigo de 2 bits de la base nueva.
+     * @param codonReferencia Codigo del codon original (0 a 63).
+     * @param codonAlterno Codigo del codon mutado (0 a 63).
+     * @param consecuencia La clasificacion del efecto.
+     * @param longitudProteina Aminoacidos de la proteina mutada (sin el STOP).
+     */
+    public record Efecto(int posicion, int baseReferencia, int baseAlterna, int codonReferencia,
+                         int codonAlterno, Consecuencia consecuencia, int longitudProteina) {
+
+        /**
+         * @return Numero del codon afectado (desde 1).
+         */
+        public int numeroCodon() {
+            return posicion / 3 + 1;
+        }
+
+        /**
+         * @return La notacion a nivel de ARNm, por ejemplo {@code c.765G>U}.
+         */
+        public String notacion() {
+            return "c." + (posicion + 1) + SecuenciaEmpaquetada.decodificar(baseReferencia)
+                    + ">" + SecuenciaEmpaquetada.decodificar(baseAlterna);
+        }
+    }
+
+    /**
+     *
+     * Tabla completa de efectos, guardada en arreglos primitivos: la entrada de la
+     * base {@code p} con la base alterna {@code b} esta en {@code 3p + indice(b)},
+     * donde el indice omite la base de referencia.
+     */
+    public final class TablaEfectos {
+
+        private final SecuenciaNucleotidos secuencia;
+        private final IndiceParadas paradas;
+        private final int longitudSilvestre;
+        private final int bases;
+        private final byte[] consecuencias;
+        private final int[] longitudes;
+
+        private TablaEfectos(SecuenciaNucleotidos secuencia, IndiceParadas paradas, int longitudSilvestre, int bases) {
+            this.secuencia = secuencia;
+            this.paradas = paradas;
+            this.longitudSilvestre = longitudSilvestre;
+            this.bases = bases;
+            this.consecuencias = new byte[3 * bases];
+            this.longitudes = new int[3 * bases];
+        }
+
+        /**
+         * @return El traductor con el que se clasificaron las sustituciones.
+         */
+        public TraductorCodones getTraductor() {
+            return traductor;
+        }
+
+        /**
+         * @return Aminoacidos de la proteina silvestre (sin el STOP).
+         */
+        public int getLongitudSilvestre() {
+            return longitudSilvestre;
+        }
+
+        /**
+         * @return Bases codificantes analizadas (incluye el codon de parada si existe).
+         */
+        public int getBases() {
+            return bases;
+        }
+
+        /**
+         * @return Numero de sustituciones en la tabla (3 por base).
+         */
+        public int tamano() {
+            return consecuencias.length;
+        }
+
+        /**
+         * Consulta el efecto de una sustitucion.
+         *
+         * @param posicion La base sustituida (desde 0).
+         * @param baseAlterna El codigo de 2 bits de la base nueva.
+         * @return El efecto, o null si la base alterna es la de referencia o la posicion no es codificante.
+         */
+        public Efecto efecto(int posicion, int baseAlterna) {
+            if (posicion < 0 || posicion >= bases) {
+                return null;
+            }
+            int referencia = secuencia.base(posicion);
+            if (baseAlterna == referencia) {
+                return null;
+            }
+            return efecto(3 * posicion + (baseAlterna < referencia ? baseAlterna : baseAlterna - 1));
+        }
+
+        /**
+         * @param indice La entrada de la tabla, de 0 a {@link #tamano()} - 1.
+         * @return El efecto de esa entrada.
+         */
+        public Efecto efecto(int indice) {
+            int posicion = indice / 3;
+            int referencia = secuencia.base(posicion);
+            int alterna = indice % 3;
+            if (alterna >= referencia) {
+                alterna++;
+            }
+            int inicioCodon = posicion - posicion % 3;
+            int codon = secuencia.codon(inicioCodon);
+            return new Efecto(posicion, referencia, alterna, codon,
+                    sustituir(codon, posicion - inicioCodon, alterna),
+                    Consecuencia.values()[consecuencias[indice]], longitudes[indice]);
+        }
+
+        /**
+         * @param consecuencia La clasificacion buscada.
+         * @return Cuantas sustituciones tienen esa consecuencia.
+         */
+        public int contar(Consecuencia consecuencia) {
+            int total = 0;
+            for (byte valor : consecuencias) {
+                if (valor == consecuencia.ordinal()) {
+                    total++;
+                }
+            }
+            return total;
+        }
+
+        /**
+         * Escribe la tabla separada por tabuladores, una sustitucion por linea
+         * (posiciones desde 1).
+         *
+         * @param escritor Donde se escribe la tabla.
+         * @throws IOException si no se puede escribir
+         */
+        public void escribir(Writer escritor) throws IOException {
+            escritor.write("posicion\tref\talt\tcodon\tcodon_ref\tcodon_alt\taa_ref\taa_alt\tconsecuencia\tlongitud_proteina\n");
+            StringBuilder linea = new StringBuilder(96);
+            for (int i = 0; i < tamano(); i++) {
+                Efecto efecto = efecto(i);
+                linea.setLength(0);
+                linea.append(efecto.posicion() + 1).append('\t')
+                        .append(SecuenciaEmpaquetada.decodificar(efecto.baseReferencia())).append('\t')
+                        .append(SecuenciaEmpaquetada.decodificar(efecto.baseAlterna())).append('\t')
+                        .append(efecto.numeroCodon()).append('\t')
+                        .append(TraductorCodones.decodificarCodon(efecto.codonReferencia())).append('\t')
+                        .append(TraductorCodones.decodificarCodon(efecto.codonAlterno())).append('\t')
+                        .append(traductor.aminoacido(efecto.codonReferencia()).getLetra()).append('\t')
+                        .append(traductor.aminoacido(efecto.codonAlterno()).getLetra()).append('\t')
+                        .append(efecto.consecuencia()).append('\t')
+                        .append(efecto.longitudProteina()).append('\n');
+                escritor.write(linea.toString());
+            }
+        }
+    }
+
+    /**
+     * Analiza todas las sustituciones usando el pool comun.
+     *
+     * @param secuencia La secuencia codificante, con el primer codon en la base 0.
+     * @return La tabla de efectos.
+     */
+    public TablaEfectos escanear(SecuenciaNucleotidos secuencia) {
+        return escanear(secuencia, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Analiza todas las sustituciones de la region codificante: desde la base 0
+     * hasta el primer codon de terminacion, incluido.
+     *
+     * @param secuencia La secuencia codificante, con el primer codon en la base 0.
+     * @param pool El pool donde se ejecutan las tareas.
+     * @return La tabla de efectos.
+     */
+    public TablaEfectos escanear(SecuenciaNucleotidos secuencia, ForkJoinPool pool) {
+        return escanear(secuencia, IndiceParadas.construir(secuencia, traductor), pool);
+    }
+
+    /**
+     * Igual que {@link #escanear(SecuenciaNucleotidos, ForkJoinPool)}, reutilizando el
+     * indice de paradas construido al cargar la secuencia.
+     *
+     * @param secuencia La secuencia codificante, con el primer codon en la base 0.
+     * @param paradas El indice de paradas de la secuencia, construido con el mismo traductor.
+     * @param pool El pool donde se ejecutan las tareas.
+     * @return La tabla de efectos.
+     */
+    public TablaEfectos escanear(SecuenciaNucleotidos secuencia, IndiceParadas paradas, ForkJoinPool pool) {
+        int longitudSilvestre = paradas.longitudProteina(0);
+        int codones = longitudSilvestre + (3 * (longitudSilvestre + 1) <= secuencia.longitud() ? 1 : 0);
+        TablaEfectos tabla = new TablaEfectos(secuencia, paradas, longitudSilvestre, 3 * codones);
+        pool.invoke(new TareaCodones(tabla, 0, codones));
+        return tabla;
+    }
+
+    /**
+     * Recorre un bloque de codones; cada codon escribe solo sus 9 entradas de la
+     * tabla, por lo que los bloques no comparten posiciones.
+     */
+    private final class TareaCodones extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final TablaEfectos tabla;
+        private final int desde;
+        private final int hasta;
+
+        TareaCodones(TablaEfectos tabla, int desde, int hasta) {
+            this.tabla = tabla;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > UMBRAL_CODONES) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new TareaCodones(tabla, desde, medio), new TareaCodones(tabla, medio, hasta));
+                return;
+            }
+            for (int codon = desde; codon < hasta; codon++) {
+                clasificarCodon(tabla, codon);
+            }
+        }
+    }
+
+    private void clasificarCodon(TablaEfectos tabla, int numeroCodon) {
+        SecuenciaNucleotidos secuencia = tabla.secuencia;
+        int inicioCodon = 3 * numeroCodon;
+        int codon = secuencia.codon(inicioCodon);
+        byte aminoacido = traductor.codigo(codon);
+        boolean esParada = traductor.terminaTraduccion(codon);
+        boolean esInicio = numeroCodon == 0 && codon == TraductorCodones.CODON_INICIO;
+
+        for (int desplazamiento = 0; desplazamiento < 3; desplazamiento++) {
+            int referencia = (codon >>> (4 - 2 * desplazamiento)) & 3;
+            int indice = 3 * (inicioCodon + desplazamiento);
+            for (int alterna = 0; alterna < 4; alterna++) {
+                if (alterna == referencia) {
+                    continue;
+                }
+                int mutado = sustituir(codon, desplazamiento, alterna);
+                Consecuencia consecuencia;
+                int longitud;
+                if (esInicio) {
+                    consecuencia = Consecuencia.PERDIDA_INICIO;
+                    longitud = longitudDesdeSiguienteInicio(tabla, inicioCodon + desplazamiento, alterna);
+                } else if (esParada) {
+                    if (traductor.terminaTraduccion(mutado)) {
+                        consecuencia = Consecuencia.SINONIMA;
+                        longitud = tabla.longitudSilvestre;
+                    } else {
+                        consecuencia = Consecuencia.PERDIDA_PARADA;
+                        longitud = numeroCodon + 1 + tabla.paradas.longitudProteina(inicioCodon + 3);
+                    }
+                } else if (traductor.terminaTraduccion(mutado)) {
+                    consecuencia = Consecuencia.SIN_SENTIDO;
+                    longitud = numeroCodon;
+                } else {
+                    consecuencia = traductor.codigo(mutado) == aminoacido
+                            ? Consecuencia.SINONIMA : Consecuencia.CAMBIO_SENTIDO;
+                    longitud = tabla.longitudSilvestre;
+                }
+                tabla.consecuencias[indice] = (byte) consecuencia.ordinal();
+                tabla.longitudes[indice] = longitud;
+                indice++;
+            }
+        }
+    }
+
+    /**
+     * Sin el AUG original, el ribosoma inicia en el siguiente AUG (en cualquier marco).
+     * La busqueda toma en cuenta la base sustituida.
+     *
+     * @return Aminoacidos de la proteina traducida desde el siguiente AUG, o 0 si no hay otro.
+     */
+    private static int longitudDesdeSiguienteInicio(TablaEfectos tabla, int posicionMutada, int baseMutada) {
+        SecuenciaNucleotidos secuencia = tabla.secuencia;
+        for (int inicio = 1; inicio + 3 <= secuencia.longitud(); inicio++) {
+            int codon = 0;
+            for (int i = inicio; i < inicio + 3; i++) {
+                codon = (codon << 2) | (i == posicionMutada ? baseMutada : secuencia.base(i));
+            }
+            if (codon == TraductorCodones.CODON_INICIO) {
+                // El AUG ya codifica metionina; el resto esta despues de la base mutada.
+                return 1 + tabla.paradas.longitudProteina(inicio + 3);
+            }
+        }
+        return 0;
+    }
+
+    private static int sustituir(int codon, int desplazamiento, int base) {
+        int corrimiento = 4 - 2 * desplazamiento;
+        return (codon & ~(3 << corrimiento)) | (base << corrimiento);
+    }
+}
@@ -0,0 +1,128 @@
+package org.lsz.uvm.main;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ *
+ * Ejecuta una {@link SimulacionPolisoma} en un hilo propio y publica solo su
+ * ultima {@link SimulacionPolisoma.Instantanea}. A diferencia de
+ * {@link SimulacionEnSegundoPlano} no hay cola de eventos: un polisoma produce
+ * miles de eventos por segundo simulado y a la interfaz solo le interesa la
+ * ocupacion actual, asi que cada pulso lee el estado mas reciente y los
+ * intermedios se descartan.
+ *
+ * La velocidad se expresa en segundos simulados por segundo real; con
+ * {@link #VELOCIDAD_MAXIMA} la simulacion avanza por bloques de eventos tan
+ * rapido como pueda.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class PolisomaEnSegundoPlano implements AutoCloseable {
+
+    /** Velocidad "turbo": sin relacion con el reloj real. */
+    public static final double VELOCIDAD_MAXIMA = Double.POSITIVE_INFINITY;
+
+    /** Pausa entre publicaciones del estado (un poco menos que un pulso de pantalla). */
+    private static final long PERIODO_NANOS = 10_000_000;
+    /** Eventos por publicacion a velocidad maxima. */
+    private static final int EVENTOS_POR_BLOQUE = 50_000;
+
+    private final SimulacionPolisoma simulacion;
+    private final ExecutorService hilo;
+    private volatile SimulacionPolisoma.Instantanea ultima;
+    private volatile boolean corriendo;
+    private volatile double velocidad = 1;
+
+    /**
+     * @param simulacion La simulacion a ejecutar; desde este momento solo la usa el hilo propio.
+     */
+    public PolisomaEnSegundoPlano(SimulacionPolisoma simulacion) {
+        this.simulacion = simulacion;
+        this.ultima = simulacion.instantanea();
+        this.hilo = Executors.newSingleThreadExecutor(tarea -> {
+            Thread hiloPolisoma = new Thread(tarea, "motor-polisoma");
+            hiloPolisoma.setDaemon(true);
+            return hiloPolisoma;
+        });
+    }
+
+    /**
+     * Inicia (o reanuda) la simulacion.
+     *
+     * @param segundosPorSegundo Segundos simulados por segundo real, o {@link #VELOCIDAD_MAXIMA}.
+     */
+    public synchronized void iniciar(double segundosPorSegundo) {
+        setVelocidad(segundosPorSegundo);
+        if (corriendo) {
+            return;
+        }
+        corriendo = true;
+        hilo.execute(this::bucle);
+    }
+
+    /**
+     * Cambia la velocidad; si la simulacion esta en marcha el cambio aplica de inmediato.
+     *
+     * @param segundosPorSegundo Segundos simulados por segundo real, o {@link #VELOCIDAD_MAXIMA}.
+     */
+    public void setVelocidad(double segundosPorSegundo) {
+        this.velocidad = Math.max(0.01, segundosPorSegundo);
+    }
+
+    public double getVelocidad() {
+        return velocidad;
+    }
+
+    /**
+     * Detiene la simulacion; el ultimo estado publicado se conserva.
+     */
+    public synchronized void pausar() {
+        corriendo = false;
+    }
+
+    public boolean estaCorriendo() {
+        return corriendo;
+    }
+
+    /**
+     * @return El estado publicado mas reciente (nunca null).
+     */
+    public SimulacionPolisoma.Instantanea getUltima() {
+        return ultima;
+    }
+
+    /**
+     * Detiene la simulacion y libera el hilo.
+     */
+    @Override
+    public void close() {
+        pausar();
+        hilo.shutdownNow();
+    }
+
+    private void bucle() {
+        long referencia = System.nanoTime();
+        double tiempoReferencia = simulacion.getTiempo();
+        double velocidadReferencia = velocidad;
+        while (corriendo && !Thread.currentThread().isInterrupted()) {
+            double actual = velocidad;
+            if (actual != velocidadReferencia) {
+                // Al cambiar la velocidad se reinicia el reloj para no "recuperar" tiempo atrasado.
+                referencia = System.nanoTime();
+                tiempoReferencia = simulacion.getTiempo();
+                velocidadReferencia = actual;
+            }
+            if (Double.isInfinite(actual)) {
+                simulacion.avanzarEventos(EVENTOS_POR_BLOQUE);
+                ultima = simulacion.instantanea();
+            } else {
+                simulacion.avanzarHasta(tiempoReferencia + (System.nanoTime() - referencia) / 1e9 * actual);
+                ultima = simulacion.instantanea();
+                LockSupport.parkNanos(PERIODO_NANOS);
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package org.lsz.uvm.main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ *
+ * Secuencia mutada virtual: aplica una lista de variantes (SNV e indels) sobre
+ * una referencia sin copiarla, mediante una tabla de piezas. Cada pieza apunta a
+ * un tramo de la referencia o a un tramo de las bases insertadas, que son las
+ * unicas que se almacenan. Asi miles de alelos de pacientes pueden evaluarse
+ * contra una misma referencia en memoria con un costo proporcional al numero
+ * de variantes, no a la longitud del gen.
+ *
+ * Es inmutable y puede compartirse entre hilos.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class SecuenciaConVariantes implements SecuenciaNucleotidos {
+
+    private final SecuenciaEmpaquetada referencia;
+    private final SecuenciaEmpaquetada insertadas;
+    /** Posicion virtual donde inicia cada pieza; la ultima entrada es la longitud total. */
+    private final int[] inicioPieza;
+    /** Inicio de cada pieza en la referencia, o {@code ~inicio} si la pieza esta en {@link #insertadas}. */
+    private final int[] origenPieza;
+    private final int longitud;
+
+    private SecuenciaConVariantes(SecuenciaEmpaquetada referencia, SecuenciaEmpaquetada insertadas,
+                                  int[] inicioPieza, int[] origenPieza) {
+        this.referencia = referencia;
+        this.insertadas = insertadas;
+        this.inicioPieza = inicioPieza;
+        this.origenPieza = origenPieza;
+        this.longitud = inicioPieza[inicioPieza.length - 1];
+    }
+
+    /**
+     * Construye el alelo mutado. Las variantes se ordenan por posicion (las inserciones
+     * en una misma posicion conservan el orden de la lista); no pueden solaparse y sus
+     * bases de referencia deben coincidir con la secuencia.
+     *
+     * @param referencia La secuencia de referencia (por ejemplo, cargada con {@link ARN}).
+     * @param variantes Las variantes a aplicar.
+     * @return La secuencia virtual con las variantes aplicadas.
+     * @throws IllegalArgumentException si una variante no coincide con la referencia o se solapa con otra
+     */
+    public static SecuenciaConVariantes aplicar(SecuenciaEmpaquetada referencia, List<Variante> variantes) {
+        List<Variante> ordenadas = new ArrayList<>(variantes);
+        // En una misma posicion, la insercion pura va antes de la variante que consume bases.
+        ordenadas.sort(Comparator.comparingInt(Variante::posicion).thenComparingInt(v -> v.referencia().length()));
+
+        int basesInsertadas = 0;
+        for (Variante variante : ordenadas) {
+            basesInsertadas += variante.alterna().length();
+        }
+        SecuenciaEmpaquetada.Constructor constructor = new SecuenciaEmpaquetada.Constructor(basesInsertadas);
+        int maximoPiezas = 2 * ordenadas.size() + 1;
+        int[] inicios = new int[maximoPiezas + 1];
+        int[] origenes = new int[maximoPiezas];
+        int piezas = 0;
+        int virtual = 0;
+        int cursor = 0;
+
+        for (Variante variante : ordenadas) {
+            if (variante.posicion() < cursor) {
+                throw new IllegalArgumentException("La variante en " + (variante.posicion() + 1)
+                        + " se solapa con la anterior");
+            }
+            if (variante.fin() > referencia.longitud()) {
+                throw new IllegalArgumentException("La variante en " + (variante.posicion() + 1)
+                        + " excede la referencia de longitud " + referencia.longitud());
+            }
+            String esperado = variante.referencia();
+            for (int i = 0; i < esperado.length(); i++) {
+                if (referencia.base(variante.posicion() + i) != SecuenciaEmpaquetada.codificar(esperado.charAt(i))) {
+                    throw new IllegalArgumentException("La variante en " + (variante.posicion() + 1) + " espera "
+                            + esperado + " pero la referencia tiene "
+                            + referencia.subsecuencia(variante.posicion(), variante.fin()));
+                }
+            }
+            if (variante.posicion() > cursor) {
+                inicios[piezas] = virtual;
+                origenes[piezas++] = cursor;
+                virtual += variante.posicion() - cursor;
+            }
+            String alterna = variante.alterna();
+            if (!alterna.isEmpty()) {
+                inicios[piezas] = virtual;
+                origenes[piezas++] = ~constructor.longitud();
+                for (int i = 0; i < alterna.length(); i++) {
+                    constructor.agregar(SecuenciaEmpaquetada.codificar(alterna.charAt(i)));
+                }
+                virtual += alterna.length();
+            }
+            cursor = variante.fin();
+        }
+        if (cursor < referencia.longitud()) {
+            inicios[piezas] = virtual;
+            origenes[piezas++] = cursor;
+            virtual += referencia.longitud() - cursor;
+        }
+        inicios[piezas] = virtual;
+        return new SecuenciaConVariantes(referencia, constructor.construir(),
+                Arrays.copyOf(inicios, piezas + 1), Arrays.copyOf(origenes, piezas));
+    }
+
+    /**
+     * @return La referencia sobre la que se aplicaron las variantes.
+     */
+    public SecuenciaEmpaquetada getReferencia() {
+        return referencia;
+    }
+
+    @Override
+    public int longitud() {
+        return longitud;
+    }
+
+    @Override
+    public int base(int indice) {
+        if (indice < 0 || indice >= longitud) {
+            throw new IndexOutOfBoundsException("Indice " + indice + " fuera de la secuencia de longitud " + longitud);
+        }
+        int pieza = pieza(indice);
+        int origen = origenPieza[pieza];
+        int desplazamiento = indice - inicioPieza[pieza];
+        return origen >= 0 ? referencia.base(origen + desplazamiento) : insertadas.base(~origen + desplazamiento);
+    }
+
+    @Override
+    public int codon(int indice) {
+        if (indice < 0 || indice + 3 > longitud) {
+            throw new IndexOutOfBoundsException("Codon en " + indice + " fuera de la secuencia de longitud " + longitud);
+        }
+        int pieza = pieza(indice);
+        if (indice + 3 > inicioPieza[pieza + 1]) {
+            // El codon cruza el limite de una variante.
+            return SecuenciaNucleotidos.super.codon(indice);
+        }
+        int origen = origenPieza[pieza];
+        int desplazamiento = indice - inicioPieza[pieza];
+        return origen >= 0 ? referencia.codon(origen + desplazamiento) : insertadas.codon(~origen + desplazamiento);
+    }
+
+    /**
+     * Busca el siguiente codon de terminacion en el marco de {@code inicio} usando el
+     * indice de la referencia: dentro de los tramos sin cambios la busqueda es binaria,
+     * y solo los codones que tocan una variante se leen uno por uno.
+     *
+     * @param inicio La posicion de la primera base del primer codon.
+     * @param indiceReferencia El indice de paradas de {@link #getReferencia()}.
+     * @param traductor El traductor con el que se construyo el indice.
+     * @return La posicion del codon de terminacion en el alelo mutado, o -1 si no hay ninguno.
+     */
+    public int posicionTerminacion(int inicio, IndiceParadas indiceReferencia, TraductorCodones traductor) {
+        int puntero = inicio;
+        while (puntero + 3 <= longitud) {
+            int pieza = pieza(puntero);
+            int origen = origenPieza[pieza];
+            int finPieza = inicioPieza[pieza + 1];
+            if (origen >= 0 && puntero + 3 <= finPieza) {
+                int enReferencia = origen + (puntero - inicioPieza[pieza]);
+                int parada = indiceReferencia.siguienteParada(enReferencia);
+                if (parada >= 0 && parada + 3 <= origen + (finPieza - inicioPieza[pieza])) {
+                    return puntero + (parada - enReferencia);
+                }
+                // Ninguna parada dentro del tramo: se saltan sus codones completos.
+                puntero += 3 * ((finPieza - puntero) / 3);
+                continue;
+            }
+            if (traductor.terminaTraduccion(codon(puntero))) {
+                return puntero;
+            }
+            puntero += 3;
+        }
+        return -1;
+    }
+
+    /**
+     * Copia el alelo a una secuencia empaquetada, para los casos que requieren
+     * acceso por palabras (por ejemplo {@link ComparadorSecuencias}).
+     *
+     * @return La secuencia materializada.
+     */
+    public SecuenciaEmpaquetada materializar() {
+        SecuenciaEmpaquetada.Constructor constructor = new SecuenciaEmpaquetada.Constructor(longitud);
+        for (int pieza = 0; pieza < origenPieza.length; pieza++) {
+            int origen = origenPieza[pieza];
+            SecuenciaEmpaquetada fuente = origen >= 0 ? referencia : insertadas;
+            int desde = origen >= 0 ? origen : ~origen;
+            int bases = inicioPieza[pieza + 1] - inicioPieza[pieza];
+            for (int i = 0; i < bases; i++) {
+                constructor.agregar(fuente.base(desde + i));
+            }
+        }
+        return constructor.construir();
+    }
+
+    @Override
+    public String toString() {
+        char[] texto = new char[longitud];
+        for (int i = 0; i < longitud; i++) {
+            texto[i] = SecuenciaEmpaquetada.decodificar(base(i));
+        }
+        return new String(texto);
+    }
+
+    /**
+     * @return El indice de la pieza que contiene la posicion virtual (busqueda binaria).
+     */
+    private int pieza(int indice) {
+        int bajo = 0;
+        int alto = origenPieza.length - 1;
+        while (bajo < alto) {
+            int medio = (bajo + alto + 1) >>> 1;
+            if (inicioPieza[medio] <= indice) {
+                bajo = medio;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return bajo;
+    }
+}
@@ -0,0 +1,153 @@
+package org.lsz.uvm.main;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Secuencia de ARNm modificable con un "gap buffer": las bases se guardan una por
+ * byte con un hueco libre en el punto de la ultima edicion. Editar mueve el hueco
+ * hasta la posicion (copiando solo las bases entre la edicion anterior y la
+ * nueva) y escribe ahi, asi que una serie de cambios cercanos, como al explorar
+ * mutaciones en una region, no copia el resto del transcrito.
+ *
+ * No es segura para hilos: mientras se edita nadie mas debe leerla (por ejemplo,
+ * con la simulacion detenida, ver {@link SimulacionEnSegundoPlano#detener()}).
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class SecuenciaEditable implements SecuenciaNucleotidos {
+
+    /** Bases libres que se reservan al copiar la secuencia original. */
+    private static final int HUECO_INICIAL = 1024;
+
+    private byte[] bases;
+    private int inicioHueco;
+    private int finHueco;
+
+    /**
+     * @param original La secuencia a copiar (por ejemplo, cargada con {@link ARN}).
+     */
+    public SecuenciaEditable(SecuenciaNucleotidos original) {
+        int longitud = original.longitud();
+        bases = new byte[longitud + HUECO_INICIAL];
+        for (int i = 0; i < longitud; i++) {
+            bases[i] = (byte) original.base(i);
+        }
+        inicioHueco = longitud;
+        finHueco = bases.length;
+    }
+
+    @Override
+    public int longitud() {
+        return bases.length - (finHueco - inicioHueco);
+    }
+
+    @Override
+    public int base(int indice) {
+        if (indice < 0 || indice >= longitud()) {
+            throw new IndexOutOfBoundsException("Indice " + indice + " fuera de la secuencia de longitud " + longitud());
+        }
+        return bases[indice < inicioHueco ? indice : indice + finHueco - inicioHueco];
+    }
+
+    @Override
+    public int codon(int indice) {
+        if (indice < 0 || indice + 3 > longitud()) {
+            throw new IndexOutOfBoundsException("Codon en " + indice + " fuera de la secuencia de longitud " + longitud());
+        }
+        if (indice + 3 <= inicioHueco || indice >= inicioHueco) {
+            // El codon no cruza el hueco.
+            int i = indice < inicioHueco ? indice : indice + finHueco - inicioHueco;
+            return (bases[i] << 4) | (bases[i + 1] << 2) | bases[i + 2];
+        }
+        return SecuenciaNucleotidos.super.codon(indice);
+    }
+
+    /**
+     * Reemplaza {@code quitar} bases a partir de {@code posicion} por las bases dadas:
+     * con {@code quitar == 0} es una insercion, con {@code nuevas} vacia es una delecion.
+     * Si los argumentos son invalidos la secuencia no cambia.
+     *
+     * @param posicion Primera base afectada (desde 0).
+     * @param quitar Bases a eliminar.
+     * @param nuevas Bases a insertar (A, C, G, T/U, sin importar mayusculas).
+     * @throws IndexOutOfBoundsException si el tramo a quitar excede la secuencia
+     * @throws IllegalArgumentException si {@code nuevas} tiene caracteres que no son bases
+     */
+    public void editar(int posicion, int quitar, CharSequence nuevas) {
+        int longitud = longitud();
+        if (posicion < 0 || quitar < 0 || posicion > longitud || quitar > longitud - posicion) {
+            throw new IndexOutOfBoundsException("Edicion de " + quitar + " bases en " + posicion
+                    + " fuera de la secuencia de longitud " + longitud);
+        }
+        byte[] codigos = new byte[nuevas.length()];
+        for (int i = 0; i < codigos.length; i++) {
+            int base = SecuenciaEmpaquetada.codificar(nuevas.charAt(i));
+            if (base < 0) {
+                throw new IllegalArgumentException("Base invalida '" + nuevas.charAt(i) + "' en " + nuevas);
+            }
+            codigos[i] = (byte) base;
+        }
+        moverHueco(posicion);
+        finHueco += quitar;
+        if (finHueco - inicioHueco < codigos.length) {
+            crecer(codigos.length);
+        }
+        System.arraycopy(codigos, 0, bases, inicioHueco, codigos.length);
+        inicioHueco += codigos.length;
+    }
+
+    /**
+     * @return Una copia empaquetada del estado actual, para quien la lea desde otro hilo.
+     */
+    public SecuenciaEmpaquetada empaquetar() {
+        int longitud = longitud();
+        SecuenciaEmpaquetada.Constructor constructor = new SecuenciaEmpaquetada.Constructor(longitud);
+        for (int i = 0; i < inicioHueco; i++) {
+            constructor.agregar(bases[i]);
+        }
+        for (int i = finHueco; i < bases.length; i++) {
+            constructor.agregar(bases[i]);
+        }
+        return constructor.construir();
+    }
+
+    @Override
+    public String toString() {
+        char[] texto = new char[longitud()];
+        for (int i = 0; i < texto.length; i++) {
+            texto[i] = SecuenciaEmpaquetada.decodificar(base(i));
+        }
+        return new String(texto);
+    }
+
+    /**
+     * Mueve el hueco para que inicie en {@code posicion}, copiando solo las bases que cruza.
+     */
+    private void moverHueco(int posicion) {
+        if (posicion < inicioHueco) {
+            int mover = inicioHueco - posicion;
+            System.arraycopy(bases, posicion, bases, finHueco - mover, mover);
+            inicioHueco -= mover;
+            finHueco -= mover;
+        } else if (posicion > inicioHueco) {
+            int mover = posicion - inicioHueco;
+            System.arraycopy(bases, finHueco, bases, inicioHueco, mover);
+            inicioHueco += mover;
+            finHueco += mover;
+        }
+    }
+
+    /**
+     * Amplia el hueco para que quepan al menos {@code requeridas} bases.
+     */
+    private void crecer(int requeridas) {
+        int cola = bases.length - finHueco;
+        int capacidad = Math.max(bases.length * 2, longitud() + requeridas + HUECO_INICIAL);
+        byte[] nuevo = Arrays.copyOf(bases, capacidad);
+        System.arraycopy(bases, finHueco, nuevo, capacidad - cola, cola);
+        bases = nuevo;
+        finHueco = capacidad - cola;
+    }
+}
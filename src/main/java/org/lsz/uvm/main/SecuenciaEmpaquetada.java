@@ -0,0 +1,379 @@
+package org.lsz.uvm.main;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ *
+ * Secuencia de ARNm empaquetada a 2 bits por base (A=0, C=1, G=2, U=3)
+ * dentro de un arreglo de {@code long}. Cada palabra almacena 32 bases,
+ * la primera base en los bits mas significativos, de modo que un codon
+ * completo se puede extraer como un entero de 0 a 63 con desplazamientos.
+ *
+ * Las subsecuencias comparten el arreglo original (no se copian datos),
+ * por lo que un gen completo ocupa aproximadamente 1/8 de la memoria que
+ * necesitaria un {@link String} en UTF-16. Las palabras pueden vivir en el
+ * heap o en un archivo mapeado a memoria (ver {@link AlmacenSecuencias}); en
+ * ambos casos se leen a traves de un {@link LongBuffer}.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class SecuenciaEmpaquetada implements CharSequence, SecuenciaNucleotidos {
+
+    /** Codigo de 2 bits para la base Adenina. */
+    public static final int A = 0;
+    /** Codigo de 2 bits para la base Citosina. */
+    public static final int C = 1;
+    /** Codigo de 2 bits para la base Guanina. */
+    public static final int G = 2;
+    /** Codigo de 2 bits para la base Uracilo. */
+    public static final int U = 3;
+
+    /** Secuencia sin bases. */
+    public static final SecuenciaEmpaquetada VACIA = new SecuenciaEmpaquetada(LongBuffer.wrap(new long[0]), 0, 0);
+
+    private static final char[] BASES = {'A', 'C', 'G', 'U'};
+    private static final int BASES_POR_PALABRA = 32;
+
+    private final LongBuffer palabras;
+    private final int desplazamiento;
+    private final int longitud;
+    /** Huella del contenido, calculada al primer uso (0 = sin calcular). */
+    private long huella;
+
+    private SecuenciaEmpaquetada(LongBuffer palabras, int desplazamiento, int longitud) {
+        this.palabras = palabras;
+        this.desplazamiento = desplazamiento;
+        this.longitud = longitud;
+    }
+
+    /**
+     * Empaqueta una secuencia de texto. Se aceptan A, C, G, U y T (como U)
+     * en mayusculas o minusculas; cualquier otro caracter se ignora.
+     *
+     * @param texto La secuencia de ARNm o ADN en texto.
+     * @return La secuencia empaquetada.
+     */
+    public static SecuenciaEmpaquetada desdeTexto(CharSequence texto) {
+        if (texto instanceof SecuenciaEmpaquetada) {
+            return (SecuenciaEmpaquetada) texto;
+        }
+        Constructor constructor = new Constructor(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            int base = codificar(texto.charAt(i));
+            if (base >= 0) {
+                constructor.agregar(base);
+            }
+        }
+        return constructor.construir();
+    }
+
+    /**
+     * Crea una secuencia sobre palabras ya empaquetadas, sin copiarlas. El buffer
+     * puede provenir de un archivo mapeado a memoria; debe contener al menos
+     * {@code ceil(longitud / 32)} palabras a partir de su posicion 0 y no debe modificarse.
+     *
+     * @param palabras Las palabras de 32 bases, la primera base en los bits mas significativos.
+     * @param longitud El numero de bases.
+     * @return La secuencia respaldada por {@code palabras}.
+     */
+    public static SecuenciaEmpaquetada desdePalabras(LongBuffer palabras, int longitud) {
+        if (longitud == 0) {
+            return VACIA;
+        }
+        int necesarias = (longitud + BASES_POR_PALABRA - 1) / BASES_POR_PALABRA;
+        if (longitud < 0 || palabras.limit() < necesarias) {
+            throw new IllegalArgumentException("Se requieren " + necesarias + " palabras para " + longitud
+                    + " bases y el buffer tiene " + palabras.limit());
+        }
+        return new SecuenciaEmpaquetada(palabras.slice().asReadOnlyBuffer(), 0, longitud);
+    }
+
+    /**
+     * Convierte un caracter a su codigo de 2 bits.
+     *
+     * @param caracter La base en texto (A, C, G, T o U).
+     * @return El codigo de la base o -1 si el caracter no es una base.
+     */
+    public static int codificar(int caracter) {
+        switch (caracter) {
+            case 'A': case 'a': return A;
+            case 'C': case 'c': return C;
+            case 'G': case 'g': return G;
+            case 'U': case 'u': case 'T': case 't': return U;
+            default: return -1;
+        }
+    }
+
+    /**
+     * Convierte un codigo de 2 bits a su letra de ARN.
+     *
+     * @param base El codigo de la base (0 a 3).
+     * @return La letra correspondiente.
+     */
+    public static char decodificar(int base) {
+        return BASES[base & 3];
+    }
+
+    /**
+     * @return El numero de bases de la secuencia.
+     */
+    @Override
+    public int longitud() {
+        return longitud;
+    }
+
+    /**
+     * Obtiene el codigo de 2 bits de una base.
+     *
+     * @param indice La posicion de la base (desde 0).
+     * @return El codigo de la base (0 a 3).
+     */
+    @Override
+    public int base(int indice) {
+        if (indice < 0 || indice >= longitud) {
+            throw new IndexOutOfBoundsException("Indice " + indice + " fuera de la secuencia de longitud " + longitud);
+        }
+        int posicion = desplazamiento + indice;
+        return (int) (palabras.get(posicion >>> 5) >>> desplazamientoBits(posicion)) & 3;
+    }
+
+    /**
+     * Extrae el codon que inicia en la posicion indicada como un entero
+     * de 0 a 63 ({@code base0 * 16 + base1 * 4 + base2}).
+     *
+     * @param indice La posicion de la primera base del codon.
+     * @return El codigo del codon.
+     */
+    @Override
+    public int codon(int indice) {
+        if (indice < 0 || indice + 3 > longitud) {
+            throw new IndexOutOfBoundsException("Codon en " + indice + " fuera de la secuencia de longitud " + longitud);
+        }
+        int posicion = desplazamiento + indice;
+        int bit = desplazamientoBits(posicion);
+        long palabra = palabras.get(posicion >>> 5);
+        if (bit >= 4) {
+            // Las tres bases estan en la misma palabra.
+            return (int) (palabra >>> (bit - 4)) & 0x3F;
+        }
+        // El codon cruza el limite entre dos palabras.
+        long siguiente = palabras.get((posicion >>> 5) + 1);
+        return (int) (((palabra << (4 - bit)) | (siguiente >>> (60 + bit))) & 0x3F);
+    }
+
+    /**
+     * Extrae hasta 32 bases consecutivas en un solo {@code long}, con la primera
+     * base en los bits mas significativos. Las posiciones que quedan fuera de la
+     * secuencia se devuelven en cero. Permite comparar secuencias palabra a palabra.
+     *
+     * @param inicio La posicion de la primera base del bloque.
+     * @return Las bases empaquetadas a 2 bits.
+     */
+    public long bloque(int inicio) {
+        if (inicio < 0 || inicio >= longitud) {
+            throw new IndexOutOfBoundsException("Bloque en " + inicio + " fuera de la secuencia de longitud " + longitud);
+        }
+        int posicion = desplazamiento + inicio;
+        int indicePalabra = posicion >>> 5;
+        int corrimiento = (posicion & (BASES_POR_PALABRA - 1)) << 1;
+        long bloque = palabras.get(indicePalabra) << corrimiento;
+        if (corrimiento != 0 && indicePalabra + 1 < palabras.limit()) {
+            bloque |= palabras.get(indicePalabra + 1) >>> (64 - corrimiento);
+        }
+        int restantes = longitud - inicio;
+        if (restantes < BASES_POR_PALABRA) {
+            bloque &= -1L << (64 - 2 * restantes);
+        }
+        return bloque;
+    }
+
+    /**
+     * Crea una vista de una parte de la secuencia sin copiar los datos.
+     *
+     * @param inicio Posicion inicial (incluida).
+     * @param fin Posicion final (excluida).
+     * @return La subsecuencia compartiendo el almacenamiento original.
+     */
+    public SecuenciaEmpaquetada subsecuencia(int inicio, int fin) {
+        if (inicio < 0 || fin > longitud || inicio > fin) {
+            throw new IndexOutOfBoundsException("Rango [" + inicio + ", " + fin + ") fuera de la secuencia de longitud " + longitud);
+        }
+        if (inicio == 0 && fin == longitud) {
+            return this;
+        }
+        return new SecuenciaEmpaquetada(palabras, desplazamiento + inicio, fin - inicio);
+    }
+
+    /**
+     * Copia las bases a un arreglo nuevo alineado al inicio. Util cuando una
+     * subsecuencia pequena mantiene vivo un arreglo mucho mayor.
+     *
+     * @return Una secuencia equivalente con su propio almacenamiento.
+     */
+    public SecuenciaEmpaquetada compactar() {
+        Constructor constructor = new Constructor(longitud);
+        for (int i = 0; i < longitud; i++) {
+            constructor.agregar(base(i));
+        }
+        return constructor.construir();
+    }
+
+    /**
+     * Construye la hebra complementaria inversa (A&lt;-&gt;U, C&lt;-&gt;G leida de 3' a 5').
+     * Con la codificacion de 2 bits el complemento de una base es {@code 3 - base}.
+     *
+     * @return Una secuencia nueva con el complemento inverso.
+     */
+    public SecuenciaEmpaquetada complementoInverso() {
+        Constructor constructor = new Constructor(longitud);
+        for (int i = longitud - 1; i >= 0; i--) {
+            constructor.agregar(3 - base(i));
+        }
+        return constructor.construir();
+    }
+
+    @Override
+    public int length() {
+        return longitud;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return decodificar(base(index));
+    }
+
+    @Override
+    public SecuenciaEmpaquetada subSequence(int start, int end) {
+        return subsecuencia(start, end);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return longitud == 0;
+    }
+
+    @Override
+    public String toString() {
+        char[] texto = new char[longitud];
+        for (int i = 0; i < longitud; i++) {
+            texto[i] = decodificar(base(i));
+        }
+        return new String(texto);
+    }
+
+    @Override
+    public boolean equals(Object otro) {
+        if (this == otro) {
+            return true;
+        }
+        if (!(otro instanceof SecuenciaEmpaquetada)) {
+            return false;
+        }
+        SecuenciaEmpaquetada secuencia = (SecuenciaEmpaquetada) otro;
+        if (secuencia.longitud != longitud) {
+            return false;
+        }
+        if (huella != 0 && secuencia.huella != 0 && huella != secuencia.huella) {
+            return false;
+        }
+        for (int i = 0; i < longitud; i += BASES_POR_PALABRA) {
+            if (bloque(i) != secuencia.bloque(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(huella());
+    }
+
+    /**
+     * Huella de 64 bits del contenido, calculada palabra a palabra y guardada tras
+     * el primer uso. Dos secuencias con las mismas bases tienen la misma huella sin
+     * importar el archivo o el formato del que provengan, por lo que sirve como
+     * direccion de contenido (por ejemplo, en {@link CacheSecuencias}).
+     *
+     * @return La huella del contenido.
+     */
+    public long huella() {
+        long calculada = huella;
+        if (calculada == 0) {
+            calculada = 0x9E3779B97F4A7C15L * (longitud + 1);
+            for (int i = 0; i < longitud; i += BASES_POR_PALABRA) {
+                calculada = Long.rotateLeft(calculada ^ (bloque(i) * 0xC2B2AE3D27D4EB4FL), 31) * 0x9E3779B97F4A7C15L;
+            }
+            calculada ^= calculada >>> 29;
+            calculada *= 0xBF58476D1CE4E5B9L;
+            calculada ^= calculada >>> 32;
+            if (calculada == 0) {
+                calculada = 1;
+            }
+            huella = calculada;
+        }
+        return calculada;
+    }
+
+    private static int desplazamientoBits(int posicion) {
+        return 62 - ((posicion & (BASES_POR_PALABRA - 1)) << 1);
+    }
+
+    /**
+     *
+     * Acumula bases de una en una y produce la secuencia empaquetada final.
+     * Usado por los cargadores para no pasar por un {@link StringBuilder}.
+     */
+    public static final class Constructor {
+
+        private long[] palabras;
+        private int longitud;
+
+        public Constructor() {
+            this(BASES_POR_PALABRA * 16);
+        }
+
+        /**
+         * @param capacidadInicial Numero estimado de bases.
+         */
+        public Constructor(int capacidadInicial) {
+            palabras = new long[Math.max(1, (capacidadInicial + BASES_POR_PALABRA - 1) / BASES_POR_PALABRA)];
+        }
+
+        /**
+         * Agrega una base al final.
+         *
+         * @param base El codigo de 2 bits de la base.
+         * @return Este mismo constructor.
+         */
+        public Constructor agregar(int base) {
+            int indicePalabra = longitud >>> 5;
+            if (indicePalabra == palabras.length) {
+                palabras = Arrays.copyOf(palabras, palabras.length * 2);
+            }
+            palabras[indicePalabra] |= ((long) (base & 3)) << desplazamientoBits(longitud);
+            longitud++;
+            return this;
+        }
+
+        /**
+         * @return El numero de bases acumuladas hasta ahora.
+         */
+        public int longitud() {
+            return longitud;
+        }
+
+        /**
+         * @return La secuencia con las bases acumuladas.
+         */
+        public SecuenciaEmpaquetada construir() {
+            if (longitud == 0) {
+                return VACIA;
+            }
+            int necesarias = (longitud + BASES_POR_PALABRA - 1) / BASES_POR_PALABRA;
+            return new SecuenciaEmpaquetada(LongBuffer.wrap(Arrays.copyOf(palabras, necesarias)), 0, longitud);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.lsz.uvm.main;
+
+/**
+ *
+ * Vista de solo lectura de una secuencia de bases codificadas a 2 bits
+ * (A=0, C=1, G=2, U=3). La implementan tanto {@link SecuenciaEmpaquetada}
+ * como las secuencias virtuales (por ejemplo {@link SecuenciaConVariantes}),
+ * de modo que el traductor no necesita una copia materializada.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public interface SecuenciaNucleotidos {
+
+    /**
+     * @return El numero de bases de la secuencia.
+     */
+    int longitud();
+
+    /**
+     * @param indice La posicion de la base.
+     * @return El codigo de 2 bits de la base.
+     */
+    int base(int indice);
+
+    /**
+     * Extrae el codon que inicia en la posicion indicada como un entero
+     * de 0 a 63 ({@code base0 * 16 + base1 * 4 + base2}).
+     *
+     * @param indice La posicion de la primera base del codon.
+     * @return El codigo del codon.
+     */
+    default int codon(int indice) {
+        return (base(indice) << 4) | (base(indice + 1) << 2) | base(indice + 2);
+    }
+}
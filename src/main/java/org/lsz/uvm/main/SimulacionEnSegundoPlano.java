@@ -0,0 +1,314 @@
+package org.lsz.uvm.main;
+
+import org.lsz.uvm.util.RegistroMetricas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ *
+ * Ejecuta un {@link MotorTraduccion} en un hilo propio y publica sus eventos en
+ * una cola sin bloqueo. Quien consume (la interfaz grafica en cada pulso, o un
+ * proceso sin interfaz) drena la cola cuando le conviene, de modo que la
+ * traduccion nunca corre en el hilo de JavaFX.
+ *
+ * La velocidad se expresa en codones por segundo y puede cambiarse en marcha;
+ * con {@link #VELOCIDAD_MAXIMA} el motor avanza tan rapido como el consumidor
+ * drene la cola. La cola esta acotada: si el consumidor se atrasa, el motor espera.
+ *
+ * Puede ejecutar varios motores con el mismo reloj (por ejemplo el alelo normal
+ * y el mutado lado a lado): en cada paso avanzan todos los que no han terminado,
+ * y cada uno publica en su propia cola.
+ *
+ * Cada motor avanza a traves de una {@link LineaTiempoTraduccion}, de modo que
+ * {@link #saltar(int)} lleva a todos al mismo paso sin recorrer la traduccion
+ * desde el principio.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class SimulacionEnSegundoPlano implements AutoCloseable {
+
+    /** Velocidad "turbo": sin pausa entre codones. */
+    public static final double VELOCIDAD_MAXIMA = Double.POSITIVE_INFINITY;
+
+    /** Eventos sin drenar a partir de los cuales el motor espera al consumidor. */
+    private static final int MAXIMO_PENDIENTES = 8192;
+
+    private static final RegistroMetricas.Contador PASOS = RegistroMetricas.global().contador("simulacion.pasos");
+
+    /**
+     * Estado de un motor despues de un salto.
+     *
+     * @param evento El evento del paso alcanzado, o null si es el estado inicial.
+     * @param peptido Los codigos de aminoacido sintetizados hasta ese paso.
+     */
+    public record Posicion(EventoTraduccion evento, byte[] peptido) {
+    }
+
+    private final MotorTraduccion[] motores;
+    private final LineaTiempoTraduccion[] lineas;
+    private final List<Queue<EventoTraduccion>> eventos;
+    private final boolean[] terminados;
+    private final AtomicInteger pendientes = new AtomicInteger();
+    private final ExecutorService hilo;
+    private volatile boolean corriendo;
+    private volatile double codonesPorSegundo = 2;
+
+    /**
+     * @param motores Los motores a ejecutar con un reloj comun; desde este momento
+     *                solo los usa el hilo de la simulacion.
+     */
+    public SimulacionEnSegundoPlano(MotorTraduccion... motores) {
+        if (motores.length == 0) {
+            throw new IllegalArgumentException("Se requiere al menos un motor");
+        }
+        this.motores = motores.clone();
+        this.lineas = new LineaTiempoTraduccion[motores.length];
+        this.eventos = new ArrayList<>(motores.length);
+        for (int i = 0; i < motores.length; i++) {
+            lineas[i] = new LineaTiempoTraduccion(motores[i]);
+            eventos.add(new ConcurrentLinkedQueue<>());
+        }
+        this.terminados = new boolean[motores.length];
+        this.hilo = Executors.newSingleThreadExecutor(tarea -> {
+            Thread hiloMotor = new Thread(tarea, "motor-traduccion");
+            hiloMotor.setDaemon(true);
+            return hiloMotor;
+        });
+    }
+
+    /**
+     * Inicia (o reanuda) la traduccion automatica.
+     *
+     * @param codonesPorSegundo Velocidad de avance, o {@link #VELOCIDAD_MAXIMA}.
+     */
+    public synchronized void iniciar(double codonesPorSegundo) {
+        setVelocidad(codonesPorSegundo);
+        if (corriendo) {
+            return;
+        }
+        corriendo = true;
+        hilo.execute(this::bucle);
+    }
+
+    /**
+     * Cambia la velocidad; si la simulacion esta en marcha el cambio aplica de inmediato.
+     *
+     * @param codonesPorSegundo Velocidad de avance, o {@link #VELOCIDAD_MAXIMA}.
+     */
+    public void setVelocidad(double codonesPorSegundo) {
+        this.codonesPorSegundo = Math.max(0.01, codonesPorSegundo);
+    }
+
+    public double getVelocidad() {
+        return codonesPorSegundo;
+    }
+
+    /**
+     * Detiene la traduccion automatica; los eventos ya publicados se conservan.
+     */
+    public synchronized void pausar() {
+        corriendo = false;
+    }
+
+    /**
+     * @return true si la traduccion automatica esta en curso.
+     */
+    public boolean estaCorriendo() {
+        return corriendo;
+    }
+
+    /**
+     * Solicita un unico paso al hilo de la simulacion.
+     */
+    public void paso() {
+        hilo.execute(this::avanzarUnPaso);
+    }
+
+    /**
+     * Detiene la traduccion automatica y lleva todos los motores al mismo paso
+     * (el mismo reloj que en la ejecucion normal). Los eventos aun sin drenar se
+     * descartan; quien consume debe reemplazar su estado por el del resultado.
+     *
+     * @param paso Eventos desde el estado inicial: 1 es la iniciacion y
+     *             {@code k + 1} deja el ribosoma sobre el codon k.
+     * @return Se completa en el hilo de la simulacion con una posicion por motor,
+     * en el orden del constructor.
+     */
+    public CompletableFuture<List<Posicion>> saltar(int paso) {
+        pausar();
+        return CompletableFuture.supplyAsync(() -> saltarAhora(paso), hilo);
+    }
+
+    /**
+     * Detiene la traduccion automatica y espera a que el hilo de la simulacion quede
+     * libre. Hasta volver a iniciar o pedir un paso, quien recibe el resultado puede
+     * editar la secuencia de un motor (ver {@link SecuenciaEditable}) y despues
+     * llamar a {@link #editado(int, int)}.
+     *
+     * @return Se completa cuando el hilo de la simulacion ya no lee las secuencias.
+     */
+    public CompletableFuture<Void> detener() {
+        pausar();
+        return CompletableFuture.runAsync(() -> { }, hilo);
+    }
+
+    /**
+     * Ajusta un motor despues de editar su secuencia: si su ribosoma ya habia pasado
+     * la edicion, regresa al codon editado y sus eventos sin drenar se descartan.
+     *
+     * @param motor El indice del motor, en el orden del constructor.
+     * @param posicion Primera base editada.
+     * @return Se completa en el hilo de la simulacion con la nueva posicion del motor,
+     * o con null si el ribosoma no habia llegado a la edicion.
+     */
+    public CompletableFuture<Posicion> editado(int motor, int posicion) {
+        return CompletableFuture.supplyAsync(() -> {
+            EventoTraduccion evento = lineas[motor].invalidar(posicion);
+            if (evento == null) {
+                return null;
+            }
+            while (eventos.get(motor).poll() != null) {
+                pendientes.decrementAndGet();
+            }
+            terminados[motor] = motores[motor].estaTerminado();
+            return new Posicion(evento, motores[motor].peptido());
+        }, hilo);
+    }
+
+    /**
+     * @return El numero de motores que comparten el reloj.
+     */
+    public int getNumeroMotores() {
+        return motores.length;
+    }
+
+    /**
+     * Entrega al consumidor todos los eventos pendientes del primer motor, en orden.
+     *
+     * @param consumidor Quien procesa cada evento.
+     * @return El numero de eventos entregados.
+     */
+    public int drenar(Consumer<EventoTraduccion> consumidor) {
+        return drenar(0, consumidor);
+    }
+
+    /**
+     * Entrega al consumidor todos los eventos pendientes de un motor, en orden.
+     *
+     * @param motor El indice del motor, en el orden del constructor.
+     * @param consumidor Quien procesa cada evento.
+     * @return El numero de eventos entregados.
+     */
+    public int drenar(int motor, Consumer<EventoTraduccion> consumidor) {
+        int entregados = 0;
+        EventoTraduccion evento;
+        while ((evento = eventos.get(motor).poll()) != null) {
+            pendientes.decrementAndGet();
+            consumidor.accept(evento);
+            entregados++;
+        }
+        return entregados;
+    }
+
+    /**
+     * Detiene la simulacion y libera el hilo.
+     */
+    @Override
+    public void close() {
+        pausar();
+        hilo.shutdownNow();
+    }
+
+    /**
+     * Avanza segun el reloj: en cada vuelta produce todos los codones que ya
+     * "vencieron" para la velocidad actual, y duerme hasta el siguiente.
+     */
+    private void bucle() {
+        long referencia = System.nanoTime();
+        double producidos = 0;
+        double velocidadReferencia = codonesPorSegundo;
+        while (corriendo && !Thread.currentThread().isInterrupted()) {
+            double velocidad = codonesPorSegundo;
+            if (velocidad != velocidadReferencia) {
+                // Al cambiar la velocidad se reinicia el reloj para no "recuperar" pasos atrasados.
+                referencia = System.nanoTime();
+                producidos = 0;
+                velocidadReferencia = velocidad;
+            }
+            if (pendientes.get() >= MAXIMO_PENDIENTES) {
+                LockSupport.parkNanos(200_000);
+                continue;
+            }
+            long vencidos;
+            if (Double.isInfinite(velocidad)) {
+                vencidos = MAXIMO_PENDIENTES - pendientes.get();
+            } else {
+                double transcurrido = (System.nanoTime() - referencia) / 1e9;
+                vencidos = (long) (transcurrido * velocidad + 1 - producidos);
+            }
+            if (vencidos <= 0) {
+                long espera = (long) (((producidos + 1) / velocidad) * 1e9) - (System.nanoTime() - referencia);
+                LockSupport.parkNanos(Math.max(50_000, espera));
+                continue;
+            }
+            for (long i = 0; i < vencidos && corriendo; i++) {
+                producidos++;
+                if (!avanzarUnPaso()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private List<Posicion> saltarAhora(int paso) {
+        List<Posicion> posiciones = new ArrayList<>(motores.length);
+        for (int i = 0; i < motores.length; i++) {
+            while (eventos.get(i).poll() != null) {
+                pendientes.decrementAndGet();
+            }
+            EventoTraduccion evento = lineas[i].saltar(paso);
+            terminados[i] = motores[i].estaTerminado();
+            posiciones.add(new Posicion(evento, motores[i].peptido()));
+        }
+        return posiciones;
+    }
+
+    /**
+     * Avanza un codon en cada motor que no ha terminado.
+     *
+     * @return false si todas las traducciones terminaron y la simulacion se detuvo.
+     */
+    private boolean avanzarUnPaso() {
+        boolean activos = false;
+        for (int i = 0; i < motores.length; i++) {
+            if (terminados[i]) {
+                continue;
+            }
+            EventoTraduccion evento = lineas[i].avanzar();
+            if (evento != null) {
+                PASOS.incrementar();
+                pendientes.incrementAndGet();
+                eventos.get(i).add(evento);
+            }
+            if (evento == null || evento.tipo() == EventoTraduccion.Tipo.TERMINACION) {
+                terminados[i] = true;
+            } else {
+                activos = true;
+            }
+        }
+        if (!activos) {
+            corriendo = false;
+        }
+        return activos;
+    }
+}
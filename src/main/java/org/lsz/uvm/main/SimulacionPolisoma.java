@@ -0,0 +1,395 @@
+package org.lsz.uvm.main;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ *
+ * Simulacion de un polisoma: muchos ribosomas traduciendo el mismo ARNm a la vez.
+ * Es una simulacion de eventos discretos (un TASEP con particulas extendidas):
+ * los ribosomas inician con una tasa fija, avanzan codon por codon con una tasa
+ * que puede depender del codon, ocupan {@code huella} codones (exclusion esterica)
+ * y, si el de adelante les estorba, chocan y esperan a que se mueva. Al llegar al
+ * codon de terminacion se liberan y cuentan como una proteina completada.
+ *
+ * Los tiempos de espera son exponenciales. La agenda de eventos es un monticulo
+ * binario sobre arreglos primitivos (un evento pendiente por ribosoma mas uno de
+ * iniciacion) y los ribosomas viven en un arreglo circular ordenado de 3' a 5',
+ * porque nunca se rebasan. Un ribosoma bloqueado sale de la agenda y vuelve cuando
+ * el de adelante avanza, asi que cada evento cuesta O(log n) sin importar cuantos
+ * ribosomas haya.
+ *
+ * No es seguro para hilos: debe usarse desde un solo hilo a la vez (por ejemplo
+ * el de {@link PolisomaEnSegundoPlano}).
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class SimulacionPolisoma {
+
+    /**
+     * Parametros cineticos del polisoma.
+     *
+     * @param tasaIniciacion Iniciaciones por segundo cuando el sitio de inicio esta libre.
+     * @param tasaElongacion Codones por segundo de un ribosoma sin obstaculos.
+     * @param tasaTerminacion Liberaciones por segundo en el codon de terminacion.
+     * @param huella Codones que ocupa cada ribosoma.
+     */
+    public record Parametros(double tasaIniciacion, double tasaElongacion, double tasaTerminacion, int huella) {
+
+        public Parametros {
+            if (!(tasaIniciacion > 0) || !(tasaElongacion > 0) || !(tasaTerminacion > 0)) {
+                throw new IllegalArgumentException("Las tasas deben ser positivas");
+            }
+            if (huella < 1) {
+                throw new IllegalArgumentException("Huella invalida: " + huella);
+            }
+        }
+
+        /**
+         * @return Valores tipicos de eucariotas: una iniciacion cada 10 s, 5 codones por
+         *         segundo y una huella de 10 codones (unos 30 nucleotidos).
+         */
+        public static Parametros porDefecto() {
+            return new Parametros(0.1, 5, 1, 10);
+        }
+    }
+
+    /**
+     * Estado del polisoma en un instante; es una copia que no cambia con la simulacion.
+     *
+     * @param tiempo Segundos simulados.
+     * @param posiciones Codon (sitio P) de cada ribosoma, del mas cercano a 3' al mas cercano a 5'.
+     * @param codones Codones del marco abierto, incluido el de terminacion si existe.
+     * @param proteinas Proteinas completadas.
+     * @param colisiones Intentos de avance bloqueados por el ribosoma de adelante.
+     * @param eventos Eventos procesados.
+     */
+    public record Instantanea(double tiempo, int[] posiciones, int codones, long proteinas,
+                              long colisiones, long eventos) {
+
+        public int ribosomas() {
+            return posiciones.length;
+        }
+    }
+
+    private final int codones;
+    private final int huella;
+    private final double tasaIniciacion;
+    private final double tasaTerminacion;
+    /** Tasa de avance desde cada codon del marco abierto. */
+    private final double[] tasaEnCodon;
+    private final SplittableRandom aleatorio;
+
+    // Ribosomas en un arreglo circular: cabeza es el mas cercano a 3'.
+    private final int capacidad;
+    private final int[] posicion;
+    private final double[] llegada;
+    private final boolean[] bloqueado;
+    private int cabeza;
+    private int activos;
+
+    // Agenda: identificadores 0..capacidad-1 son ribosomas, capacidad es la iniciacion.
+    private final int iniciacion;
+    private final double[] tiempoEvento;
+    private final int[] monticulo;
+    private int tamanoMonticulo;
+    private boolean iniciacionBloqueada;
+
+    /** Tiempo acumulado con un sitio P en cada codon, para el perfil de densidad. */
+    private final double[] ocupacion;
+    private double tiempo;
+    private long eventos;
+    private long proteinas;
+    private long colisiones;
+    private long aminoacidos;
+
+    /**
+     * Polisoma con la misma tasa de elongacion en todos los codones.
+     *
+     * @param secuencia La secuencia de ARNm.
+     * @param inicio La posicion de la primera base del codon de inicio.
+     * @param traductor El traductor que define donde termina la traduccion.
+     * @param parametros Los parametros cineticos.
+     * @param semilla La semilla del generador aleatorio.
+     */
+    public SimulacionPolisoma(SecuenciaNucleotidos secuencia, int inicio, TraductorCodones traductor,
+                              Parametros parametros, long semilla) {
+        this(secuencia, inicio, IndiceParadas.construir(secuencia, traductor), parametros, null, semilla);
+    }
+
+    /**
+     * @param secuencia La secuencia de ARNm.
+     * @param inicio La posicion de la primera base del codon de inicio.
+     * @param paradas El indice de paradas de la secuencia.
+     * @param parametros Los parametros cineticos.
+     * @param tasasPorCodon Codones por segundo para cada uno de los 64 codones, o null para
+     *                      usar {@link Parametros#tasaElongacion()} en todos.
+     * @param semilla La semilla del generador aleatorio.
+     */
+    public SimulacionPolisoma(SecuenciaNucleotidos secuencia, int inicio, IndiceParadas paradas,
+                              Parametros parametros, double[] tasasPorCodon, long semilla) {
+        if (inicio < 0 || inicio + 3 > secuencia.longitud()) {
+            throw new IllegalArgumentException("No hay un codon completo en la posicion " + inicio);
+        }
+        if (tasasPorCodon != null && tasasPorCodon.length != 64) {
+            throw new IllegalArgumentException("Se esperaban 64 tasas por codon");
+        }
+        int parada = paradas.siguienteParada(inicio);
+        this.codones = parada >= 0 ? (parada - inicio) / 3 + 1 : (secuencia.longitud() - inicio) / 3;
+        this.huella = parametros.huella();
+        this.tasaIniciacion = parametros.tasaIniciacion();
+        this.tasaTerminacion = parametros.tasaTerminacion();
+        this.tasaEnCodon = new double[codones];
+        for (int k = 0; k < codones; k++) {
+            double tasa = tasasPorCodon != null
+                    ? tasasPorCodon[secuencia.codon(inicio + 3 * k)] : parametros.tasaElongacion();
+            if (!(tasa > 0)) {
+                throw new IllegalArgumentException("Tasa no positiva para el codon " + k);
+            }
+            tasaEnCodon[k] = tasa;
+        }
+        this.aleatorio = new SplittableRandom(semilla);
+
+        this.capacidad = (codones + huella - 1) / huella + 1;
+        this.posicion = new int[capacidad];
+        this.llegada = new double[capacidad];
+        this.bloqueado = new boolean[capacidad];
+        this.iniciacion = capacidad;
+        this.tiempoEvento = new double[capacidad + 1];
+        this.monticulo = new int[capacidad + 1];
+        this.ocupacion = new double[codones];
+        programar(iniciacion, tasaIniciacion);
+    }
+
+    /**
+     * Procesa todos los eventos hasta el instante dado y deja el reloj en el.
+     *
+     * @param hasta Segundos simulados.
+     * @return El numero de eventos procesados.
+     */
+    public long avanzarHasta(double hasta) {
+        long procesados = 0;
+        while (tamanoMonticulo > 0 && tiempoEvento[monticulo[0]] <= hasta) {
+            procesar(extraer());
+            procesados++;
+        }
+        tiempo = Math.max(tiempo, hasta);
+        return procesados;
+    }
+
+    /**
+     * Procesa un numero fijo de eventos, sin importar cuanto tiempo simulado representen.
+     *
+     * @param cantidad Los eventos a procesar.
+     * @return El numero de eventos procesados (menos si la agenda se vacio).
+     */
+    public long avanzarEventos(long cantidad) {
+        long procesados = 0;
+        while (procesados < cantidad && tamanoMonticulo > 0) {
+            procesar(extraer());
+            procesados++;
+        }
+        return procesados;
+    }
+
+    /**
+     * @return Una copia del estado actual.
+     */
+    public Instantanea instantanea() {
+        int[] posiciones = new int[activos];
+        copiarPosiciones(posiciones);
+        return new Instantanea(tiempo, posiciones, codones, proteinas, colisiones, eventos);
+    }
+
+    /**
+     * Copia las posiciones de los ribosomas sin crear objetos.
+     *
+     * @param destino Arreglo con espacio para al menos {@link #getRibosomas()} posiciones.
+     * @return El numero de posiciones copiadas.
+     */
+    public int copiarPosiciones(int[] destino) {
+        for (int i = 0; i < activos; i++) {
+            destino[i] = posicion[(cabeza + i) % capacidad];
+        }
+        return activos;
+    }
+
+    /**
+     * Perfil de densidad: la fraccion del tiempo simulado que cada codon tuvo un
+     * sitio P encima, incluyendo a los ribosomas que siguen en su codon actual.
+     *
+     * @return Un valor entre 0 y 1 por codon del marco abierto.
+     */
+    public double[] densidad() {
+        double[] densidad = Arrays.copyOf(ocupacion, codones);
+        for (int i = 0; i < activos; i++) {
+            int ribosoma = (cabeza + i) % capacidad;
+            densidad[posicion[ribosoma]] += tiempo - llegada[ribosoma];
+        }
+        if (tiempo > 0) {
+            for (int k = 0; k < codones; k++) {
+                densidad[k] /= tiempo;
+            }
+        }
+        return densidad;
+    }
+
+    /**
+     * @return Proteinas completadas por segundo simulado.
+     */
+    public double flujo() {
+        return tiempo > 0 ? proteinas / tiempo : 0;
+    }
+
+    public double getTiempo() {
+        return tiempo;
+    }
+
+    public int getCodones() {
+        return codones;
+    }
+
+    public int getRibosomas() {
+        return activos;
+    }
+
+    /**
+     * @return El maximo de ribosomas que caben en el marco abierto con la huella dada.
+     */
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    public long getEventos() {
+        return eventos;
+    }
+
+    public long getProteinas() {
+        return proteinas;
+    }
+
+    public long getColisiones() {
+        return colisiones;
+    }
+
+    /**
+     * @return Aminoacidos incorporados por todos los ribosomas.
+     */
+    public long getAminoacidos() {
+        return aminoacidos;
+    }
+
+    private void procesar(int id) {
+        tiempo = tiempoEvento[id];
+        eventos++;
+        if (id == iniciacion) {
+            iniciar();
+            return;
+        }
+        int k = posicion[id];
+        if (k == codones - 1) {
+            // Terminacion: solo puede ser el ribosoma mas cercano a 3'.
+            ocupacion[k] += tiempo - llegada[id];
+            proteinas++;
+            cabeza = (cabeza + 1) % capacidad;
+            activos--;
+            if (activos > 0) {
+                despertar(cabeza);
+            } else if (iniciacionBloqueada) {
+                // Marco abierto mas corto que la huella: el inicio se libera al salir el ribosoma.
+                iniciacionBloqueada = false;
+                programar(iniciacion, tasaIniciacion);
+            }
+            return;
+        }
+        if (id != cabeza && posicion[anterior(id)] - (k + 1) < huella) {
+            colisiones++;
+            bloqueado[id] = true;
+            return;
+        }
+        ocupacion[k] += tiempo - llegada[id];
+        posicion[id] = k + 1;
+        llegada[id] = tiempo;
+        aminoacidos++;
+        programar(id, k + 1 == codones - 1 ? tasaTerminacion : tasaEnCodon[k + 1]);
+
+        if (id != ultimo()) {
+            int detras = (id + 1) % capacidad;
+            if (bloqueado[detras] && posicion[id] - posicion[detras] - 1 >= huella) {
+                despertar(detras);
+            }
+        } else if (iniciacionBloqueada && posicion[id] >= huella) {
+            iniciacionBloqueada = false;
+            programar(iniciacion, tasaIniciacion);
+        }
+    }
+
+    private void iniciar() {
+        if (activos > 0 && posicion[ultimo()] < huella) {
+            iniciacionBloqueada = true;
+            return;
+        }
+        int id = (cabeza + activos) % capacidad;
+        activos++;
+        posicion[id] = 0;
+        llegada[id] = tiempo;
+        bloqueado[id] = false;
+        programar(id, codones == 1 ? tasaTerminacion : tasaEnCodon[0]);
+        programar(iniciacion, tasaIniciacion);
+    }
+
+    private void despertar(int id) {
+        if (bloqueado[id]) {
+            bloqueado[id] = false;
+            int k = posicion[id];
+            programar(id, k == codones - 1 ? tasaTerminacion : tasaEnCodon[k]);
+        }
+    }
+
+    private int anterior(int id) {
+        return (id + capacidad - 1) % capacidad;
+    }
+
+    private int ultimo() {
+        return (cabeza + activos - 1) % capacidad;
+    }
+
+    /**
+     * Agenda el siguiente evento de {@code id} tras una espera exponencial.
+     */
+    private void programar(int id, double tasa) {
+        tiempoEvento[id] = tiempo - Math.log(1 - aleatorio.nextDouble()) / tasa;
+        int i = tamanoMonticulo++;
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            if (tiempoEvento[monticulo[padre]] <= tiempoEvento[id]) {
+                break;
+            }
+            monticulo[i] = monticulo[padre];
+            i = padre;
+        }
+        monticulo[i] = id;
+    }
+
+    private int extraer() {
+        int primero = monticulo[0];
+        int ultimoId = monticulo[--tamanoMonticulo];
+        double clave = tiempoEvento[ultimoId];
+        int i = 0;
+        int mitad = tamanoMonticulo >>> 1;
+        while (i < mitad) {
+            int hijo = 2 * i + 1;
+            if (hijo + 1 < tamanoMonticulo && tiempoEvento[monticulo[hijo + 1]] < tiempoEvento[monticulo[hijo]]) {
+                hijo++;
+            }
+            if (clave <= tiempoEvento[monticulo[hijo]]) {
+                break;
+            }
+            monticulo[i] = monticulo[hijo];
+            i = hijo;
+        }
+        monticulo[i] = ultimoId;
+        return primero;
+    }
+}
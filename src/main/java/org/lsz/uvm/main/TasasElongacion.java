@@ -0,0 +1,106 @@
+package org.lsz.uvm.main;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ *
+ * Tasa de elongacion (codones por segundo) de cada uno de los 64 codones. Se lee
+ * de {@code diccionario/tasas_codones.txt}, que usa el mismo formato que
+ * {@code aminoacidos.txt} ({@code CODON-tasa}, una por linea, y lineas con '#'
+ * como comentarios). En los codones de terminacion el valor es la tasa de
+ * liberacion del ribosoma. Los codones ausentes del archivo usan
+ * {@link #TASA_POR_DEFECTO}.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class TasasElongacion {
+
+    /** Ruta del archivo de tasas, junto al diccionario de aminoacidos. */
+    public static final Path RUTA_TASAS = Paths.get("diccionario", "tasas_codones.txt");
+
+    /** Codones por segundo de un codon sin tasa propia. */
+    public static final double TASA_POR_DEFECTO = 5;
+
+    private final double[] tasas;
+
+    private TasasElongacion(double[] tasas) {
+        this.tasas = tasas;
+    }
+
+    /**
+     * @param tasa Codones por segundo para todos los codones.
+     * @return Tasas iguales para todos los codones.
+     */
+    public static TasasElongacion uniformes(double tasa) {
+        if (!(tasa > 0)) {
+            throw new IllegalArgumentException("La tasa debe ser positiva: " + tasa);
+        }
+        double[] tasas = new double[64];
+        Arrays.fill(tasas, tasa);
+        return new TasasElongacion(tasas);
+    }
+
+    /**
+     * @return Las tasas de {@link #RUTA_TASAS}, o uniformes si el archivo no existe.
+     * @throws IOException si el archivo existe pero no se puede leer o tiene errores
+     */
+    public static TasasElongacion porDefecto() throws IOException {
+        return Files.exists(RUTA_TASAS) ? leer(RUTA_TASAS) : uniformes(TASA_POR_DEFECTO);
+    }
+
+    /**
+     * @param archivo La ruta de un archivo de tasas.
+     * @return Las tasas leidas.
+     * @throws IOException si el archivo no se puede leer o alguna linea es invalida
+     */
+    public static TasasElongacion leer(Path archivo) throws IOException {
+        double[] tasas = new double[64];
+        Arrays.fill(tasas, TASA_POR_DEFECTO);
+        try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            String linea;
+            int numero = 0;
+            while ((linea = lector.readLine()) != null) {
+                numero++;
+                linea = linea.strip();
+                if (linea.isEmpty() || linea.startsWith("#")) {
+                    continue;
+                }
+                int separador = linea.indexOf('-');
+                int codon = separador > 0 ? TraductorCodones.codificarCodon(linea.substring(0, separador).strip()) : -1;
+                double tasa;
+                try {
+                    tasa = separador > 0 ? Double.parseDouble(linea.substring(separador + 1).strip()) : Double.NaN;
+                } catch (NumberFormatException e) {
+                    tasa = Double.NaN;
+                }
+                if (codon < 0 || !(tasa > 0) || Double.isInfinite(tasa)) {
+                    throw new IOException(archivo + ":" + numero + ": se esperaba CODON-tasa positiva: " + linea);
+                }
+                tasas[codon] = tasa;
+            }
+        }
+        return new TasasElongacion(tasas);
+    }
+
+    /**
+     * @param codon El codigo del codon (0 a 63).
+     * @return Codones por segundo.
+     */
+    public double tasa(int codon) {
+        return tasas[codon & 0x3F];
+    }
+
+    /**
+     * @return Una copia de las 64 tasas indexadas por codigo de codon.
+     */
+    public double[] comoArreglo() {
+        return tasas.clone();
+    }
+}
@@ -0,0 +1,368 @@
+package org.lsz.uvm.main;
+
+import org.lsz.uvm.util.RegistroMetricas;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.Consumer;
+
+/**
+ *
+ * Traduccion en flujo para archivos de cualquier tamano, con memoria constante.
+ * En lugar de cargar la secuencia completa y despues el peptido completo, el
+ * archivo pasa por etapas conectadas con {@link Flow}:
+ * <pre>
+ *   lectura (hilo que llama) -> limpieza -> marco de codones y traduccion -> destino
+ * </pre>
+ * Cada etapa corre en su propio hilo y se comunica con la siguiente por un
+ * {@link SubmissionPublisher} de capacidad {@link #CAPACIDAD}: si una etapa se
+ * atrasa, la anterior espera (contrapresion), de modo que la lectura del disco y
+ * la traduccion se solapan sin acumular trozos en memoria.
+ *
+ * La limpieza es la misma que la de {@link CargadorSecuenciaMapeada} (encabezados
+ * FASTA, numeros y espacios se descartan; una letra que no es base detiene la
+ * traduccion con una {@link IOException}). La fase del codon se conserva entre
+ * trozos, y el destino recibe el peptido en {@link Segmento}s: uno al final de
+ * cada trozo con los residuos nuevos, y uno al llegar a cada codon de terminacion.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class TraduccionEnFlujo {
+
+    /** Bytes que se leen del archivo en cada trozo. */
+    public static final int TAMANO_TROZO = 64 * 1024;
+
+    /** Trozos que cada etapa puede tener pendientes antes de detener a la anterior. */
+    public static final int CAPACIDAD = 8;
+
+    private static final RegistroMetricas.Temporizador FLUJOS =
+            RegistroMetricas.global().temporizador("traduccion.flujo", "bytes");
+
+    /**
+     * Parte del peptido lista para el destino.
+     *
+     * @param primerResiduo Indice, dentro de su peptido, del primer residuo del segmento.
+     * @param aminoacidos Codigos de {@link Aminoacido} del segmento (puede estar vacio si
+     *                    el peptido termina justo al inicio de un trozo).
+     * @param completo true si el segmento termina en un codon de terminacion.
+     */
+    public record Segmento(long primerResiduo, byte[] aminoacidos, boolean completo) {
+
+        /**
+         * @return Los residuos con el codigo de una letra.
+         */
+        public String enLetras() {
+            return Aminoacido.aLetras(aminoacidos);
+        }
+    }
+
+    /**
+     * Totales de una traduccion en flujo.
+     *
+     * @param bytes Bytes leidos del archivo.
+     * @param bases Bases que quedaron despues de la limpieza.
+     * @param residuos Aminoacidos entregados al destino.
+     * @param peptidos Peptidos que terminaron en un codon de terminacion.
+     */
+    public record Resumen(long bytes, long bases, long residuos, int peptidos) {
+    }
+
+    private final TraductorCodones traductor;
+    private final boolean continuarTrasParada;
+
+    /**
+     * @param traductor El traductor con el diccionario compilado.
+     * @param continuarTrasParada false para detenerse en el primer codon de terminacion
+     *                            (como {@link ARN#procesarSecuenciaARN}); true para seguir
+     *                            traduciendo en el mismo marco y entregar un peptido por cada parada.
+     */
+    public TraduccionEnFlujo(TraductorCodones traductor, boolean continuarTrasParada) {
+        this.traductor = traductor;
+        this.continuarTrasParada = continuarTrasParada;
+    }
+
+    /**
+     * @param archivo El archivo de secuencia (texto numerado o FASTA).
+     * @param destino Recibe los segmentos en orden, desde el hilo de la ultima etapa.
+     * @return Los totales de la traduccion.
+     * @throws IOException si el archivo no se puede leer
+     */
+    public Resumen traducir(Path archivo, Consumer<Segmento> destino) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            return traducir(canal, destino);
+        }
+    }
+
+    /**
+     * @param canal La fuente de texto; se lee hasta el final o hasta que termina la traduccion.
+     * @param destino Recibe los segmentos en orden, desde el hilo de la ultima etapa.
+     * @return Los totales de la traduccion.
+     * @throws IOException si el canal no se puede leer
+     */
+    public Resumen traducir(ReadableByteChannel canal, Consumer<Segmento> destino) throws IOException {
+        long inicio = System.nanoTime();
+        // Hilos sin limite fijo: una etapa bloqueada por contrapresion no debe dejar sin hilo a la siguiente.
+        ExecutorService hilos = Executors.newCachedThreadPool(tarea -> {
+            Thread hilo = new Thread(tarea, "flujo-traduccion");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        SubmissionPublisher<byte[]> lectura = new SubmissionPublisher<>(hilos, CAPACIDAD);
+        Limpieza limpieza = new Limpieza(hilos);
+        Traduccion traduccion = new Traduccion(hilos);
+        Destino sumidero = new Destino(destino);
+        lectura.subscribe(limpieza);
+        limpieza.subscribe(traduccion);
+        traduccion.subscribe(sumidero);
+
+        long bytes = 0;
+        try {
+            // Termina al acabarse el archivo, o antes si la traduccion ya no necesita mas bases.
+            while (!sumidero.fin.isDone() && !lectura.isClosed()) {
+                ByteBuffer trozo = ByteBuffer.allocate(TAMANO_TROZO);
+                int leidos = canal.read(trozo);
+                if (leidos < 0) {
+                    break;
+                }
+                bytes += leidos;
+                if (leidos > 0) {
+                    lectura.submit(leidos == TAMANO_TROZO ? trozo.array() : Arrays.copyOf(trozo.array(), leidos));
+                }
+            }
+            lectura.close();
+            sumidero.fin.join();
+        } catch (IOException e) {
+            lectura.closeExceptionally(e);
+            throw e;
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (causa instanceof RuntimeException error) {
+                throw error;
+            }
+            if (causa instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(causa);
+        } finally {
+            hilos.shutdownNow();
+        }
+        FLUJOS.registrar(System.nanoTime() - inicio, bytes);
+        return new Resumen(bytes, limpieza.bases, sumidero.residuos, sumidero.peptidos);
+    }
+
+    /**
+     * Etapa de limpieza: de bytes de texto a codigos de base de 2 bits (uno por byte).
+     */
+    private static final class Limpieza extends SubmissionPublisher<byte[]> implements Flow.Processor<byte[], byte[]> {
+        private Flow.Subscription subscripcion;
+        private boolean inicioLinea = true;
+        private boolean enEncabezado;
+        private long linea = 1;
+        private volatile long bases;
+
+        Limpieza(Executor hilos) {
+            super(hilos, CAPACIDAD);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscripcion) {
+            this.subscripcion = subscripcion;
+            subscripcion.request(1);
+        }
+
+        @Override
+        public void onNext(byte[] trozo) {
+            if (getNumberOfSubscribers() == 0) {
+                // La traduccion ya termino: no se necesitan mas trozos.
+                subscripcion.cancel();
+                close();
+                return;
+            }
+            byte[] salida = new byte[trozo.length];
+            int n = 0;
+            for (byte caracter : trozo) {
+                if (caracter == '\n') {
+                    inicioLinea = true;
+                    enEncabezado = false;
+                    linea++;
+                    continue;
+                }
+                if (enEncabezado) {
+                    continue;
+                }
+                byte base = CargadorSecuenciaMapeada.TABLA_BASES[caracter & 0xFF];
+                if (base >= 0) {
+                    salida[n++] = base;
+                } else if (base == CargadorSecuenciaMapeada.ENCABEZADO && inicioLinea) {
+                    enEncabezado = true;
+                } else if (base == CargadorSecuenciaMapeada.NO_BASE) {
+                    // Descartarla correria el marco de lectura: se detiene el flujo.
+                    subscripcion.cancel();
+                    closeExceptionally(new UncheckedIOException(
+                            CargadorSecuenciaMapeada.residuoInvalido(caracter, linea, null)));
+                    return;
+                }
+                inicioLinea = false;
+            }
+            if (n > 0) {
+                bases += n;
+                submit(n == salida.length ? salida : Arrays.copyOf(salida, n));
+            }
+            subscripcion.request(1);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            closeExceptionally(error);
+        }
+
+        @Override
+        public void onComplete() {
+            close();
+        }
+    }
+
+    /**
+     * Etapa de traduccion: agrupa las bases en codones (la fase pasa de un trozo al
+     * siguiente) y entrega el peptido en segmentos.
+     */
+    private final class Traduccion extends SubmissionPublisher<Segmento> implements Flow.Processor<byte[], Segmento> {
+        private Flow.Subscription subscripcion;
+        private int codon;
+        private int fase;
+        private long primerResiduo;
+        private byte[] residuos = new byte[TAMANO_TROZO / 3 + 1];
+        private int pendientes;
+        private boolean terminada;
+
+        Traduccion(Executor hilos) {
+            super(hilos, CAPACIDAD);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscripcion) {
+            this.subscripcion = subscripcion;
+            subscripcion.request(1);
+        }
+
+        @Override
+        public void onNext(byte[] bases) {
+            if (terminada) {
+                return;
+            }
+            if (residuos.length < bases.length / 3 + 1) {
+                residuos = new byte[bases.length / 3 + 1];
+            }
+            for (byte base : bases) {
+                codon = ((codon << 2) | base) & 0x3F;
+                if (++fase < 3) {
+                    continue;
+                }
+                fase = 0;
+                if (!traductor.terminaTraduccion(codon)) {
+                    residuos[pendientes++] = traductor.codigo(codon);
+                    continue;
+                }
+                entregar(true);
+                if (!continuarTrasParada) {
+                    terminada = true;
+                    subscripcion.cancel();
+                    close();
+                    return;
+                }
+            }
+            if (pendientes > 0) {
+                entregar(false);
+            }
+            if (getNumberOfSubscribers() == 0) {
+                // El destino cancelo (por ejemplo, por un error al escribir).
+                terminada = true;
+                subscripcion.cancel();
+                return;
+            }
+            subscripcion.request(1);
+        }
+
+        private void entregar(boolean completo) {
+            submit(new Segmento(primerResiduo, Arrays.copyOf(residuos, pendientes), completo));
+            primerResiduo = completo ? 0 : primerResiduo + pendientes;
+            pendientes = 0;
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            closeExceptionally(error);
+        }
+
+        @Override
+        public void onComplete() {
+            if (!terminada) {
+                close();
+            }
+        }
+    }
+
+    /**
+     * Ultima etapa: entrega los segmentos a quien llamo y cuenta los totales.
+     */
+    private static final class Destino implements Flow.Subscriber<Segmento> {
+        private final Consumer<Segmento> consumidor;
+        private final CompletableFuture<Void> fin = new CompletableFuture<>();
+        private Flow.Subscription subscripcion;
+        private long residuos;
+        private int peptidos;
+
+        Destino(Consumer<Segmento> consumidor) {
+            this.consumidor = consumidor;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscripcion) {
+            this.subscripcion = subscripcion;
+            subscripcion.request(1);
+        }
+
+        @Override
+        public void onNext(Segmento segmento) {
+            try {
+                consumidor.accept(segmento);
+            } catch (RuntimeException e) {
+                subscripcion.cancel();
+                fin.completeExceptionally(e);
+                return;
+            }
+            residuos += segmento.aminoacidos().length;
+            if (segmento.completo()) {
+                peptidos++;
+            }
+            subscripcion.request(1);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            fin.completeExceptionally(error);
+        }
+
+        @Override
+        public void onComplete() {
+            fin.complete(null);
+        }
+    }
+}
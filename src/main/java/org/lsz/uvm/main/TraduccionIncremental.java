@@ -0,0 +1,268 @@
+package org.lsz.uvm.main;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Traduccion de un marco de lectura que se mantiene al dia mientras se edita la
+ * {@link SecuenciaEditable}: cada edicion vuelve a leer solo los codones que
+ * cambiaron. Una sustitucion o un indel que conserva el marco relee los codones
+ * tocados y desplaza el resto del peptido; un indel que cambia el marco relee
+ * desde el codon editado hasta el siguiente codon de terminacion. Las ediciones
+ * despues del codon de terminacion no cuestan nada.
+ *
+ * Como {@link MotorTraduccion}, la traduccion termina en un codon de terminacion o
+ * desconocido, o al acabarse las bases.
+ *
+ * No es segura para hilos.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class TraduccionIncremental {
+
+    private static final byte[] SIN_RESIDUOS = new byte[0];
+
+    /**
+     *
+     * Efecto de una edicion en la proteina: los residuos {@code anteriores} que
+     * empezaban en {@code residuo} se reemplazaron por {@code nuevos}. Los residuos
+     * iguales al principio y al final del tramo no se incluyen, asi que un cambio
+     * sinonimo deja ambos arreglos vacios.
+     *
+     * @param residuo Primer residuo distinto (desde 0).
+     * @param anteriores Codigos de {@link Aminoacido} que salieron.
+     * @param nuevos Codigos de {@link Aminoacido} que entraron.
+     * @param codonesLeidos Codones que se volvieron a traducir para esta edicion.
+     * @param longitudAnterior Longitud de la proteina antes de la edicion.
+     * @param longitudNueva Longitud de la proteina despues de la edicion.
+     */
+    public record Cambio(int residuo, byte[] anteriores, byte[] nuevos, int codonesLeidos,
+                         int longitudAnterior, int longitudNueva) {
+
+        /**
+         * @return true si la proteina no cambio.
+         */
+        public boolean sinCambio() {
+            return anteriores.length == 0 && nuevos.length == 0;
+        }
+
+        /**
+         * @return Un resumen legible para la interfaz o la consola.
+         */
+        public String describir() {
+            StringBuilder texto = new StringBuilder();
+            if (sinCambio()) {
+                texto.append("La proteína no cambia");
+            } else if (anteriores.length == 1 && nuevos.length == 1) {
+                texto.append("Residuo ").append(residuo + 1).append(": ")
+                        .append(Aminoacido.desdeCodigo(anteriores[0]).getNombre()).append(" -> ")
+                        .append(Aminoacido.desdeCodigo(nuevos[0]).getNombre());
+            } else {
+                texto.append("Desde el residuo ").append(residuo + 1).append(": ")
+                        .append(anteriores.length).append(" aa reemplazados por ").append(nuevos.length).append(" aa");
+            }
+            texto.append(". Proteína: ").append(longitudAnterior).append(" -> ").append(longitudNueva)
+                    .append(" aa (").append(codonesLeidos).append(" codones releídos).");
+            return texto.toString();
+        }
+    }
+
+    private final SecuenciaEditable secuencia;
+    private final TraductorCodones traductor;
+    private int inicio;
+    private byte[] peptido = new byte[16];
+    private int longitud;
+    private int parada = -1;
+
+    /**
+     * Traduce la secuencia completa una vez.
+     *
+     * @param secuencia La secuencia; a partir de ahora debe editarse solo con {@link #editar}.
+     * @param inicio La posicion de la primera base del primer codon.
+     * @param traductor El traductor con el diccionario compilado.
+     */
+    public TraduccionIncremental(SecuenciaEditable secuencia, int inicio, TraductorCodones traductor) {
+        if (inicio < 0 || inicio > secuencia.longitud()) {
+            throw new IndexOutOfBoundsException("Inicio " + inicio + " fuera de la secuencia de longitud " + secuencia.longitud());
+        }
+        this.secuencia = secuencia;
+        this.inicio = inicio;
+        this.traductor = traductor;
+        traducirDesde(0);
+    }
+
+    /**
+     * Edita la secuencia (ver {@link SecuenciaEditable#editar}) y actualiza la proteina.
+     * Las ediciones antes del marco solo lo desplazan; no pueden tocar el primer codon.
+     *
+     * @param posicion Primera base afectada (desde 0).
+     * @param quitar Bases a eliminar.
+     * @param nuevas Bases a insertar.
+     * @return El efecto de la edicion en la proteina.
+     * @throws IndexOutOfBoundsException si el tramo a quitar excede la secuencia
+     * @throws IllegalArgumentException si {@code nuevas} no son bases o la edicion cruza el inicio del marco
+     */
+    public Cambio editar(int posicion, int quitar, CharSequence nuevas) {
+        if (posicion < inicio && posicion + quitar > inicio) {
+            throw new IllegalArgumentException("La edicion en " + (posicion + 1) + " cruza el inicio del marco en " + (inicio + 1));
+        }
+        int longitudAnterior = longitud;
+        secuencia.editar(posicion, quitar, nuevas);
+        int delta = nuevas.length() - quitar;
+        if (posicion < inicio || (posicion == inicio && quitar == 0 && delta > 0)) {
+            // Antes del marco: la proteina es la misma, solo se recorre.
+            inicio += delta;
+            parada = parada >= 0 ? parada + delta : -1;
+            return new Cambio(0, SIN_RESIDUOS, SIN_RESIDUOS, 0, longitudAnterior, longitud);
+        }
+        if (parada >= 0 && posicion >= parada + 3) {
+            return new Cambio(longitud, SIN_RESIDUOS, SIN_RESIDUOS, 0, longitudAnterior, longitud);
+        }
+
+        int primerCodon = Math.min((posicion - inicio) / 3, longitud);
+        if (delta % 3 != 0) {
+            // Cambio de marco: todo lo que sigue se lee en el marco nuevo.
+            byte[] anteriores = Arrays.copyOfRange(peptido, primerCodon, longitud);
+            int leidos = traducirDesde(primerCodon);
+            return cambio(primerCodon, anteriores, leidos, longitudAnterior);
+        }
+
+        // El marco se conserva: el codon j despues del tramo editado pasa a ser j + delta / 3.
+        int finAnterior = Math.floorDiv(posicion + quitar - inicio + 2, 3);
+        int finNuevo = finAnterior + delta / 3;
+        if (finAnterior > longitud) {
+            // El tramo incluia el codon de terminacion (o las ultimas bases): se sigue leyendo.
+            byte[] anteriores = Arrays.copyOfRange(peptido, primerCodon, longitud);
+            int leidos = traducirDesde(primerCodon);
+            return cambio(primerCodon, anteriores, leidos, longitudAnterior);
+        }
+        byte[] anteriores = Arrays.copyOfRange(peptido, primerCodon, finAnterior);
+        byte[] nuevos = new byte[finNuevo - primerCodon];
+        int leidos = 0;
+        for (int j = primerCodon; j < finNuevo; j++) {
+            int base = inicio + 3 * j;
+            leidos++;
+            Aminoacido aminoacido = base + 3 <= secuencia.longitud() ? traductor.aminoacido(secuencia.codon(base)) : null;
+            if (aminoacido == null || aminoacido.terminaTraduccion()) {
+                // Aparecio un codon de terminacion (o se acabaron las bases) dentro del tramo.
+                byte[] truncados = Arrays.copyOfRange(peptido, primerCodon, longitud);
+                if (j > peptido.length) {
+                    peptido = Arrays.copyOf(peptido, Math.max(j, peptido.length * 2));
+                }
+                System.arraycopy(nuevos, 0, peptido, primerCodon, j - primerCodon);
+                longitud = j;
+                parada = aminoacido != null ? base : -1;
+                return cambio(primerCodon, truncados, leidos, longitudAnterior);
+            }
+            nuevos[j - primerCodon] = aminoacido.codigo();
+        }
+        reemplazar(primerCodon, finAnterior, nuevos);
+        parada = parada >= 0 ? parada + delta : -1;
+        return recortar(primerCodon, anteriores, nuevos, leidos, longitudAnterior);
+    }
+
+    public SecuenciaEditable getSecuencia() {
+        return secuencia;
+    }
+
+    /**
+     * @return La posicion de la primera base del primer codon.
+     */
+    public int getInicio() {
+        return inicio;
+    }
+
+    /**
+     * @return Los aminoacidos de la proteina, sin el STOP.
+     */
+    public int getLongitud() {
+        return longitud;
+    }
+
+    /**
+     * @return La posicion del codon de terminacion, o -1 si la traduccion llega al final de la secuencia.
+     */
+    public int getParada() {
+        return parada;
+    }
+
+    /**
+     * @param indice El residuo (desde 0).
+     * @return El aminoacido en esa posicion de la proteina.
+     */
+    public Aminoacido residuo(int indice) {
+        if (indice < 0 || indice >= longitud) {
+            throw new IndexOutOfBoundsException("Residuo " + indice + " fuera de la proteina de longitud " + longitud);
+        }
+        return Aminoacido.desdeCodigo(peptido[indice]);
+    }
+
+    /**
+     * @return Una copia de los codigos de la proteina.
+     */
+    public byte[] peptido() {
+        return Arrays.copyOf(peptido, longitud);
+    }
+
+    /**
+     * Descarta la proteina desde el residuo indicado y vuelve a traducir hasta el
+     * siguiente codon de terminacion o el final de la secuencia.
+     *
+     * @return Los codones leidos.
+     */
+    private int traducirDesde(int residuo) {
+        longitud = residuo;
+        parada = -1;
+        int leidos = 0;
+        for (int base = inicio + 3 * residuo; base + 3 <= secuencia.longitud(); base += 3) {
+            leidos++;
+            Aminoacido aminoacido = traductor.aminoacido(secuencia.codon(base));
+            if (aminoacido.terminaTraduccion()) {
+                parada = base;
+                break;
+            }
+            if (longitud == peptido.length) {
+                peptido = Arrays.copyOf(peptido, peptido.length * 2);
+            }
+            peptido[longitud++] = aminoacido.codigo();
+        }
+        return leidos;
+    }
+
+    /**
+     * Reemplaza los residuos {@code [desde, hasta)} por {@code nuevos}, desplazando el resto.
+     */
+    private void reemplazar(int desde, int hasta, byte[] nuevos) {
+        int nuevaLongitud = longitud - (hasta - desde) + nuevos.length;
+        if (nuevaLongitud > peptido.length) {
+            peptido = Arrays.copyOf(peptido, Math.max(nuevaLongitud, peptido.length * 2));
+        }
+        System.arraycopy(peptido, hasta, peptido, desde + nuevos.length, longitud - hasta);
+        System.arraycopy(nuevos, 0, peptido, desde, nuevos.length);
+        longitud = nuevaLongitud;
+    }
+
+    private Cambio cambio(int residuo, byte[] anteriores, int leidos, int longitudAnterior) {
+        return recortar(residuo, anteriores, Arrays.copyOfRange(peptido, residuo, longitud), leidos, longitudAnterior);
+    }
+
+    /**
+     * Quita de ambos lados los residuos que no cambiaron.
+     */
+    private Cambio recortar(int residuo, byte[] anteriores, byte[] nuevos, int leidos, int longitudAnterior) {
+        int prefijo = Arrays.mismatch(anteriores, nuevos);
+        if (prefijo < 0) {
+            return new Cambio(residuo + anteriores.length, SIN_RESIDUOS, SIN_RESIDUOS, leidos, longitudAnterior, longitud);
+        }
+        int sufijo = 0;
+        int maximo = Math.min(anteriores.length, nuevos.length) - prefijo;
+        while (sufijo < maximo && anteriores[anteriores.length - 1 - sufijo] == nuevos[nuevos.length - 1 - sufijo]) {
+            sufijo++;
+        }
+        return new Cambio(residuo + prefijo,
+                Arrays.copyOfRange(anteriores, prefijo, anteriores.length - sufijo),
+                Arrays.copyOfRange(nuevos, prefijo, nuevos.length - sufijo),
+                leidos, longitudAnterior, longitud);
+    }
+}
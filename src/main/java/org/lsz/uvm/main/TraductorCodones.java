@@ -0,0 +1,229 @@
+package org.lsz.uvm.main;
+
+import org.lsz.uvm.util.RegistroMetricas;
+
+import jdk.jfr.EventType;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *
+ * Motor de traduccion que compila el diccionario de aminoacidos una sola vez
+ * en una tabla primitiva de 64 entradas, indexada por el codigo de codon de
+ * {@link SecuenciaEmpaquetada#codon(int)}. La traduccion de cada codon es un
+ * acceso a arreglo: no crea cadenas, no calcula hashes y no compara textos.
+ * Acepta cualquier {@link SecuenciaNucleotidos}, empaquetada o virtual.
+ *
+ * Dos traductores son iguales si sus tablas lo son, de modo que sirven como parte
+ * de la llave de {@link CacheSecuencias} aunque se compilen por separado. Compilar
+ * otra vez el mismo diccionario devuelve el traductor ya compilado.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class TraductorCodones {
+
+    /** Codigo del codon de inicio AUG. */
+    public static final int CODON_INICIO = (SecuenciaEmpaquetada.A << 4) | (SecuenciaEmpaquetada.U << 2) | SecuenciaEmpaquetada.G;
+
+    private static final int NUMERO_CODONES = 64;
+
+    private static final RegistroMetricas.Temporizador TRADUCCIONES =
+            RegistroMetricas.global().temporizador("traduccion", "codones");
+    /** Se consulta antes de crear el evento para no asignarlo cuando no hay grabacion. */
+    private static final EventType EVENTO_TRADUCCION = EventType.getEventType(EventosJFR.Traduccion.class);
+
+    /** Ultimo diccionario compilado (una copia) y su traductor. */
+    private record Compilado(Map<String, String> mapa, TraductorCodones traductor) {
+    }
+
+    private static volatile Compilado ultimoCompilado;
+
+    private final byte[] tabla;
+
+    private TraductorCodones(byte[] tabla) {
+        this.tabla = tabla;
+    }
+
+    /**
+     * Compila el diccionario codon-aminoacido producido por
+     * {@code DiccionarioAminoacidos.crearDiccionarioAminoacidos()}.
+     * Los codones ausentes del diccionario quedan como {@link Aminoacido#DESCONOCIDO}.
+     * Si el diccionario es igual al ultimo compilado se devuelve el mismo traductor.
+     *
+     * @param mapaAminoacidos El mapa de codon (ej. "AUG") a nombre de aminoacido.
+     * @return El traductor con la tabla compilada.
+     */
+    public static TraductorCodones compilar(Map<String, String> mapaAminoacidos) {
+        Compilado anterior = ultimoCompilado;
+        if (anterior != null && anterior.mapa().equals(mapaAminoacidos)) {
+            return anterior.traductor();
+        }
+        byte[] tabla = new byte[NUMERO_CODONES];
+        Arrays.fill(tabla, Aminoacido.DESCONOCIDO.codigo());
+        for (Map.Entry<String, String> entrada : mapaAminoacidos.entrySet()) {
+            int codon = codificarCodon(entrada.getKey());
+            if (codon >= 0) {
+                tabla[codon] = Aminoacido.desdeNombre(entrada.getValue()).codigo();
+            }
+        }
+        TraductorCodones traductor = new TraductorCodones(tabla);
+        ultimoCompilado = new Compilado(new HashMap<>(mapaAminoacidos), traductor);
+        return traductor;
+    }
+
+    /**
+     * Convierte un codon en texto a su codigo de 0 a 63.
+     *
+     * @param codon El codon de tres letras (ej. "AUG").
+     * @return El codigo del codon o -1 si el texto no es un codon valido.
+     */
+    public static int codificarCodon(CharSequence codon) {
+        if (codon == null || codon.length() != 3) {
+            return -1;
+        }
+        int codigo = 0;
+        for (int i = 0; i < 3; i++) {
+            int base = SecuenciaEmpaquetada.codificar(codon.charAt(i));
+            if (base < 0) {
+                return -1;
+            }
+            codigo = (codigo << 2) | base;
+        }
+        return codigo;
+    }
+
+    /**
+     * Convierte un codigo de codon a sus tres letras de ARN.
+     *
+     * @param codon El codigo del codon (0 a 63).
+     * @return El codon en texto.
+     */
+    public static String decodificarCodon(int codon) {
+        return new String(new char[]{
+                SecuenciaEmpaquetada.decodificar(codon >>> 4),
+                SecuenciaEmpaquetada.decodificar(codon >>> 2),
+                SecuenciaEmpaquetada.decodificar(codon)});
+    }
+
+    /**
+     * @param codon El codigo del codon (0 a 63).
+     * @return El codigo compacto del aminoacido que codifica.
+     */
+    public byte codigo(int codon) {
+        return tabla[codon & 0x3F];
+    }
+
+    /**
+     * @param codon El codigo del codon (0 a 63).
+     * @return El aminoacido que codifica.
+     */
+    public Aminoacido aminoacido(int codon) {
+        return Aminoacido.desdeCodigo(tabla[codon & 0x3F]);
+    }
+
+    /**
+     * @param codon El codigo del codon (0 a 63).
+     * @return true si el codon es de terminacion o no esta en el diccionario.
+     */
+    public boolean terminaTraduccion(int codon) {
+        byte codigo = tabla[codon & 0x3F];
+        return codigo == Aminoacido.STOP.codigo() || codigo == Aminoacido.DESCONOCIDO.codigo();
+    }
+
+    /**
+     * @return Mascara de 64 bits con un bit encendido por cada codon que termina la
+     * traduccion; identifica el conjunto de paradas con el que se construyo un {@link IndiceParadas}.
+     */
+    public long mascaraTerminacion() {
+        long mascara = 0;
+        for (int codon = 0; codon < NUMERO_CODONES; codon++) {
+            if (terminaTraduccion(codon)) {
+                mascara |= 1L << codon;
+            }
+        }
+        return mascara;
+    }
+
+    /**
+     * Traduce codon por codon desde la posicion indicada hasta encontrar un codon
+     * de terminacion o el final de la secuencia.
+     *
+     * @param secuencia La secuencia de ARNm.
+     * @param inicio La posicion de la primera base del primer codon.
+     * @return El peptido como codigos de {@link Aminoacido}, sin incluir el STOP.
+     */
+    public byte[] traducir(SecuenciaNucleotidos secuencia, int inicio) {
+        byte[] peptido = new byte[Math.max(0, (secuencia.longitud() - inicio) / 3)];
+        int longitud = traducir(secuencia, inicio, peptido);
+        return longitud == peptido.length ? peptido : Arrays.copyOf(peptido, longitud);
+    }
+
+    /**
+     * Traduce sobre un arreglo provisto por quien llama. Sin una grabacion de JFR que
+     * incluya el evento de traduccion no asigna memoria; con ella crea un evento por llamada.
+     *
+     * @param secuencia La secuencia de ARNm.
+     * @param inicio La posicion de la primera base del primer codon.
+     * @param destino El arreglo donde se escriben los codigos de aminoacido.
+     * @return El numero de aminoacidos escritos en {@code destino}.
+     */
+    public int traducir(SecuenciaNucleotidos secuencia, int inicio, byte[] destino) {
+        EventosJFR.Traduccion evento = EVENTO_TRADUCCION.isEnabled() ? new EventosJFR.Traduccion() : null;
+        if (evento != null) {
+            evento.begin();
+        }
+        long comienzo = System.nanoTime();
+        byte parada = Aminoacido.STOP.codigo();
+        byte desconocido = Aminoacido.DESCONOCIDO.codigo();
+        int limite = Math.min(destino.length, Math.max(0, (secuencia.longitud() - inicio) / 3));
+        int encontrados = 0;
+        int puntero = inicio;
+        while (encontrados < limite) {
+            byte codigo = tabla[secuencia.codon(puntero)];
+            if (codigo == parada || codigo == desconocido) {
+                break;
+            }
+            destino[encontrados++] = codigo;
+            puntero += 3;
+        }
+        // Codones leidos, incluido el de terminacion si se alcanzo.
+        int leidos = encontrados < limite ? encontrados + 1 : encontrados;
+        TRADUCCIONES.registrar(System.nanoTime() - comienzo, leidos);
+        if (evento != null && evento.shouldCommit()) {
+            evento.inicio = inicio;
+            evento.codones = leidos;
+            evento.longitud = secuencia.longitud();
+            evento.commit();
+        }
+        return encontrados;
+    }
+
+    @Override
+    public boolean equals(Object otro) {
+        return otro instanceof TraductorCodones traductor && Arrays.equals(tabla, traductor.tabla);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(tabla);
+    }
+
+    /**
+     * Busca el siguiente codon de terminacion en el mismo marco de lectura.
+     *
+     * @param secuencia La secuencia de ARNm.
+     * @param inicio La posicion de la primera base del primer codon.
+     * @return La posicion del codon de terminacion o -1 si no hay ninguno.
+     */
+    public int posicionTerminacion(SecuenciaNucleotidos secuencia, int inicio) {
+        for (int puntero = inicio; puntero + 3 <= secuencia.longitud(); puntero += 3) {
+            if (terminaTraduccion(secuencia.codon(puntero))) {
+                return puntero;
+            }
+        }
+        return -1;
+    }
+}
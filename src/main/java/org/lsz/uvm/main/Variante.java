@@ -0,0 +1,117 @@
+package org.lsz.uvm.main;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *
+ * Variante puntual o indel sobre una secuencia de referencia: las bases
+ * {@code referencia} que inician en {@code posicion} se reemplazan por
+ * {@code alterna}. Un alelo vacio representa una insercion pura (referencia
+ * vacia) o una delecion pura (alterna vacia); tambien se aceptan los indels
+ * al estilo VCF que repiten la base de anclaje.
+ *
+ * @param posicion Primera base afectada en la referencia (desde 0).
+ * @param referencia Bases esperadas en la referencia (A, C, G, T/U).
+ * @param alterna Bases que las reemplazan en el alelo mutado.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public record Variante(int posicion, String referencia, String alterna) {
+
+    public Variante {
+        if (posicion < 0) {
+            throw new IllegalArgumentException("Posicion negativa: " + posicion);
+        }
+        referencia = normalizar(referencia);
+        alterna = normalizar(alterna);
+    }
+
+    /**
+     * @return Las bases que agrega (positivo) o quita (negativo) la variante.
+     */
+    public int cambioLongitud() {
+        return alterna.length() - referencia.length();
+    }
+
+    /**
+     * @return El fin (exclusivo) de las bases afectadas en la referencia.
+     */
+    public int fin() {
+        return posicion + referencia.length();
+    }
+
+    /**
+     * @return La variante con la posicion desde 1, por ejemplo {@code 1012:G>A} o {@code 88:->CT}.
+     */
+    public String notacion() {
+        return (posicion + 1) + ":" + (referencia.isEmpty() ? "-" : referencia) + ">" + (alterna.isEmpty() ? "-" : alterna);
+    }
+
+    /**
+     * Lee una tabla de variantes separada por tabuladores. Las lineas vacias o que
+     * inician con '#' se ignoran. Se aceptan dos formatos, con posiciones desde 1:
+     * <pre>
+     *   POS  REF  ALT                         (3 columnas)
+     *   CHROM  POS  ID  REF  ALT  [...]       (estilo VCF, 5 o mas columnas)
+     * </pre>
+     * Un alelo vacio se escribe como "-" o ".".
+     *
+     * @param archivo La ruta de la tabla.
+     * @return Las variantes en el orden del archivo.
+     * @throws IOException si el archivo no se puede leer o una linea es invalida
+     */
+    public static List<Variante> leerTabla(Path archivo) throws IOException {
+        List<Variante> variantes = new ArrayList<>();
+        try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            String linea;
+            int numero = 0;
+            while ((linea = lector.readLine()) != null) {
+                numero++;
+                if (linea.isBlank() || linea.startsWith("#")) {
+                    continue;
+                }
+                String[] columnas = linea.split("\t");
+                int pos;
+                int ref;
+                if (columnas.length >= 5) {
+                    pos = 1;
+                    ref = 3;
+                } else if (columnas.length == 3) {
+                    pos = 0;
+                    ref = 1;
+                } else {
+                    throw new IOException("Linea " + numero + " de " + archivo + " invalida: " + linea);
+                }
+                try {
+                    variantes.add(new Variante(Integer.parseInt(columnas[pos].trim()) - 1,
+                            columnas[ref].trim(), columnas[ref + 1].trim()));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Linea " + numero + " de " + archivo + " invalida: " + e.getMessage(), e);
+                }
+            }
+        }
+        return variantes;
+    }
+
+    private static String normalizar(String alelo) {
+        if (alelo == null || alelo.equals("-") || alelo.equals(".")) {
+            return "";
+        }
+        char[] bases = new char[alelo.length()];
+        for (int i = 0; i < bases.length; i++) {
+            int base = SecuenciaEmpaquetada.codificar(alelo.charAt(i));
+            if (base < 0) {
+                throw new IllegalArgumentException("Alelo con bases invalidas: " + alelo);
+            }
+            bases[i] = SecuenciaEmpaquetada.decodificar(base);
+        }
+        return new String(bases);
+    }
+}
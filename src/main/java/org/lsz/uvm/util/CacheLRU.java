@@ -0,0 +1,166 @@
+package org.lsz.uvm.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ *
+ * Cache LRU acotada por peso: cada valor declara cuanto "pesa" (por ejemplo,
+ * bytes aproximados) y, cuando la suma supera el maximo, se desalojan las
+ * entradas usadas hace mas tiempo. Un valor que por si solo excede el maximo
+ * no se guarda.
+ *
+ * Todas las operaciones estan sincronizadas; la carga de un valor ausente se
+ * hace fuera del candado para no bloquear a otros hilos durante la E/S.
+ *
+ * @param <K> Tipo de la clave.
+ * @param <V> Tipo del valor.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class CacheLRU<K, V> {
+
+    private final long pesoMaximo;
+    private final ToLongFunction<? super V> pesador;
+    private final LinkedHashMap<K, V> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private long pesoActual;
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+
+    /**
+     * @param pesoMaximo Suma maxima de los pesos de las entradas.
+     * @param pesador Calcula el peso de un valor.
+     */
+    public CacheLRU(long pesoMaximo, ToLongFunction<? super V> pesador) {
+        this.pesoMaximo = Math.max(0, pesoMaximo);
+        this.pesador = pesador;
+    }
+
+    /**
+     * @param clave La clave buscada.
+     * @return El valor, o null si no esta en la cache.
+     */
+    public synchronized V obtener(K clave) {
+        V valor = entradas.get(clave);
+        if (valor != null) {
+            aciertos++;
+        } else {
+            fallos++;
+        }
+        return valor;
+    }
+
+    /**
+     * Devuelve el valor de la cache o lo carga y lo guarda. Si dos hilos piden la
+     * misma clave ausente al mismo tiempo ambos cargan, y se conserva el primero.
+     *
+     * @param clave La clave buscada.
+     * @param cargador Produce el valor cuando no esta en la cache.
+     * @return El valor.
+     */
+    public V obtener(K clave, Function<? super K, ? extends V> cargador) {
+        V valor = obtener(clave);
+        if (valor != null) {
+            return valor;
+        }
+        V cargado = cargador.apply(clave);
+        if (cargado == null) {
+            return null;
+        }
+        synchronized (this) {
+            V existente = entradas.get(clave);
+            if (existente != null) {
+                return existente;
+            }
+            guardarSinCandado(clave, cargado);
+        }
+        return cargado;
+    }
+
+    /**
+     * Guarda o reemplaza un valor.
+     *
+     * @param clave La clave.
+     * @param valor El valor.
+     */
+    public synchronized void guardar(K clave, V valor) {
+        guardarSinCandado(clave, valor);
+    }
+
+    /**
+     * Quita una entrada.
+     *
+     * @param clave La clave a quitar.
+     * @return El valor que tenia, o null si no estaba.
+     */
+    public synchronized V invalidar(K clave) {
+        V valor = entradas.remove(clave);
+        if (valor != null) {
+            pesoActual -= pesador.applyAsLong(valor);
+        }
+        return valor;
+    }
+
+    /**
+     * Vacia la cache.
+     */
+    public synchronized void limpiar() {
+        entradas.clear();
+        pesoActual = 0;
+    }
+
+    public synchronized int tamano() {
+        return entradas.size();
+    }
+
+    public synchronized long getPesoActual() {
+        return pesoActual;
+    }
+
+    public long getPesoMaximo() {
+        return pesoMaximo;
+    }
+
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    public synchronized long getDesalojos() {
+        return desalojos;
+    }
+
+    private void guardarSinCandado(K clave, V valor) {
+        long peso = pesador.applyAsLong(valor);
+        V anterior = entradas.remove(clave);
+        if (anterior != null) {
+            pesoActual -= pesador.applyAsLong(anterior);
+        }
+        if (peso > pesoMaximo) {
+            return;
+        }
+        entradas.put(clave, valor);
+        pesoActual += peso;
+        Iterator<Map.Entry<K, V>> iterador = entradas.entrySet().iterator();
+        while (pesoActual > pesoMaximo && iterador.hasNext()) {
+            Map.Entry<K, V> masAntigua = iterador.next();
+            pesoActual -= pesador.applyAsLong(masAntigua.getValue());
+            iterador.remove();
+            desalojos++;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CacheLRU[entradas=" + entradas.size() + ", peso=" + pesoActual + "/" + pesoMaximo
+                + ", aciertos=" + aciertos + ", fallos=" + fallos + ", desalojos=" + desalojos + "]";
+    }
+}
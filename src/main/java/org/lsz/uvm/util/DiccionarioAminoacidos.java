@@ -3,6 +3,8 @@ package org.lsz.uvm.util;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,45 +18,81 @@ import java.util.Map;
  */
 public class DiccionarioAminoacidos {
 
+    // Ruta del archivo del diccionario
+    private static final String RUTA_DICCIONARIO = "diccionario/aminoacidos.txt";
+
+    // Última lectura del archivo: se reutiliza mientras su fecha de modificación y su tamaño no cambien
+    private static Map<String, String> diccionarioLeido;
+    private static long modificacionLeida = -1;
+    private static long tamanoLeido = -1;
+
     /**
      *  Realiza una lectura de un archivo de aminoacidos y llena
      *  un mapa con la informacion sobre aminoacido y codon
-     *  correspondiente
+     *  correspondiente. El archivo solo se vuelve a leer si cambio
+     *  desde la llamada anterior; cada llamada recibe su propia copia del mapa.
      *
      * @return Un mapa con los aminoacidos y su codon
+     * @throws UncheckedIOException si el archivo existe pero no se puede leer
      */
-    public static Map<String, String> crearDiccionarioAminoacidos(){
+    public static synchronized Map<String, String> crearDiccionarioAminoacidos(){
+        File archivoAminoacidos = new File(RUTA_DICCIONARIO);
+        long modificacion = archivoAminoacidos.lastModified();
+        long tamano = archivoAminoacidos.length();
+        // Si el archivo no cambió desde la última lectura se devuelve una copia del mapa en memoria
+        if (diccionarioLeido == null || modificacion != modificacionLeida || tamano != tamanoLeido) {
+            diccionarioLeido = leerDiccionario(archivoAminoacidos);
+            modificacionLeida = modificacion;
+            tamanoLeido = tamano;
+        }
+        return new HashMap<>(diccionarioLeido);
+    }
+
+    /**
+     *  Lee el archivo de aminoacidos linea por linea. Las lineas sin el
+     *  separador '-' se omiten y se reportan en el flujo de errores.
+     *
+     * @param archivoAminoacidos El archivo del diccionario
+     * @return Un mapa con los aminoacidos y su codon (vacio si el archivo no existe)
+     * @throws UncheckedIOException si el archivo existe pero no se puede leer
+     */
+    private static Map<String, String> leerDiccionario(File archivoAminoacidos){
         // Declara el mapa que almacenará el diccionario.
         Map<String, String> mapaAminoacidos = new HashMap<>();
-        // Inicio de manejo de excepciones
-        try {
-            // Creacion de instancia de archivo para realizar la lectura del archivo de
-            // aminoacidos
-            File archivoAminoacidos = new File("diccionario/aminoacidos.txt");
-            // Valida si el archivo existe
-            if(archivoAminoacidos.exists()){
-                // Se crea instancia para poder leer el archivo linea por linea
-                BufferedReader br = new BufferedReader(new FileReader(archivoAminoacidos));
-                // Se crea variable para almacenar el contenido de cada linea
-                String linea = "";
-                // Sentencia de control para validar cuando ya se leyo la ultima linea
-                while((linea = br.readLine()) != null) {
-                    String delimeter = "-";
-                    // Almacena el codigo genetico del codon
-                    String codigoGenetico = linea.substring(0, linea.indexOf(delimeter));
-                    // Almacena el nombre del aminoacido
-                    String aminoacido = linea.substring(linea.indexOf(delimeter) + 1);
-                    // Se agrega el codon y el aminoacido a un mapa en formato clave-valor
-                    mapaAminoacidos.put(codigoGenetico, aminoacido);
+        // Valida si el archivo existe
+        if(!archivoAminoacidos.exists()){
+            System.err.println("Error: No se encontro el diccionario " + archivoAminoacidos);
+            RegistroMetricas.global().contador("diccionario.noEncontrado").incrementar();
+            return mapaAminoacidos;
+        }
+        // Se crea instancia para poder leer el archivo linea por linea; se cierra aunque falle la lectura
+        try (BufferedReader br = new BufferedReader(new FileReader(archivoAminoacidos))) {
+            // Se crea variable para almacenar el contenido de cada linea
+            String linea;
+            int numeroLinea = 0;
+            // Sentencia de control para validar cuando ya se leyo la ultima linea
+            while((linea = br.readLine()) != null) {
+                numeroLinea++;
+                int delimitador = linea.indexOf('-');
+                if (delimitador <= 0) {
+                    if (!linea.isBlank()) {
+                        System.err.println(archivoAminoacidos + ":" + numeroLinea + ": linea invalida: " + linea);
+                        RegistroMetricas.global().contador("diccionario.lineasInvalidas").incrementar();
+                    }
+                    continue;
                 }
-                br.close();
+                // Almacena el codigo genetico del codon
+                String codigoGenetico = linea.substring(0, delimitador);
+                // Almacena el nombre del aminoacido
+                String aminoacido = linea.substring(delimitador + 1);
+                // Se agrega el codon y el aminoacido a un mapa en formato clave-valor
+                mapaAminoacidos.put(codigoGenetico, aminoacido);
             }
-            // Bloque de codigo para manejo de errores
-        } catch (Exception e){
-            e.getCause();
-            // Bloque de codigo para sentencias no dependientes del manejo de
-            // excepciones
+        } catch (IOException e){
+            // El error se propaga en lugar de devolver un diccionario incompleto en silencio
+            throw new UncheckedIOException("No se pudo leer el diccionario " + archivoAminoacidos, e);
         }
+        RegistroMetricas.global().contador("diccionario.lecturas").incrementar();
         return mapaAminoacidos;
     }
 
@@ -0,0 +1,251 @@
+package org.lsz.uvm.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ *
+ * Registro de metricas en el mismo proceso: contadores, temporizadores y
+ * medidores identificados por nombre. Registrar un valor cuesta un par de
+ * operaciones sobre {@link LongAdder}, sin candados, asi que puede quedarse
+ * activo en produccion.
+ *
+ * El estado se lee con {@link #volcar(Appendable)}. Para procesos sin interfaz
+ * (por ejemplo un lote) se puede pedir un volcado periodico a un archivo con las
+ * propiedades del sistema {@code traduccion.metricas} (ruta del archivo) y
+ * {@code traduccion.metricas.segundos} (intervalo, 10 por defecto); el archivo
+ * se reemplaza de forma atomica y se escribe una ultima vez al salir.
+ *
+ * @version 1.0
+ * @since 17/10/2026
+ */
+public final class RegistroMetricas {
+
+    private static final RegistroMetricas GLOBAL = new RegistroMetricas();
+
+    static {
+        String ruta = System.getProperty("traduccion.metricas");
+        if (ruta != null && !ruta.isBlank()) {
+            GLOBAL.volcarPeriodicamente(Paths.get(ruta), Long.getLong("traduccion.metricas.segundos", 10));
+        }
+    }
+
+    /** Suma monotona de eventos o cantidades. */
+    public static final class Contador {
+        private final LongAdder valor = new LongAdder();
+
+        public void incrementar() {
+            valor.increment();
+        }
+
+        public void sumar(long cantidad) {
+            valor.add(cantidad);
+        }
+
+        public long valor() {
+            return valor.sum();
+        }
+    }
+
+    /**
+     * Duraciones de una operacion: cuantas veces ocurrio, el tiempo total y el
+     * maximo. Opcionalmente suma las unidades procesadas (bytes, codones) para
+     * reportar el rendimiento en unidades por segundo.
+     */
+    public static final class Temporizador {
+        private final String unidad;
+        private final LongAdder veces = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder unidades = new LongAdder();
+        private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+        private Temporizador(String unidad) {
+            this.unidad = unidad;
+        }
+
+        /**
+         * @param nanos Duracion de una ocurrencia.
+         */
+        public void registrar(long nanos) {
+            registrar(nanos, 0);
+        }
+
+        /**
+         * @param nanos Duracion de una ocurrencia.
+         * @param unidades Cantidad procesada en esa ocurrencia.
+         */
+        public void registrar(long nanos, long unidades) {
+            veces.increment();
+            this.nanos.add(nanos);
+            this.unidades.add(unidades);
+            maximo.accumulate(nanos);
+        }
+
+        public long veces() {
+            return veces.sum();
+        }
+
+        public long nanosTotales() {
+            return nanos.sum();
+        }
+
+        public long nanosMaximo() {
+            return maximo.get();
+        }
+
+        public long unidades() {
+            return unidades.sum();
+        }
+
+        /**
+         * @return Unidades por segundo de tiempo medido, o 0 si no hay mediciones.
+         */
+        public double rendimiento() {
+            long total = nanos.sum();
+            return total > 0 ? unidades.sum() * 1e9 / total : 0;
+        }
+    }
+
+    private final Map<String, Contador> contadores = new ConcurrentHashMap<>();
+    private final Map<String, Temporizador> temporizadores = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> medidores = new ConcurrentHashMap<>();
+    private final long creado = System.nanoTime();
+
+    /**
+     * @return El registro que usan la carga, la traduccion, la cache y la interfaz grafica.
+     */
+    public static RegistroMetricas global() {
+        return GLOBAL;
+    }
+
+    /**
+     * @param nombre Nombre de la metrica (por ejemplo {@code carga.bytes}).
+     * @return El contador con ese nombre; se crea la primera vez.
+     */
+    public Contador contador(String nombre) {
+        return contadores.computeIfAbsent(nombre, n -> new Contador());
+    }
+
+    /**
+     * @param nombre Nombre de la metrica.
+     * @return El temporizador con ese nombre, sin unidades.
+     */
+    public Temporizador temporizador(String nombre) {
+        return temporizador(nombre, null);
+    }
+
+    /**
+     * @param nombre Nombre de la metrica.
+     * @param unidad Nombre de las unidades procesadas (por ejemplo "codones"), o null.
+     * @return El temporizador con ese nombre; se crea la primera vez.
+     */
+    public Temporizador temporizador(String nombre, String unidad) {
+        return temporizadores.computeIfAbsent(nombre, n -> new Temporizador(unidad));
+    }
+
+    /**
+     * Registra un valor que se consulta al volcar (por ejemplo los aciertos de una cache).
+     *
+     * @param nombre Nombre de la metrica.
+     * @param fuente Produce el valor actual; reemplaza a la anterior con el mismo nombre.
+     */
+    public void medidor(String nombre, LongSupplier fuente) {
+        medidores.put(nombre, fuente);
+    }
+
+    /**
+     * @return Todos los valores actuales como nombre a numero, ordenados por nombre.
+     */
+    public Map<String, Number> valores() {
+        Map<String, Number> valores = new TreeMap<>();
+        contadores.forEach((nombre, contador) -> valores.put(nombre, contador.valor()));
+        medidores.forEach((nombre, fuente) -> valores.put(nombre, fuente.getAsLong()));
+        temporizadores.forEach((nombre, t) -> {
+            valores.put(nombre + ".veces", t.veces());
+            valores.put(nombre + ".ms", t.nanosTotales() / 1e6);
+            valores.put(nombre + ".maxMs", t.nanosMaximo() / 1e6);
+            if (t.unidad != null) {
+                valores.put(nombre + "." + t.unidad, t.unidades());
+                valores.put(nombre + "." + t.unidad + "PorSegundo", t.rendimiento());
+            }
+        });
+        return valores;
+    }
+
+    /**
+     * Escribe el estado como texto, una metrica por linea ({@code nombre valor}).
+     *
+     * @param salida Destino del volcado.
+     * @throws IOException si el destino falla
+     */
+    public void volcar(Appendable salida) throws IOException {
+        salida.append("# metricas ").append(Instant.now().toString())
+                .append(String.format(" activo=%.1fs%n", (System.nanoTime() - creado) / 1e9));
+        for (Map.Entry<String, Number> entrada : valores().entrySet()) {
+            Number valor = entrada.getValue();
+            salida.append(entrada.getKey()).append(' ')
+                    .append(valor instanceof Double ? String.format("%.3f", valor.doubleValue()) : valor.toString())
+                    .append(System.lineSeparator());
+        }
+    }
+
+    /**
+     * @return El volcado como texto.
+     */
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder();
+        try {
+            volcar(texto);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Escribe el volcado en un archivo cada cierto tiempo y al terminar la JVM.
+     *
+     * @param archivo El archivo de estado; se reemplaza de forma atomica en cada escritura.
+     * @param segundos Intervalo entre escrituras.
+     */
+    public void volcarPeriodicamente(Path archivo, long segundos) {
+        ScheduledExecutorService programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "volcado-metricas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        Runnable escribir = () -> {
+            try {
+                escribirArchivo(archivo);
+            } catch (IOException e) {
+                System.err.println("No se pudo escribir " + archivo + ": " + e.getMessage());
+            }
+        };
+        long intervalo = Math.max(1, segundos);
+        programador.scheduleWithFixedDelay(escribir, intervalo, intervalo, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(escribir, "volcado-metricas-final"));
+    }
+
+    private void escribirArchivo(Path archivo) throws IOException {
+        Path absoluto = archivo.toAbsolutePath();
+        Path temporal = absoluto.resolveSibling(absoluto.getFileName() + ".tmp");
+        Files.writeString(temporal, toString(), StandardCharsets.UTF_8);
+        Files.move(temporal, absoluto, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -19,17 +19,25 @@ public class UtilSimulacionRibosomal {
      * @return una cadena sin los numeros contenidos en el codigo genetico previo
      */
     public static String removerNumeros(String lineaInicial){
-        // Paso 1: Limpieza Absoluta usando Regex.
-        // Reemplaza TODO lo que NO sea A, T, C, G (mayúsculas o minúsculas) por una cadena vacía.
-        // Esto elimina dígitos, espacios, tabulaciones y caracteres de control de una sola vez.
-        String lineaLimpia = lineaInicial.replaceAll("[^atcgATCG]", "");
+        // Paso 1 y 2 en una sola pasada: conserva solo A, T, C, G (mayúsculas o minúsculas),
+        // las pasa a mayúsculas y convierte T en U, sin compilar expresiones regulares
+        // ni crear cadenas intermedias.
+        char[] lineaARN = new char[lineaInicial.length()];
+        int longitud = 0;
+        for (int i = 0; i < lineaInicial.length(); i++) {
+            char base = lineaInicial.charAt(i);
+            switch (base) {
+                case 'A': case 'a': lineaARN[longitud++] = 'A'; break;
+                case 'C': case 'c': lineaARN[longitud++] = 'C'; break;
+                case 'G': case 'g': lineaARN[longitud++] = 'G'; break;
+                case 'T': case 't': lineaARN[longitud++] = 'U'; break;
+                default: break;
+            }
+        }
 
-        // Paso 2: Conversión Segura a ARN.
-        if (lineaLimpia.isEmpty()) {
+        if (longitud == 0) {
             return "";
         }
-
-        // Convierte todo a mayúsculas y luego cambia T por U.
-        return lineaLimpia.toUpperCase().replace('T', 'U');
+        return new String(lineaARN, 0, longitud);
     }
 }
\ No newline at end of file